@@ -0,0 +1,60 @@
+-- Migration v3: índices e tabelas de suporte a performance
+-- Executar após o migration-v2.sql
+
+-- 1. Paginação por keyset da listagem de transações (user_id, date, id)
+CREATE INDEX IF NOT EXISTS idx_transactions_user_date_id ON transaction(user_id, date DESC, id DESC);
+
+-- 2. Fotos de perfil em disco: metadados por usuário, endereçados pelo SHA-256 do conteúdo.
+-- A coluna users.profile_image_base64 é mantida: a aplicação migra as fotos na inicialização
+-- e só limpa a coluna das que foram gravadas com sucesso.
+CREATE TABLE IF NOT EXISTS profile_images (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL UNIQUE,
+    content_hash VARCHAR(64) NOT NULL,
+    content_type VARCHAR(50) NOT NULL,
+    size_bytes BIGINT NOT NULL,
+    thumbnail_size_bytes BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_profile_images_hash ON profile_images(content_hash);
+
+-- 3. Auditoria por interceptor: latência da requisição e IP de origem.
+-- O IP vem de getRemoteAddr(); IPv6 com zona pode passar de 50 caracteres, e um valor
+-- longo demais derrubaria o lote inteiro de inserts. A coluna passa ao tamanho da entidade.
+ALTER TABLE action_logs ADD COLUMN IF NOT EXISTS latency_ms BIGINT;
+ALTER TABLE action_logs ALTER COLUMN ip_address TYPE VARCHAR(255);
+
+-- 4. Paginação por keyset dos logs de auditoria (geral e por usuário).
+-- Os índices simples da v2 ficam cobertos pelos compostos e só encareceriam a escrita.
+CREATE INDEX IF NOT EXISTS idx_action_logs_timestamp_id ON action_logs(timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_action_logs_user_timestamp_id ON action_logs(user_id, timestamp, id);
+DROP INDEX IF EXISTS idx_action_logs_user_id;
+DROP INDEX IF EXISTS idx_action_logs_timestamp;
+
+-- 5. Outbox de emails: gravados na transação de origem e entregues em segundo plano
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body VARCHAR(4000) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL,
+    locked_until TIMESTAMP,
+    last_error VARCHAR(500),
+    created_at TIMESTAMP NOT NULL,
+    sent_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_email_outbox_status_next ON email_outbox(status, next_attempt_at);
+
+-- 6. Alertas automáticos: chave da regra que gerou a notificação, única por usuário,
+-- para que o NotificationRuleEngine não repita o mesmo alerta
+ALTER TABLE notifications ADD COLUMN IF NOT EXISTS rule_key VARCHAR(150);
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_notifications_user_rule_key') THEN
+        ALTER TABLE notifications ADD CONSTRAINT uk_notifications_user_rule_key UNIQUE (user_id, rule_key);
+    END IF;
+END $$;
@@ -0,0 +1,53 @@
+package com.qfin.qfinbackend.config;
+
+import com.qfin.qfinbackend.dto.CurrentUser;
+import com.qfin.qfinbackend.service.ActionLogService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Audita os endpoints que alteram dados (POST, PUT, PATCH, DELETE): ação, usuário, IP e
+ * latência. O registro vai para a fila do ActionLogWriter sem bloquear a requisição.
+ */
+@Component
+public class AuditInterceptor implements HandlerInterceptor {
+
+    private static final Set<String> MUTATING_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+    private static final String START_ATTRIBUTE = AuditInterceptor.class.getName() + ".start";
+
+    @Autowired
+    private ActionLogService actionLogService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (MUTATING_METHODS.contains(request.getMethod())) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+            actionLogService.beginRequest(request);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (start == null) return;
+        long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - (Long) start);
+
+        Long userId = null;
+        String userEmail = null;
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof CurrentUser currentUser) {
+            userId = currentUser.getId();
+            userEmail = currentUser.getUsername();
+        }
+        actionLogService.completeRequest(request, response.getStatus(), latencyMs, userId, userEmail);
+    }
+}
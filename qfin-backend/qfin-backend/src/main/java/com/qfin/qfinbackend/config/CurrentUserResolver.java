@@ -0,0 +1,50 @@
+package com.qfin.qfinbackend.config;
+
+import com.qfin.qfinbackend.dto.CurrentUser;
+import com.qfin.qfinbackend.model.User;
+import com.qfin.qfinbackend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Usuário da requisição atual. O JwtAuthenticationFilter resolve o CurrentUser uma vez
+ * por requisição (via UserDetailsCache); aqui ele é apenas lido do SecurityContext, sem
+ * nova consulta ao banco.
+ */
+@Component
+public class CurrentUserResolver {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    public CurrentUser current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof CurrentUser currentUser)) {
+            throw new RuntimeException("Usuário não encontrado");
+        }
+        return currentUser;
+    }
+
+    public Long currentUserId() {
+        return current().getId();
+    }
+
+    // JWT da requisição atual, guardado como credencial pelo JwtAuthenticationFilter
+    public String currentToken() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getCredentials() instanceof String token)) {
+            throw new RuntimeException("Usuário não encontrado");
+        }
+        return token;
+    }
+
+    /**
+     * Referência JPA ao usuário atual para os services que recebem User. Não consulta o
+     * banco: só o id é lido, a menos que outro campo seja acessado.
+     */
+    public User reference() {
+        return userRepository.getReferenceById(currentUserId());
+    }
+}
@@ -1,6 +1,8 @@
 package com.qfin.qfinbackend.config;
 
 import com.qfin.qfinbackend.service.JwtUtil;
+import com.qfin.qfinbackend.service.UserDetailsCache;
+import com.qfin.qfinbackend.service.VerifiedToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,10 +25,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final UserDetailsCache userDetailsCache;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService,
+                                   UserDetailsCache userDetailsCache) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.userDetailsCache = userDetailsCache;
     }
 
     @Override
@@ -55,13 +60,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         jwt = authHeader.substring(7);
 
         try {
-            userEmail = jwtUtil.extractUsername(jwt);
+            // Assinatura e expiração verificadas uma única vez por requisição
+            VerifiedToken verifiedToken = jwtUtil.verify(jwt);
+            userEmail = verifiedToken.subject();
 
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-                if (jwtUtil.validateToken(jwt, userDetails.getUsername())) {
+                UserDetails userDetails = userDetailsCache.get(userEmail,
+                        () -> this.userDetailsService.loadUserByUsername(userEmail));
+                if (userEmail.equals(userDetails.getUsername())) {
+                    // O token fica como credencial para quem precisa devolvê-lo (CurrentUserResolver.currentToken)
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails, null, userDetails.getAuthorities());
+                            userDetails, jwt, userDetails.getAuthorities());
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
                 }
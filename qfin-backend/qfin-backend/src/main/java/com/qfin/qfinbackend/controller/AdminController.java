@@ -1,16 +1,22 @@
 package com.qfin.qfinbackend.controller;
 
-import com.qfin.qfinbackend.model.ActionLog;
+import com.qfin.qfinbackend.dto.CurrentUser;
+import com.qfin.qfinbackend.config.CurrentUserResolver;
 import com.qfin.qfinbackend.model.User;
 import com.qfin.qfinbackend.model.UserRole;
 import com.qfin.qfinbackend.service.ActionLogService;
-import com.qfin.qfinbackend.service.JwtUtil;
+import com.qfin.qfinbackend.service.ActionLogWriter;
+import com.qfin.qfinbackend.service.DashboardCache;
+import com.qfin.qfinbackend.service.EmailOutboxService;
+import com.qfin.qfinbackend.service.UserDetailsCache;
 import com.qfin.qfinbackend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -27,27 +33,32 @@ public class AdminController {
     private ActionLogService actionLogService;
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private CurrentUserResolver currentUserResolver;
 
-    private User getRequestingUser(String authHeader) {
-        String token = authHeader.substring(7);
-        String email = jwtUtil.extractUsername(token);
-        return userService.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
-    }
+    @Autowired
+    private DashboardCache dashboardCache;
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private ActionLogWriter actionLogWriter;
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
 
-    private void requireRole(User user, UserRole... roles) {
-        for (UserRole role : roles) {
-            if (user.getRole() == role) return;
+    private CurrentUser requireRole(UserRole... roles) {
+        CurrentUser requester = currentUserResolver.current();
+        if (!requester.hasRole(roles)) {
+            throw new RuntimeException("Acesso negado. Permissão insuficiente.");
         }
-        throw new RuntimeException("Acesso negado. Permissão insuficiente.");
+        return requester;
     }
 
     @GetMapping("/users")
-    public ResponseEntity<?> listUsers(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> listUsers() {
         try {
-            User requester = getRequestingUser(authHeader);
-            requireRole(requester, UserRole.ADMIN, UserRole.OPERATOR);
+            requireRole(UserRole.ADMIN, UserRole.OPERATOR);
             List<User> users = userService.getAllUsers();
             return ResponseEntity.ok(users.stream().map(u -> Map.of(
                     "id", u.getId(),
@@ -65,11 +76,9 @@ public class AdminController {
     @PutMapping("/users/{id}/role")
     public ResponseEntity<?> changeUserRole(
             @PathVariable Long id,
-            @RequestBody Map<String, String> body,
-            @RequestHeader("Authorization") String authHeader) {
+            @RequestBody Map<String, String> body) {
         try {
-            User requester = getRequestingUser(authHeader);
-            requireRole(requester, UserRole.ADMIN);
+            CurrentUser requester = requireRole(UserRole.ADMIN);
 
             String roleStr = body.get("role");
             UserRole newRole;
@@ -88,14 +97,14 @@ public class AdminController {
 
     @GetMapping("/logs")
     public ResponseEntity<?> getAllLogs(
-            @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "50") int size,
-            @RequestHeader("Authorization") String authHeader) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
         try {
-            User requester = getRequestingUser(authHeader);
-            requireRole(requester, UserRole.ADMIN, UserRole.OPERATOR);
-            List<ActionLog> logs = actionLogService.getAllLogs(page, size);
-            return ResponseEntity.ok(logs);
+            requireRole(UserRole.ADMIN, UserRole.OPERATOR);
+            return ResponseEntity.ok(actionLogService.getLogPage(null, from, to, action, cursor, size));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
@@ -104,12 +113,54 @@ public class AdminController {
     @GetMapping("/logs/user/{userId}")
     public ResponseEntity<?> getUserLogs(
             @PathVariable Long userId,
-            @RequestHeader("Authorization") String authHeader) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            requireRole(UserRole.ADMIN, UserRole.OPERATOR);
+            return ResponseEntity.ok(actionLogService.getLogPage(userId, from, to, action, cursor, size));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/cache/dashboard")
+    public ResponseEntity<?> getDashboardCacheStats() {
+        try {
+            requireRole(UserRole.ADMIN, UserRole.OPERATOR);
+            return ResponseEntity.ok(dashboardCache.getStats());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/cache/user-details")
+    public ResponseEntity<?> getUserDetailsCacheStats() {
+        try {
+            requireRole(UserRole.ADMIN, UserRole.OPERATOR);
+            return ResponseEntity.ok(userDetailsCache.getStats());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/audit/stats")
+    public ResponseEntity<?> getAuditWriterStats() {
+        try {
+            requireRole(UserRole.ADMIN, UserRole.OPERATOR);
+            return ResponseEntity.ok(actionLogWriter.getStats());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/email/outbox")
+    public ResponseEntity<?> getEmailOutboxStats() {
         try {
-            User requester = getRequestingUser(authHeader);
-            requireRole(requester, UserRole.ADMIN, UserRole.OPERATOR);
-            List<ActionLog> logs = actionLogService.getLogsByUser(userId);
-            return ResponseEntity.ok(logs);
+            requireRole(UserRole.ADMIN, UserRole.OPERATOR);
+            return ResponseEntity.ok(emailOutboxService.getStats());
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
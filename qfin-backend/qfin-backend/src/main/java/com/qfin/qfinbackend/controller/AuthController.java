@@ -1,17 +1,23 @@
 package com.qfin.qfinbackend.controller;
 
+import com.qfin.qfinbackend.config.CurrentUserResolver;
+import com.qfin.qfinbackend.model.ProfileImage;
 import com.qfin.qfinbackend.model.User;
 import com.qfin.qfinbackend.service.ActionLogService;
 import com.qfin.qfinbackend.service.CategoryService;
 import com.qfin.qfinbackend.service.JwtUtil;
 import com.qfin.qfinbackend.service.PasswordResetService;
+import com.qfin.qfinbackend.service.ProfileImageService;
+import com.qfin.qfinbackend.service.UserDetailsCache;
 import com.qfin.qfinbackend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -37,6 +43,15 @@ public class AuthController {
     @Autowired
     private ActionLogService actionLogService;
 
+    @Autowired
+    private CurrentUserResolver currentUserResolver;
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private ProfileImageService profileImageService;
+
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody RegisterRequest request) {
         try {
@@ -129,10 +144,9 @@ public class AuthController {
     }
 
     @GetMapping("/profile")
-    public ResponseEntity<?> getProfile(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> getProfile() {
         try {
-            String token = authHeader.substring(7);
-            String email = jwtUtil.extractUsername(token);
+            String email = currentUserResolver.current().getEmail();
             Optional<User> userOpt = userService.findByEmail(email);
             if (userOpt.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Usuário não encontrado"));
@@ -144,23 +158,25 @@ public class AuthController {
     }
 
     @GetMapping("/my-logs")
-    public ResponseEntity<?> getMyLogs(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> getMyLogs(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
         try {
-            String token = authHeader.substring(7);
-            String email = jwtUtil.extractUsername(token);
-            User user = userService.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
-            return ResponseEntity.ok(actionLogService.getLogsByUser(user.getId()));
+            return ResponseEntity.ok(actionLogService.getLogPage(
+                    currentUserResolver.currentUserId(), from, to, action, cursor, size));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
 
     @PutMapping("/profile")
-    public ResponseEntity<?> updateProfile(@RequestBody UpdateProfileRequest request, @RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> updateProfile(@RequestBody UpdateProfileRequest request) {
         try {
-            String token = authHeader.substring(7);
-            String email = jwtUtil.extractUsername(token);
+            String token = currentUserResolver.currentToken();
+            String email = currentUserResolver.current().getEmail();
 
             User updatedUser = userService.updateProfile(email, request.getName(), request.getEmail());
 
@@ -183,10 +199,10 @@ public class AuthController {
     }
 
     @PutMapping("/profile/details")
-    public ResponseEntity<?> updateProfileDetails(@RequestBody UpdateProfileDetailsRequest request, @RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> updateProfileDetails(@RequestBody UpdateProfileDetailsRequest request) {
         try {
-            String token = authHeader.substring(7);
-            String email = jwtUtil.extractUsername(token);
+            String token = currentUserResolver.currentToken();
+            String email = currentUserResolver.current().getEmail();
 
             Optional<User> userOpt = userService.findByEmail(email);
             if (userOpt.isEmpty()) {
@@ -205,6 +221,7 @@ public class AuthController {
             User updated = userService.save(user);
             String newToken = token;
             if (request.getEmail() != null && !email.equals(request.getEmail())) {
+                userDetailsCache.invalidate(email);
                 newToken = jwtUtil.generateToken(updated.getEmail());
             }
 
@@ -215,44 +232,41 @@ public class AuthController {
     }
 
     @PutMapping("/profile/photo")
-    public ResponseEntity<?> updateProfilePhoto(@RequestBody UpdateProfilePhotoRequest request, @RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> updateProfilePhoto(@RequestBody UpdateProfilePhotoRequest request) {
         try {
-            String token = authHeader.substring(7);
-            String email = jwtUtil.extractUsername(token);
+            String email = currentUserResolver.current().getEmail();
             Optional<User> userOpt = userService.findByEmail(email);
             if (userOpt.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Usuário não encontrado"));
             }
             User user = userOpt.get();
-            user.setProfileImageBase64(request.getProfileImageBase64());
-            return ResponseEntity.ok(Map.of("user", buildUserProfileResponse(userService.save(user))));
+            profileImageService.store(user.getId(), request.getProfileImageBase64());
+            return ResponseEntity.ok(Map.of("user", buildUserProfileResponse(user)));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
 
     @DeleteMapping("/profile/photo")
-    public ResponseEntity<?> deleteProfilePhoto(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> deleteProfilePhoto() {
         try {
-            String token = authHeader.substring(7);
-            String email = jwtUtil.extractUsername(token);
+            String email = currentUserResolver.current().getEmail();
             Optional<User> userOpt = userService.findByEmail(email);
             if (userOpt.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Usuário não encontrado"));
             }
             User user = userOpt.get();
-            user.setProfileImageBase64(null);
-            return ResponseEntity.ok(Map.of("user", buildUserProfileResponse(userService.save(user))));
+            profileImageService.delete(user.getId());
+            return ResponseEntity.ok(Map.of("user", buildUserProfileResponse(user)));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
 
     @PutMapping("/change-password")
-    public ResponseEntity<?> changePassword(@RequestBody ChangePasswordRequest request, @RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> changePassword(@RequestBody ChangePasswordRequest request) {
         try {
-            String token = authHeader.substring(7);
-            String email = jwtUtil.extractUsername(token);
+            String email = currentUserResolver.current().getEmail();
             userService.changePassword(email, request.getCurrentPassword(), request.getNewPassword());
             return ResponseEntity.ok(Map.of("message", "Senha alterada com sucesso"));
         } catch (RuntimeException e) {
@@ -270,7 +284,9 @@ public class AuthController {
         userMap.put("bio", user.getBio());
         userMap.put("role", user.getRole() != null ? user.getRole().name() : "USER");
         userMap.put("birthDate", user.getBirthDate() != null ? user.getBirthDate().toString() : null);
-        userMap.put("profileImageBase64", user.getProfileImageBase64());
+        ProfileImage profileImage = profileImageService.findByUserId(user.getId()).orElse(null);
+        userMap.put("profileImageUrl", profileImage != null ? profileImageService.imageUrl(profileImage) : null);
+        userMap.put("profileImageThumbnailUrl", profileImage != null ? profileImageService.thumbnailUrl(profileImage) : null);
         return userMap;
     }
 
@@ -1,15 +1,12 @@
 package com.qfin.qfinbackend.controller;
 
+import com.qfin.qfinbackend.config.CurrentUserResolver;
 import com.qfin.qfinbackend.model.Category;
 import com.qfin.qfinbackend.model.Category.CategoryType;
-import com.qfin.qfinbackend.model.User;
-import com.qfin.qfinbackend.repository.UserRepository;
 import com.qfin.qfinbackend.service.CategoryService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -25,20 +22,13 @@ public class CategoryController {
     private CategoryService categoryService;
 
     @Autowired
-    private UserRepository userRepository;
-
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
-    }
+    private CurrentUserResolver currentUserResolver;
 
     // Get all categories for the authenticated user
     @GetMapping
     public ResponseEntity<List<Category>> getAllCategories() {
-        User user = getCurrentUser();
-        List<Category> categories = categoryService.getAllCategoriesByUser(user.getId());
+        Long userId = currentUserResolver.currentUserId();
+        List<Category> categories = categoryService.getAllCategoriesByUser(userId);
         return ResponseEntity.ok(categories);
     }
 
@@ -46,9 +36,9 @@ public class CategoryController {
     @GetMapping("/type/{type}")
     public ResponseEntity<?> getCategoriesByType(@PathVariable String type) {
         try {
-            User user = getCurrentUser();
+            Long userId = currentUserResolver.currentUserId();
             CategoryType categoryType = CategoryType.valueOf(type.toUpperCase());
-            List<Category> categories = categoryService.getCategoriesByUserAndType(user.getId(), categoryType);
+            List<Category> categories = categoryService.getCategoriesByUserAndType(userId, categoryType);
             return ResponseEntity.ok(categories);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", "Tipo inválido. Use INCOME ou EXPENSE."));
@@ -58,23 +48,23 @@ public class CategoryController {
     // Get main categories (no parent)
     @GetMapping("/main")
     public ResponseEntity<List<Category>> getMainCategories() {
-        User user = getCurrentUser();
-        return ResponseEntity.ok(categoryService.getMainCategories(user.getId()));
+        Long userId = currentUserResolver.currentUserId();
+        return ResponseEntity.ok(categoryService.getMainCategories(userId));
     }
 
     // Get subcategories of a parent category
     @GetMapping("/{parentId}/subcategories")
     public ResponseEntity<List<Category>> getSubcategories(@PathVariable Long parentId) {
-        User user = getCurrentUser();
-        return ResponseEntity.ok(categoryService.getSubcategories(user.getId(), parentId));
+        Long userId = currentUserResolver.currentUserId();
+        return ResponseEntity.ok(categoryService.getSubcategories(userId, parentId));
     }
 
     // Get a specific category
     @GetMapping("/{id}")
     public ResponseEntity<?> getCategoryById(@PathVariable Long id) {
         try {
-            User user = getCurrentUser();
-            return ResponseEntity.ok(categoryService.getCategoryById(user.getId(), id));
+            Long userId = currentUserResolver.currentUserId();
+            return ResponseEntity.ok(categoryService.getCategoryById(userId, id));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
         }
@@ -84,7 +74,7 @@ public class CategoryController {
     @PostMapping
     public ResponseEntity<?> createCategory(@RequestBody Map<String, Object> categoryData) {
         try {
-            User user = getCurrentUser();
+            Long userId = currentUserResolver.currentUserId();
             String name = (String) categoryData.get("name");
             if (name == null || name.isBlank()) {
                 return ResponseEntity.badRequest().body(Map.of("error", "O nome da categoria é obrigatório"));
@@ -97,7 +87,7 @@ public class CategoryController {
             Long parentId = categoryData.get("parentId") != null ?
                     Long.valueOf(categoryData.get("parentId").toString()) : null;
 
-            Category category = categoryService.createCategory(user.getId(), name.trim(), type, parentId);
+            Category category = categoryService.createCategory(userId, name.trim(), type, parentId);
             return ResponseEntity.status(HttpStatus.CREATED).body(category);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Tipo inválido. Use INCOME ou EXPENSE."));
@@ -110,7 +100,7 @@ public class CategoryController {
     @PutMapping("/{id}")
     public ResponseEntity<?> updateCategory(@PathVariable Long id, @RequestBody Map<String, Object> categoryData) {
         try {
-            User user = getCurrentUser();
+            Long userId = currentUserResolver.currentUserId();
             String name = (String) categoryData.get("name");
             if (name == null || name.isBlank()) {
                 return ResponseEntity.badRequest().body(Map.of("error", "O nome da categoria é obrigatório"));
@@ -118,7 +108,7 @@ public class CategoryController {
             Long parentId = categoryData.get("parentId") != null ?
                     Long.valueOf(categoryData.get("parentId").toString()) : null;
 
-            Category category = categoryService.updateCategory(user.getId(), id, name.trim(), parentId);
+            Category category = categoryService.updateCategory(userId, id, name.trim(), parentId);
             return ResponseEntity.ok(category);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
@@ -129,8 +119,8 @@ public class CategoryController {
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteCategory(@PathVariable Long id) {
         try {
-            User user = getCurrentUser();
-            categoryService.deleteCategory(user.getId(), id);
+            Long userId = currentUserResolver.currentUserId();
+            categoryService.deleteCategory(userId, id);
             return ResponseEntity.ok(Map.of("message", "Categoria excluída com sucesso"));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
@@ -141,8 +131,8 @@ public class CategoryController {
     @PostMapping("/initialize")
     public ResponseEntity<?> initializeDefaultCategories() {
         try {
-            User user = getCurrentUser();
-            categoryService.initializeDefaultCategories(user.getId());
+            Long userId = currentUserResolver.currentUserId();
+            categoryService.initializeDefaultCategories(userId);
             return ResponseEntity.ok(Map.of("message", "Categorias padrão inicializadas com sucesso"));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
@@ -1,15 +1,14 @@
 package com.qfin.qfinbackend.controller;
 
-import com.qfin.qfinbackend.model.User;
-import com.qfin.qfinbackend.repository.UserRepository;
+import com.qfin.qfinbackend.config.CurrentUserResolver;
+import com.qfin.qfinbackend.dto.DashboardDTO;
 import com.qfin.qfinbackend.service.DashboardService;
+import com.qfin.qfinbackend.service.LiveUpdateService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.Map;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/dashboard")
@@ -19,19 +18,22 @@ public class DashboardController {
     private DashboardService dashboardService;
 
     @Autowired
-    private UserRepository userRepository;
+    private LiveUpdateService liveUpdateService;
 
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-    }
+    @Autowired
+    private CurrentUserResolver currentUserResolver;
 
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getDashboard() {
-        User user = getCurrentUser();
-        Map<String, Object> dashboardData = dashboardService.getDashboardData(user);
+    public ResponseEntity<DashboardDTO> getDashboard() {
+        Long userId = currentUserResolver.currentUserId();
+        DashboardDTO dashboardData = dashboardService.getDashboardData(userId);
         return ResponseEntity.ok(dashboardData);
     }
+
+    // Stream de atualizações (eventos "dashboard", "balance", "transactions" e "notifications")
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamDashboard() {
+        Long userId = currentUserResolver.currentUserId();
+        return liveUpdateService.subscribe(userId);
+    }
 }
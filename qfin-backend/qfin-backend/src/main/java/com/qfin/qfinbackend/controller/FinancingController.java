@@ -1,15 +1,13 @@
 package com.qfin.qfinbackend.controller;
 
+import com.qfin.qfinbackend.config.CurrentUserResolver;
 import com.qfin.qfinbackend.model.Financing;
 import com.qfin.qfinbackend.model.User;
-import com.qfin.qfinbackend.repository.UserRepository;
 import com.qfin.qfinbackend.service.FinancingService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -23,24 +21,17 @@ public class FinancingController {
     private FinancingService financingService;
 
     @Autowired
-    private UserRepository userRepository;
-
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-    }
+    private CurrentUserResolver currentUserResolver;
 
     @GetMapping
     public List<Financing> getAllFinancings() {
-        User user = getCurrentUser();
+        User user = currentUserResolver.reference();
         return financingService.getFinancingsByUser(user);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<Financing> getFinancingById(@PathVariable Long id) {
-        User user = getCurrentUser();
+        User user = currentUserResolver.reference();
         return financingService.getFinancingByIdAndUser(id, user)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -48,7 +39,7 @@ public class FinancingController {
 
     @PostMapping
     public ResponseEntity<Financing> createFinancing(@Valid @RequestBody Financing financing) {
-        User user = getCurrentUser();
+        User user = currentUserResolver.reference();
         financing.setUser(user);
         Financing createdFinancing = financingService.createFinancing(financing);
         return ResponseEntity.status(HttpStatus.CREATED).body(createdFinancing);
@@ -56,7 +47,7 @@ public class FinancingController {
 
     @PutMapping("/{id}")
     public ResponseEntity<Financing> updateFinancing(@PathVariable Long id, @Valid @RequestBody Financing financingDetails) {
-        User user = getCurrentUser();
+        User user = currentUserResolver.reference();
         Financing updatedFinancing = financingService.updateFinancing(id, financingDetails, user);
         if (updatedFinancing != null) {
             return ResponseEntity.ok(updatedFinancing);
@@ -66,7 +57,7 @@ public class FinancingController {
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteFinancing(@PathVariable Long id) {
-        User user = getCurrentUser();
+        User user = currentUserResolver.reference();
         financingService.deleteFinancing(id, user);
         return ResponseEntity.noContent().build();
     }
@@ -76,7 +67,7 @@ public class FinancingController {
             @PathVariable Long id,
             @RequestBody Map<String, Double> payload
     ) {
-        User user = getCurrentUser();
+        User user = currentUserResolver.reference();
         Double amount = payload.get("amount");
         Financing updated = financingService.registerPayment(id, amount, user);
         return ResponseEntity.ok(updated);
@@ -1,13 +1,12 @@
 package com.qfin.qfinbackend.controller;
 
+import com.qfin.qfinbackend.config.CurrentUserResolver;
 import com.qfin.qfinbackend.model.Goal;
 import com.qfin.qfinbackend.model.User;
-import com.qfin.qfinbackend.repository.UserRepository;
 import com.qfin.qfinbackend.service.GoalService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -23,18 +22,12 @@ public class GoalController {
     private GoalService goalService;
     
     @Autowired
-    private UserRepository userRepository;
-    
-    private User getCurrentUser(Authentication authentication) {
-        String email = authentication.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-    }
+    private CurrentUserResolver currentUserResolver;
     
     @GetMapping
-    public ResponseEntity<List<Goal>> getAllGoals(Authentication authentication) {
+    public ResponseEntity<List<Goal>> getAllGoals() {
         try {
-            User user = getCurrentUser(authentication);
+            User user = currentUserResolver.reference();
             List<Goal> goals = goalService.getAllGoalsByUser(user);
             return ResponseEntity.ok(goals);
         } catch (Exception e) {
@@ -43,9 +36,9 @@ public class GoalController {
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<Goal> getGoalById(@PathVariable Long id, Authentication authentication) {
+    public ResponseEntity<Goal> getGoalById(@PathVariable Long id) {
         try {
-            User user = getCurrentUser(authentication);
+            User user = currentUserResolver.reference();
             Optional<Goal> goal = goalService.getGoalById(id, user);
             return goal.map(ResponseEntity::ok)
                     .orElse(ResponseEntity.notFound().build());
@@ -55,9 +48,9 @@ public class GoalController {
     }
     
     @PostMapping
-    public ResponseEntity<Goal> createGoal(@RequestBody Goal goal, Authentication authentication) {
+    public ResponseEntity<Goal> createGoal(@RequestBody Goal goal) {
         try {
-            User user = getCurrentUser(authentication);
+            User user = currentUserResolver.reference();
             Goal createdGoal = goalService.createGoal(goal, user);
             return ResponseEntity.status(HttpStatus.CREATED).body(createdGoal);
         } catch (Exception e) {
@@ -68,10 +61,9 @@ public class GoalController {
     @PutMapping("/{id}")
     public ResponseEntity<Goal> updateGoal(
             @PathVariable Long id,
-            @RequestBody Goal goalDetails,
-            Authentication authentication) {
+            @RequestBody Goal goalDetails) {
         try {
-            User user = getCurrentUser(authentication);
+            User user = currentUserResolver.reference();
             Goal updatedGoal = goalService.updateGoal(id, goalDetails, user);
             return ResponseEntity.ok(updatedGoal);
         } catch (RuntimeException e) {
@@ -84,10 +76,9 @@ public class GoalController {
     @PatchMapping("/{id}/add")
     public ResponseEntity<?> addToGoal(
             @PathVariable Long id,
-            @RequestBody Map<String, Double> request,
-            Authentication authentication) {
+            @RequestBody Map<String, Double> request) {
         try {
-            User user = getCurrentUser(authentication);
+            User user = currentUserResolver.reference();
             Double amount = request.get("amount");
             if (amount == null || amount <= 0) {
                 return ResponseEntity.badRequest().body(Map.of("error", "Invalid amount"));
@@ -104,9 +95,9 @@ public class GoalController {
     }
     
     @PatchMapping("/{id}/complete")
-    public ResponseEntity<Goal> completeGoal(@PathVariable Long id, Authentication authentication) {
+    public ResponseEntity<Goal> completeGoal(@PathVariable Long id) {
         try {
-            User user = getCurrentUser(authentication);
+            User user = currentUserResolver.reference();
             Goal completedGoal = goalService.completeGoal(id, user);
             return ResponseEntity.ok(completedGoal);
         } catch (RuntimeException e) {
@@ -117,9 +108,9 @@ public class GoalController {
     }
     
     @PatchMapping("/{id}/cancel")
-    public ResponseEntity<Goal> cancelGoal(@PathVariable Long id, Authentication authentication) {
+    public ResponseEntity<Goal> cancelGoal(@PathVariable Long id) {
         try {
-            User user = getCurrentUser(authentication);
+            User user = currentUserResolver.reference();
             Goal cancelledGoal = goalService.cancelGoal(id, user);
             return ResponseEntity.ok(cancelledGoal);
         } catch (RuntimeException e) {
@@ -130,9 +121,9 @@ public class GoalController {
     }
     
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteGoal(@PathVariable Long id, Authentication authentication) {
+    public ResponseEntity<Void> deleteGoal(@PathVariable Long id) {
         try {
-            User user = getCurrentUser(authentication);
+            User user = currentUserResolver.reference();
             goalService.deleteGoal(id, user);
             return ResponseEntity.noContent().build();
         } catch (RuntimeException e) {
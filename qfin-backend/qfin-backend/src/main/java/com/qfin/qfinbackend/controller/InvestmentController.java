@@ -1,15 +1,13 @@
 package com.qfin.qfinbackend.controller;
 
+import com.qfin.qfinbackend.config.CurrentUserResolver;
 import com.qfin.qfinbackend.model.Investment;
 import com.qfin.qfinbackend.model.User;
-import com.qfin.qfinbackend.repository.UserRepository;
 import com.qfin.qfinbackend.service.InvestmentService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -22,24 +20,17 @@ public class InvestmentController {
     private InvestmentService investmentService;
 
     @Autowired
-    private UserRepository userRepository;
-
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-    }
+    private CurrentUserResolver currentUserResolver;
 
     @GetMapping
     public ResponseEntity<List<Investment>> getAllInvestments() {
-        User user = getCurrentUser();
+        User user = currentUserResolver.reference();
         return ResponseEntity.ok(investmentService.getInvestmentsByUser(user));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<Investment> getInvestmentById(@PathVariable Long id) {
-        User user = getCurrentUser();
+        User user = currentUserResolver.reference();
         return investmentService.getInvestmentByIdAndUser(id, user)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -47,7 +38,7 @@ public class InvestmentController {
 
     @PostMapping
     public ResponseEntity<Investment> createInvestment(@Valid @RequestBody Investment investment) {
-        User user = getCurrentUser();
+        User user = currentUserResolver.reference();
         investment.setUser(user);
         Investment created = investmentService.createInvestment(investment);
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
@@ -55,7 +46,7 @@ public class InvestmentController {
 
     @PutMapping("/{id}")
     public ResponseEntity<Investment> updateInvestment(@PathVariable Long id, @Valid @RequestBody Investment investmentDetails) {
-        User user = getCurrentUser();
+        User user = currentUserResolver.reference();
         Investment updated = investmentService.updateInvestment(id, investmentDetails, user);
         if (updated != null) {
             return ResponseEntity.ok(updated);
@@ -65,14 +56,14 @@ public class InvestmentController {
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteInvestment(@PathVariable Long id) {
-        User user = getCurrentUser();
+        User user = currentUserResolver.reference();
         investmentService.deleteInvestment(id, user);
         return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/type/{type}")
     public ResponseEntity<List<Investment>> getByType(@PathVariable String type) {
-        User user = getCurrentUser();
+        User user = currentUserResolver.reference();
         Investment.InvestmentType investmentType = Investment.InvestmentType.valueOf(type.toUpperCase());
         return ResponseEntity.ok(investmentService.getInvestmentsByType(user, investmentType));
     }
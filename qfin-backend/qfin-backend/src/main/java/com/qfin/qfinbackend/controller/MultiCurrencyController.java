@@ -1,16 +1,14 @@
 package com.qfin.qfinbackend.controller;
 
+import com.qfin.qfinbackend.config.CurrentUserResolver;
 import com.qfin.qfinbackend.model.ExchangeRate;
 import com.qfin.qfinbackend.model.MultiCurrencyTransaction;
 import com.qfin.qfinbackend.model.User;
-import com.qfin.qfinbackend.repository.UserRepository;
 import com.qfin.qfinbackend.service.MultiCurrencyService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -24,24 +22,17 @@ public class MultiCurrencyController {
     private MultiCurrencyService multiCurrencyService;
 
     @Autowired
-    private UserRepository userRepository;
-
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-    }
+    private CurrentUserResolver currentUserResolver;
 
     @GetMapping("/transactions")
     public ResponseEntity<List<MultiCurrencyTransaction>> getAllTransactions() {
-        User user = getCurrentUser();
+        User user = currentUserResolver.reference();
         return ResponseEntity.ok(multiCurrencyService.getTransactionsByUser(user));
     }
 
     @GetMapping("/transactions/{id}")
     public ResponseEntity<MultiCurrencyTransaction> getTransactionById(@PathVariable Long id) {
-        User user = getCurrentUser();
+        User user = currentUserResolver.reference();
         return multiCurrencyService.getTransactionByIdAndUser(id, user)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -49,7 +40,7 @@ public class MultiCurrencyController {
 
     @PostMapping("/transactions")
     public ResponseEntity<MultiCurrencyTransaction> createTransaction(@Valid @RequestBody MultiCurrencyTransaction transaction) {
-        User user = getCurrentUser();
+        User user = currentUserResolver.reference();
         transaction.setUser(user);
         MultiCurrencyTransaction created = multiCurrencyService.createTransaction(transaction);
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
@@ -57,7 +48,7 @@ public class MultiCurrencyController {
 
     @PutMapping("/transactions/{id}")
     public ResponseEntity<MultiCurrencyTransaction> updateTransaction(@PathVariable Long id, @Valid @RequestBody MultiCurrencyTransaction details) {
-        User user = getCurrentUser();
+        User user = currentUserResolver.reference();
         MultiCurrencyTransaction updated = multiCurrencyService.updateTransaction(id, details, user);
         if (updated != null) {
             return ResponseEntity.ok(updated);
@@ -67,7 +58,7 @@ public class MultiCurrencyController {
 
     @DeleteMapping("/transactions/{id}")
     public ResponseEntity<Void> deleteTransaction(@PathVariable Long id) {
-        User user = getCurrentUser();
+        User user = currentUserResolver.reference();
         multiCurrencyService.deleteTransaction(id, user);
         return ResponseEntity.noContent().build();
     }
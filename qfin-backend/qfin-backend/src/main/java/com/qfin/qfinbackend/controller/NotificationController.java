@@ -1,16 +1,14 @@
 package com.qfin.qfinbackend.controller;
 
+import com.qfin.qfinbackend.config.CurrentUserResolver;
 import com.qfin.qfinbackend.model.Notification;
 import com.qfin.qfinbackend.model.NotificationSettings;
 import com.qfin.qfinbackend.model.User;
-import com.qfin.qfinbackend.repository.UserRepository;
 import com.qfin.qfinbackend.service.NotificationService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -25,30 +23,23 @@ public class NotificationController {
     private NotificationService notificationService;
 
     @Autowired
-    private UserRepository userRepository;
-
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-    }
+    private CurrentUserResolver currentUserResolver;
 
     @GetMapping
     public ResponseEntity<List<Notification>> getAllNotifications() {
-        User user = getCurrentUser();
+        User user = currentUserResolver.reference();
         return ResponseEntity.ok(notificationService.getNotificationsByUser(user));
     }
 
     @GetMapping("/unread")
     public ResponseEntity<List<Notification>> getUnreadNotifications() {
-        User user = getCurrentUser();
+        User user = currentUserResolver.reference();
         return ResponseEntity.ok(notificationService.getUnreadNotifications(user));
     }
 
     @GetMapping("/count")
     public ResponseEntity<Map<String, Long>> getUnreadCount() {
-        User user = getCurrentUser();
+        User user = currentUserResolver.reference();
         Map<String, Long> count = new HashMap<>();
         count.put("unreadCount", notificationService.getUnreadCount(user));
         return ResponseEntity.ok(count);
@@ -56,7 +47,7 @@ public class NotificationController {
 
     @PostMapping
     public ResponseEntity<Notification> createNotification(@Valid @RequestBody Notification notification) {
-        User user = getCurrentUser();
+        User user = currentUserResolver.reference();
         notification.setUser(user);
         Notification created = notificationService.createNotification(notification);
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
@@ -64,7 +55,7 @@ public class NotificationController {
 
     @PatchMapping("/{id}/read")
     public ResponseEntity<Notification> markAsRead(@PathVariable Long id) {
-        User user = getCurrentUser();
+        User user = currentUserResolver.reference();
         Notification updated = notificationService.markAsRead(id, user);
         if (updated != null) {
             return ResponseEntity.ok(updated);
@@ -74,14 +65,14 @@ public class NotificationController {
 
     @PatchMapping("/read-all")
     public ResponseEntity<Void> markAllAsRead() {
-        User user = getCurrentUser();
+        User user = currentUserResolver.reference();
         notificationService.markAllAsRead(user);
         return ResponseEntity.ok().build();
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteNotification(@PathVariable Long id) {
-        User user = getCurrentUser();
+        User user = currentUserResolver.reference();
         notificationService.deleteNotification(id, user);
         return ResponseEntity.noContent().build();
     }
@@ -89,13 +80,13 @@ public class NotificationController {
     // Settings endpoints
     @GetMapping("/settings")
     public ResponseEntity<NotificationSettings> getSettings() {
-        User user = getCurrentUser();
+        User user = currentUserResolver.reference();
         return ResponseEntity.ok(notificationService.getSettings(user));
     }
 
     @PutMapping("/settings")
     public ResponseEntity<NotificationSettings> updateSettings(@RequestBody NotificationSettings settings) {
-        User user = getCurrentUser();
+        User user = currentUserResolver.reference();
         return ResponseEntity.ok(notificationService.updateSettings(user, settings));
     }
 }
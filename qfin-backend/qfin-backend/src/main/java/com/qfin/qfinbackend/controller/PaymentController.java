@@ -1,15 +1,13 @@
 package com.qfin.qfinbackend.controller;
 
+import com.qfin.qfinbackend.config.CurrentUserResolver;
 import com.qfin.qfinbackend.model.Payment;
 import com.qfin.qfinbackend.model.User;
-import com.qfin.qfinbackend.repository.UserRepository;
 import com.qfin.qfinbackend.service.PaymentService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -22,18 +20,11 @@ public class PaymentController {
     private PaymentService paymentService;
 
     @Autowired
-    private UserRepository userRepository;
-
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-    }
+    private CurrentUserResolver currentUserResolver;
 
     @GetMapping
     public List<Payment> getPaymentsByFinancing(@PathVariable Long financingId) {
-        User user = getCurrentUser();
+        User user = currentUserResolver.reference();
         return paymentService.getPaymentsByFinancing(financingId, user);
     }
 
@@ -41,7 +32,7 @@ public class PaymentController {
     public ResponseEntity<Payment> addPayment(
             @PathVariable Long financingId,
             @Valid @RequestBody Payment payment) {
-        User user = getCurrentUser();
+        User user = currentUserResolver.reference();
         Payment createdPayment = paymentService.addPayment(financingId, payment, user);
         return ResponseEntity.status(HttpStatus.CREATED).body(createdPayment);
     }
@@ -50,7 +41,7 @@ public class PaymentController {
     public ResponseEntity<Void> deletePayment(
             @PathVariable Long financingId,
             @PathVariable Long paymentId) {
-        User user = getCurrentUser();
+        User user = currentUserResolver.reference();
         paymentService.deletePayment(paymentId, user);
         return ResponseEntity.noContent().build();
     }
@@ -0,0 +1,67 @@
+package com.qfin.qfinbackend.controller;
+
+import com.qfin.qfinbackend.service.ProfileImageService;
+import com.qfin.qfinbackend.service.ProfileImageService.StoredImage;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Optional;
+
+/**
+ * Serve as fotos de perfil. A URL contém o SHA-256 do conteúdo: o ETag é o próprio hash e
+ * a resposta pode ficar em cache indefinidamente. Arquivos grandes usam o sendfile do
+ * Tomcat (cópia direta do arquivo para o socket, sem passar pela JVM).
+ */
+@RestController
+@RequestMapping("/api/profile-images")
+public class ProfileImageController {
+
+    // Abaixo disso a cópia comum é mais barata que o sendfile (mesmo limite do DefaultServlet)
+    private static final long SENDFILE_MIN_BYTES = 48 * 1024;
+
+    @Autowired
+    private ProfileImageService profileImageService;
+
+    @GetMapping("/{hash}")
+    public void getImage(@PathVariable String hash, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        serve(hash, false, request, response);
+    }
+
+    @GetMapping("/{hash}/thumbnail")
+    public void getThumbnail(@PathVariable String hash, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        serve(hash, true, request, response);
+    }
+
+    private void serve(String hash, boolean thumbnail, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<StoredImage> image = profileImageService.find(hash, thumbnail);
+        if (image.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        String etag = "\"" + hash + (thumbnail ? "-thumb" : "") + "\"";
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=31536000, immutable");
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+
+        StoredImage stored = image.get();
+        response.setContentType(stored.contentType());
+        response.setContentLengthLong(stored.size());
+
+        if (stored.size() >= SENDFILE_MIN_BYTES
+                && Boolean.TRUE.equals(request.getAttribute("org.apache.tomcat.sendfile.support"))) {
+            request.setAttribute("org.apache.tomcat.sendfile.filename", stored.path().toString());
+            request.setAttribute("org.apache.tomcat.sendfile.start", 0L);
+            request.setAttribute("org.apache.tomcat.sendfile.end", stored.size());
+            return;
+        }
+        Files.copy(stored.path(), response.getOutputStream());
+    }
+}
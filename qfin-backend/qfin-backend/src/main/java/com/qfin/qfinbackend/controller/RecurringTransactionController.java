@@ -1,15 +1,13 @@
 package com.qfin.qfinbackend.controller;
 
+import com.qfin.qfinbackend.config.CurrentUserResolver;
 import com.qfin.qfinbackend.model.RecurringTransaction;
 import com.qfin.qfinbackend.model.User;
-import com.qfin.qfinbackend.repository.UserRepository;
 import com.qfin.qfinbackend.service.RecurringTransactionService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -22,24 +20,17 @@ public class RecurringTransactionController {
     private RecurringTransactionService recurringService;
 
     @Autowired
-    private UserRepository userRepository;
-
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-    }
+    private CurrentUserResolver currentUserResolver;
 
     @GetMapping
     public ResponseEntity<List<RecurringTransaction>> getAllRecurringTransactions() {
-        User user = getCurrentUser();
+        User user = currentUserResolver.reference();
         return ResponseEntity.ok(recurringService.getRecurringTransactionsByUser(user));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<RecurringTransaction> getById(@PathVariable Long id) {
-        User user = getCurrentUser();
+        User user = currentUserResolver.reference();
         return recurringService.getByIdAndUser(id, user)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -47,7 +38,7 @@ public class RecurringTransactionController {
 
     @PostMapping
     public ResponseEntity<RecurringTransaction> createRecurringTransaction(@Valid @RequestBody RecurringTransaction recurring) {
-        User user = getCurrentUser();
+        User user = currentUserResolver.reference();
         recurring.setUser(user);
         RecurringTransaction created = recurringService.createRecurringTransaction(recurring);
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
@@ -55,7 +46,7 @@ public class RecurringTransactionController {
 
     @PutMapping("/{id}")
     public ResponseEntity<RecurringTransaction> updateRecurringTransaction(@PathVariable Long id, @Valid @RequestBody RecurringTransaction details) {
-        User user = getCurrentUser();
+        User user = currentUserResolver.reference();
         RecurringTransaction updated = recurringService.updateRecurringTransaction(id, details, user);
         if (updated != null) {
             return ResponseEntity.ok(updated);
@@ -65,7 +56,7 @@ public class RecurringTransactionController {
 
     @PatchMapping("/{id}/toggle")
     public ResponseEntity<RecurringTransaction> toggleActive(@PathVariable Long id) {
-        User user = getCurrentUser();
+        User user = currentUserResolver.reference();
         RecurringTransaction updated = recurringService.toggleActive(id, user);
         if (updated != null) {
             return ResponseEntity.ok(updated);
@@ -75,7 +66,7 @@ public class RecurringTransactionController {
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteRecurringTransaction(@PathVariable Long id) {
-        User user = getCurrentUser();
+        User user = currentUserResolver.reference();
         recurringService.deleteRecurringTransaction(id, user);
         return ResponseEntity.noContent().build();
     }
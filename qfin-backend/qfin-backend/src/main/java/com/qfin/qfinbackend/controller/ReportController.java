@@ -1,21 +1,28 @@
 package com.qfin.qfinbackend.controller;
 
+import com.qfin.qfinbackend.config.CurrentUserResolver;
+import com.qfin.qfinbackend.dto.ReportJobDTO;
 import com.qfin.qfinbackend.dto.ReportRequestDTO;
 import com.qfin.qfinbackend.dto.ReportSummaryDTO;
+import com.qfin.qfinbackend.dto.ReportTransactionPageDTO;
 import com.qfin.qfinbackend.model.Transaction;
-import com.qfin.qfinbackend.model.User;
+import com.qfin.qfinbackend.service.ReportJobService;
+import com.qfin.qfinbackend.service.ReportJobService.ReportJobType;
 import com.qfin.qfinbackend.service.ReportService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import com.qfin.qfinbackend.repository.UserRepository;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/reports")
@@ -26,87 +33,132 @@ public class ReportController {
     private ReportService reportService;
     
     @Autowired
-    private UserRepository userRepository;
+    private ReportJobService reportJobService;
+    
+    @Autowired
+    private CurrentUserResolver currentUserResolver;
     
-    private User getCurrentUser(Authentication authentication) {
-        String email = authentication.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-    }
-
     @PostMapping("/transactions")
     public ResponseEntity<List<Transaction>> getTransactions(
-            Authentication authentication,
             @RequestBody ReportRequestDTO request) {
         
-        User user = getCurrentUser(authentication);
-        List<Transaction> transactions = reportService.getTransactionsByFilters(user.getId(), request);
+        Long userId = currentUserResolver.currentUserId();
+        List<Transaction> transactions = reportService.getTransactionsByFilters(userId, request);
         return ResponseEntity.ok(transactions);
     }
 
+    // Mesma lista de /transactions, uma janela por vez: {items, offset, size, total, nextOffset}
+    @PostMapping("/transactions/page")
+    public ResponseEntity<ReportTransactionPageDTO> getTransactionPage(
+            @RequestBody ReportRequestDTO request,
+            @RequestParam(required = false) Integer offset,
+            @RequestParam(required = false) Integer size) {
+        
+        Long userId = currentUserResolver.currentUserId();
+        ReportTransactionPageDTO page = reportService.getTransactionPage(userId, request, offset, size);
+        return ResponseEntity.ok(page);
+    }
+
     @PostMapping("/summary")
     public ResponseEntity<ReportSummaryDTO> getSummary(
-            Authentication authentication,
             @RequestBody ReportRequestDTO request) {
         
-        User user = getCurrentUser(authentication);
-        ReportSummaryDTO summary = reportService.getReportSummary(user.getId(), request);
+        Long userId = currentUserResolver.currentUserId();
+        ReportSummaryDTO summary = reportService.getReportSummary(userId, request);
         return ResponseEntity.ok(summary);
     }
 
     @PostMapping("/export/transactions/csv")
-    public ResponseEntity<byte[]> exportTransactionsCSV(
-            Authentication authentication,
+    public ResponseEntity<StreamingResponseBody> exportTransactionsCSV(
             @RequestBody ReportRequestDTO request) {
         
-        try {
-            User user = getCurrentUser(authentication);
-            byte[] csvData = reportService.exportTransactionsToCSV(user.getId(), request);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType("text/csv"));
-            headers.setContentDispositionFormData("attachment", "transacoes.csv");
-            
-            return new ResponseEntity<>(csvData, headers, HttpStatus.OK);
-        } catch (IOException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        Long userId = currentUserResolver.currentUserId();
+        StreamingResponseBody body = out -> reportService.exportTransactionsToCSV(userId, request, out);
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("text/csv"));
+        headers.setContentDispositionFormData("attachment", "transacoes.csv");
+        
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
     }
 
     @GetMapping("/export/financings/csv")
-    public ResponseEntity<byte[]> exportFinancingsCSV(
-            Authentication authentication) {
+    public ResponseEntity<StreamingResponseBody> exportFinancingsCSV() {
         
-        try {
-            User user = getCurrentUser(authentication);
-            byte[] csvData = reportService.exportFinancingsToCSV(user.getId());
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType("text/csv"));
-            headers.setContentDispositionFormData("attachment", "financiamentos.csv");
-            
-            return new ResponseEntity<>(csvData, headers, HttpStatus.OK);
-        } catch (IOException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        Long userId = currentUserResolver.currentUserId();
+        StreamingResponseBody body = out -> reportService.exportFinancingsToCSV(userId, out);
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("text/csv"));
+        headers.setContentDispositionFormData("attachment", "financiamentos.csv");
+        
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
     }
 
     @PostMapping("/export/pdf")
-    public ResponseEntity<byte[]> exportReportPDF(
-            Authentication authentication,
+    public ResponseEntity<StreamingResponseBody> exportReportPDF(
             @RequestBody ReportRequestDTO request) {
         
+        Long userId = currentUserResolver.currentUserId();
+        StreamingResponseBody body = out -> reportService.exportReportToPDF(userId, request, out);
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentDispositionFormData("attachment", "relatorio.pdf");
+        
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    // Exportações assíncronas: o arquivo é gerado por um worker e baixado quando pronto
+    @PostMapping("/jobs")
+    public ResponseEntity<?> submitReportJob(
+            @RequestParam String type,
+            @RequestBody(required = false) ReportRequestDTO request) {
+        
+        ReportJobType jobType;
+        try {
+            jobType = ReportJobType.valueOf(type.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Tipo inválido. Use TRANSACTIONS_CSV, FINANCINGS_CSV ou PDF"));
+        }
+        
         try {
-            User user = getCurrentUser(authentication);
-            byte[] pdfData = reportService.exportReportToPDF(user.getId(), request);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData("attachment", "relatorio.pdf");
-            
-            return new ResponseEntity<>(pdfData, headers, HttpStatus.OK);
-        } catch (IOException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            Long userId = currentUserResolver.currentUserId();
+            ReportJobDTO job = reportJobService.submit(userId, jobType, request);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ReportJobDTO> getReportJob(
+            @PathVariable String id) {
+        
+        Long userId = currentUserResolver.currentUserId();
+        return reportJobService.getJob(id, userId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/jobs/{id}/download")
+    public ResponseEntity<Resource> downloadReportJob(
+            @PathVariable String id) {
+        
+        Long userId = currentUserResolver.currentUserId();
+        Optional<ReportJobDTO> job = reportJobService.getJob(id, userId);
+        if (job.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Optional<Path> artifact = reportJobService.getArtifact(id, userId);
+        if (artifact.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(job.get().getContentType()));
+        headers.setContentDispositionFormData("attachment", job.get().getFileName());
+        
+        return new ResponseEntity<>(new FileSystemResource(artifact.get()), headers, HttpStatus.OK);
     }
 }
@@ -1,19 +1,16 @@
 package com.qfin.qfinbackend.controller;
 
+import com.qfin.qfinbackend.config.CurrentUserResolver;
+import com.qfin.qfinbackend.dto.TransactionPageDTO;
 import com.qfin.qfinbackend.model.Transaction;
 import com.qfin.qfinbackend.model.User;
-import com.qfin.qfinbackend.repository.UserRepository;
 import com.qfin.qfinbackend.service.TransactionService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/transactions")
 public class TransactionController {
@@ -22,24 +19,20 @@ public class TransactionController {
     private TransactionService transactionService;
 
     @Autowired
-    private UserRepository userRepository;
-
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-    }
+    private CurrentUserResolver currentUserResolver;
 
+    // Paginado por cursor (data, id): sem cursor devolve a primeira página
     @GetMapping
-    public List<Transaction> getAllTransactions() {
-        User user = getCurrentUser();
-        return transactionService.getTransactionsByUser(user);
+    public TransactionPageDTO getTransactions(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        User user = currentUserResolver.reference();
+        return transactionService.getTransactionPageByUser(user, cursor, size);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<Transaction> getTransactionById(@PathVariable Long id) {
-        User user = getCurrentUser();
+        User user = currentUserResolver.reference();
         return transactionService.getTransactionByIdAndUser(id, user)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -47,7 +40,7 @@ public class TransactionController {
 
     @PostMapping
     public ResponseEntity<Transaction> createTransaction(@Valid @RequestBody Transaction transaction) {
-        User user = getCurrentUser();
+        User user = currentUserResolver.reference();
         transaction.setUser(user);
         Transaction createdTransaction = transactionService.createTransaction(transaction);
         return ResponseEntity.status(HttpStatus.CREATED).body(createdTransaction);
@@ -55,7 +48,7 @@ public class TransactionController {
 
     @PutMapping("/{id}")
     public ResponseEntity<Transaction> updateTransaction(@PathVariable Long id, @Valid @RequestBody Transaction transactionDetails) {
-        User user = getCurrentUser();
+        User user = currentUserResolver.reference();
         Transaction updatedTransaction = transactionService.updateTransaction(id, transactionDetails, user);
         if (updatedTransaction != null) {
             return ResponseEntity.ok(updatedTransaction);
@@ -65,7 +58,7 @@ public class TransactionController {
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteTransaction(@PathVariable Long id) {
-        User user = getCurrentUser();
+        User user = currentUserResolver.reference();
         transactionService.deleteTransaction(id, user);
         return ResponseEntity.noContent().build();
     }
@@ -0,0 +1,15 @@
+package com.qfin.qfinbackend.dto;
+
+import com.qfin.qfinbackend.model.ActionLog;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActionLogPageDTO {
+    private List<ActionLog> items;
+    private String next; // cursor "yyyy-MM-ddTHH:mm:ss.SSSSSS:id" da próxima página; null quando não há mais itens
+}
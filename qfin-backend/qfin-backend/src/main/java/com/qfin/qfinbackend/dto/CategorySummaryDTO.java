@@ -12,4 +12,6 @@ public class CategorySummaryDTO {
     private Double totalAmount;
     private Long transactionCount;
     private String type; // INCOME or EXPENSE
+    private Double minAmount;
+    private Double maxAmount;
 }
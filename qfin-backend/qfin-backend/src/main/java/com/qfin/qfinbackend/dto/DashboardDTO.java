@@ -0,0 +1,18 @@
+package com.qfin.qfinbackend.dto;
+
+import lombok.Value;
+import java.util.List;
+
+// Snapshot imutável do dashboard; compartilhado entre requisições pelo DashboardCache
+@Value
+public class DashboardDTO {
+    double totalIncome;
+    double totalExpenses;
+    double totalBalance;
+    long transactionsCount;
+    long financingsCount;
+    long multiCurrencyTransactionsCount;
+    long recurringTransactionsCount;
+    List<DashboardTransactionDTO> recentTransactions;
+    List<DashboardFinancingDTO> financings;
+}
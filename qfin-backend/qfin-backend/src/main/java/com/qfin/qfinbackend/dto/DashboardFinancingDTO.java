@@ -0,0 +1,16 @@
+package com.qfin.qfinbackend.dto;
+
+import lombok.Value;
+import java.time.LocalDate;
+
+// Projeção de Financing usada no dashboard (montada direto pela consulta, sem entidade)
+@Value
+public class DashboardFinancingDTO {
+    Long id;
+    String name;
+    Double totalAmount;
+    Double remainingAmount;
+    Double monthlyPayment;
+    String type;
+    LocalDate endDate;
+}
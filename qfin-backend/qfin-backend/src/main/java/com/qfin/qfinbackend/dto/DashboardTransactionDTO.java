@@ -0,0 +1,16 @@
+package com.qfin.qfinbackend.dto;
+
+import com.qfin.qfinbackend.model.Transaction.TransactionType;
+import lombok.Value;
+import java.time.LocalDate;
+
+// Projeção de Transaction usada no dashboard (montada direto pela consulta, sem entidade)
+@Value
+public class DashboardTransactionDTO {
+    Long id;
+    TransactionType type;
+    Double amount;
+    String category;
+    String description;
+    LocalDate date;
+}
@@ -0,0 +1,21 @@
+package com.qfin.qfinbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobDTO {
+    private String id;
+    private String type; // TRANSACTIONS_CSV, FINANCINGS_CSV ou PDF
+    private String status; // PENDING, RUNNING, COMPLETED ou FAILED
+    private String fileName;
+    private String contentType;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+    private LocalDateTime expiresAt;
+    private String error;
+}
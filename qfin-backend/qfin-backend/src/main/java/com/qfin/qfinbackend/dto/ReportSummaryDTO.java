@@ -14,4 +14,6 @@ public class ReportSummaryDTO {
     private Double balance;
     private Long totalTransactions;
     private List<CategorySummaryDTO> categoryBreakdown;
+    private Double minAmount; // menor valor entre todas as transações do período (null se vazio)
+    private Double maxAmount; // maior valor entre todas as transações do período (null se vazio)
 }
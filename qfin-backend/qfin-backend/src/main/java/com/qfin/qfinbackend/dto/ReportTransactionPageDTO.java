@@ -0,0 +1,18 @@
+package com.qfin.qfinbackend.dto;
+
+import com.qfin.qfinbackend.model.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportTransactionPageDTO {
+    private List<Transaction> items;
+    private Integer offset;
+    private Integer size;
+    private Long total; // total de linhas do relatório no período (gravadas e sintéticas)
+    private Integer nextOffset; // null quando não há mais itens
+}
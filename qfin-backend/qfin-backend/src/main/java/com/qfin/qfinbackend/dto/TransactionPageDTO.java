@@ -0,0 +1,15 @@
+package com.qfin.qfinbackend.dto;
+
+import com.qfin.qfinbackend.model.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionPageDTO {
+    private List<Transaction> items;
+    private String next; // cursor "yyyy-MM-dd:id" da próxima página; null quando não há mais itens
+}
@@ -9,7 +9,10 @@ import java.time.LocalDateTime;
 @Entity
 @Data
 @NoArgsConstructor
-@Table(name = "action_logs")
+@Table(name = "action_logs", indexes = {
+        @Index(name = "idx_action_logs_timestamp_id", columnList = "timestamp, id"),
+        @Index(name = "idx_action_logs_user_timestamp_id", columnList = "userId, timestamp, id")
+})
 public class ActionLog {
 
     @Id
@@ -32,6 +35,9 @@ public class ActionLog {
 
     private String ipAddress;
 
+    // Duração da requisição que originou o log, quando houver uma
+    private Long latencyMs;
+
     public ActionLog(Long userId, String userEmail, String action, String details) {
         this.userId = userId;
         this.userEmail = userEmail;
@@ -10,7 +10,8 @@ import java.time.LocalDateTime;
 
 @Entity
 @Data
-@Table(name = "notifications")
+@Table(name = "notifications", uniqueConstraints =
+        @UniqueConstraint(name = "uk_notifications_user_rule_key", columnNames = {"user_id", "ruleKey"}))
 public class Notification {
 
     @Id
@@ -38,6 +39,11 @@ public class Notification {
     @Enumerated(EnumType.STRING)
     private NotificationPriority priority;
 
+    // Preenchido pelo NotificationRuleEngine para não repetir o mesmo alerta
+    @JsonIgnore
+    @Column(length = 150)
+    private String ruleKey;
+
     @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
@@ -0,0 +1,40 @@
+package com.qfin.qfinbackend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Foto de perfil de um usuário. Os bytes ficam em disco, endereçados pelo SHA-256 do
+ * conteúdo (que também é o ETag); a linha de users não carrega mais a imagem.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "profile_images", indexes = @Index(name = "idx_profile_images_hash", columnList = "contentHash"))
+public class ProfileImage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private Long userId;
+
+    @Column(nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(nullable = false, length = 50)
+    private String contentType;
+
+    @Column(nullable = false)
+    private Long sizeBytes;
+
+    @Column(nullable = false)
+    private Long thumbnailSizeBytes;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
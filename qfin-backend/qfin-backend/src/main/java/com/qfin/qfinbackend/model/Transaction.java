@@ -10,6 +10,9 @@ import java.time.LocalDate;
 
 @Entity
 @Data
+@Table(indexes = {
+        @Index(name = "idx_transactions_user_date_id", columnList = "user_id, date DESC, id DESC")
+})
 public class Transaction {
     
     @Id
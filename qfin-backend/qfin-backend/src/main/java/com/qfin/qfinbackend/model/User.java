@@ -40,9 +40,6 @@ public class User {
 
     private LocalDate birthDate;
 
-    @Column(columnDefinition = "TEXT")
-    private String profileImageBase64;
-
     // Sem NOT NULL no schema para não quebrar atualização de bancos já existentes
     // com registros antigos; o valor padrão é garantido pela aplicação e pelo
     // ColumnDefault para novos registros.
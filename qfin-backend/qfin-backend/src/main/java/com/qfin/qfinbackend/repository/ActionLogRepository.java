@@ -1,15 +1,37 @@
 package com.qfin.qfinbackend.repository;
 
 import com.qfin.qfinbackend.model.ActionLog;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface ActionLogRepository extends JpaRepository<ActionLog, Long> {
-    List<ActionLog> findByUserIdOrderByTimestampDesc(Long userId);
-    Page<ActionLog> findAllByOrderByTimestampDesc(Pageable pageable);
+
+    // Paginação por keyset (timestamp, id) a partir do cursor, dentro do intervalo [from, cursor)
+    @Query("SELECT l FROM ActionLog l WHERE l.timestamp >= :from " +
+           "AND (l.timestamp < :timestamp OR (l.timestamp = :timestamp AND l.id < :id)) " +
+           "AND (:action IS NULL OR l.action = :action) " +
+           "ORDER BY l.timestamp DESC, l.id DESC")
+    List<ActionLog> findPage(@Param("from") LocalDateTime from,
+                             @Param("timestamp") LocalDateTime timestamp,
+                             @Param("id") Long id,
+                             @Param("action") String action,
+                             Pageable pageable);
+
+    @Query("SELECT l FROM ActionLog l WHERE l.userId = :userId AND l.timestamp >= :from " +
+           "AND (l.timestamp < :timestamp OR (l.timestamp = :timestamp AND l.id < :id)) " +
+           "AND (:action IS NULL OR l.action = :action) " +
+           "ORDER BY l.timestamp DESC, l.id DESC")
+    List<ActionLog> findPageByUserId(@Param("userId") Long userId,
+                                     @Param("from") LocalDateTime from,
+                                     @Param("timestamp") LocalDateTime timestamp,
+                                     @Param("id") Long id,
+                                     @Param("action") String action,
+                                     Pageable pageable);
 }
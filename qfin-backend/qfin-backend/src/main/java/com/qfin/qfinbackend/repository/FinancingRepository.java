@@ -1,9 +1,32 @@
 package com.qfin.qfinbackend.repository;
 
+import com.qfin.qfinbackend.dto.DashboardFinancingDTO;
 import com.qfin.qfinbackend.model.Financing;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
 @Repository
 public interface FinancingRepository extends JpaRepository<Financing, Long> {
+
+    List<Financing> findByUserId(Long userId);
+    
+    // Financiamentos do usuário projetados direto no DTO do dashboard
+    @Query("SELECT new com.qfin.qfinbackend.dto.DashboardFinancingDTO(f.id, f.name, f.totalAmount, f.remainingAmount, " +
+           "f.monthlyPayment, f.type, f.endDate) FROM Financing f WHERE f.user.id = :userId ORDER BY f.id")
+    List<DashboardFinancingDTO> findForDashboardByUserId(@Param("userId") Long userId);
+
+    // Cursor forward-only para exportações: deve ser consumido dentro de uma transação
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT f FROM Financing f WHERE f.user.id = :userId ORDER BY f.id")
+    Stream<Financing> streamByUserId(@Param("userId") Long userId);
 }
@@ -13,4 +13,5 @@ public interface MultiCurrencyTransactionRepository extends JpaRepository<MultiC
     List<MultiCurrencyTransaction> findByUserOrderByDateDesc(User user);
     Optional<MultiCurrencyTransaction> findByIdAndUser(Long id, User user);
     List<MultiCurrencyTransaction> findByUserAndCurrency(User user, String currency);
+    long countByUserId(Long userId);
 }
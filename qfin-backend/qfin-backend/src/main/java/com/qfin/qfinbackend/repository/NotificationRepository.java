@@ -14,4 +14,5 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     List<Notification> findByUserAndIsReadFalseOrderByDateDesc(User user);
     Optional<Notification> findByIdAndUser(Long id, User user);
     long countByUserAndIsReadFalse(User user);
+    long countByUserIdAndIsReadFalse(Long userId);
 }
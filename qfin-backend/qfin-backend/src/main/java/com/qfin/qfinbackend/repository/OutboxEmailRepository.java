@@ -0,0 +1,66 @@
+package com.qfin.qfinbackend.repository;
+
+import com.qfin.qfinbackend.model.OutboxEmail;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEmailRepository extends JpaRepository<OutboxEmail, Long> {
+
+    @Query("SELECT e.id FROM OutboxEmail e WHERE e.status = :status AND e.nextAttemptAt <= :now " +
+           "ORDER BY e.nextAttemptAt, e.id")
+    List<Long> findDueIds(@Param("status") OutboxEmail.Status status,
+                          @Param("now") LocalDateTime now,
+                          Pageable pageable);
+
+    // Reserva o email só se ainda estiver no status esperado e vencido: retorna 0 se outra
+    // thread ou instância chegou antes (ou se ele foi reagendado desde a consulta)
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxEmail e SET e.status = :newStatus, e.lockedUntil = :lockedUntil " +
+           "WHERE e.id = :id AND e.status = :expectedStatus AND e.nextAttemptAt <= :now")
+    int claim(@Param("id") Long id,
+              @Param("expectedStatus") OutboxEmail.Status expectedStatus,
+              @Param("newStatus") OutboxEmail.Status newStatus,
+              @Param("lockedUntil") LocalDateTime lockedUntil,
+              @Param("now") LocalDateTime now);
+
+    // Resultado do envio, gravado só se a reserva ainda for a mesma (lockedUntil serve de token)
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxEmail e SET e.status = :newStatus, e.attempts = :attempts, e.lockedUntil = null, " +
+           "e.nextAttemptAt = :nextAttemptAt, e.lastError = :lastError, e.sentAt = :sentAt " +
+           "WHERE e.id = :id AND e.status = :expectedStatus AND e.lockedUntil = :lease")
+    int complete(@Param("id") Long id,
+                 @Param("expectedStatus") OutboxEmail.Status expectedStatus,
+                 @Param("lease") LocalDateTime lease,
+                 @Param("newStatus") OutboxEmail.Status newStatus,
+                 @Param("attempts") int attempts,
+                 @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                 @Param("lastError") String lastError,
+                 @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxEmail e SET e.status = :newStatus, e.lockedUntil = null " +
+           "WHERE e.status = :expectedStatus AND e.lockedUntil < :now")
+    int releaseExpiredClaims(@Param("expectedStatus") OutboxEmail.Status expectedStatus,
+                             @Param("newStatus") OutboxEmail.Status newStatus,
+                             @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OutboxEmail e WHERE e.status = :status AND e.sentAt < :before")
+    int deleteByStatusAndSentAtBefore(@Param("status") OutboxEmail.Status status,
+                                      @Param("before") LocalDateTime before);
+
+    long countByStatus(OutboxEmail.Status status);
+}
@@ -0,0 +1,14 @@
+package com.qfin.qfinbackend.repository;
+
+import com.qfin.qfinbackend.model.ProfileImage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ProfileImageRepository extends JpaRepository<ProfileImage, Long> {
+    Optional<ProfileImage> findByUserId(Long userId);
+    Optional<ProfileImage> findFirstByContentHash(String contentHash);
+    boolean existsByContentHash(String contentHash);
+}
@@ -3,6 +3,8 @@ package com.qfin.qfinbackend.repository;
 import com.qfin.qfinbackend.model.RecurringTransaction;
 import com.qfin.qfinbackend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
@@ -14,5 +16,10 @@ public interface RecurringTransactionRepository extends JpaRepository<RecurringT
     List<RecurringTransaction> findByUserOrderByNextProcessingAsc(User user);
     Optional<RecurringTransaction> findByIdAndUser(Long id, User user);
     List<RecurringTransaction> findByUserAndIsActiveTrue(User user);
+    
+    // Recorrências ativas do usuário por tipo: [tipo, soma, quantidade]
+    @Query("SELECT r.type, SUM(r.amount), COUNT(r) FROM RecurringTransaction r " +
+           "WHERE r.user.id = :userId AND r.isActive = true GROUP BY r.type")
+    List<Object[]> sumActiveByUserIdGroupByType(@Param("userId") Long userId);
     List<RecurringTransaction> findByIsActiveTrueAndNextProcessingLessThanEqual(LocalDate date);
 }
@@ -1,18 +1,50 @@
 package com.qfin.qfinbackend.repository;
 
+import com.qfin.qfinbackend.dto.DashboardTransactionDTO;
 import com.qfin.qfinbackend.model.Transaction;
 import com.qfin.qfinbackend.model.Transaction.TransactionType;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
     
+    List<Transaction> findByUserIdOrderByDateDescIdDesc(Long userId);
+    
+    // Totais do usuário por tipo: [tipo, soma, quantidade]
+    @Query("SELECT t.type, SUM(t.amount), COUNT(t) FROM Transaction t WHERE t.user.id = :userId GROUP BY t.type")
+    List<Object[]> sumAndCountByUserIdGroupByType(@Param("userId") Long userId);
+    
+    // Transações mais recentes do usuário, projetadas direto no DTO do dashboard
+    @Query("SELECT new com.qfin.qfinbackend.dto.DashboardTransactionDTO(t.id, t.type, t.amount, t.category, t.description, t.date) " +
+           "FROM Transaction t WHERE t.user.id = :userId ORDER BY t.date DESC, t.id DESC")
+    List<DashboardTransactionDTO> findRecentForDashboard(@Param("userId") Long userId, Pageable pageable);
+    
+    // Paginação por keyset (date, id): primeira página do usuário
+    @Query("SELECT t FROM Transaction t WHERE t.user.id = :userId ORDER BY t.date DESC, t.id DESC")
+    List<Transaction> findPageByUserId(@Param("userId") Long userId, Pageable pageable);
+    
+    // Paginação por keyset (date, id): páginas seguintes, a partir do cursor
+    @Query("SELECT t FROM Transaction t WHERE t.user.id = :userId " +
+           "AND (t.date < :date OR (t.date = :date AND t.id < :id)) " +
+           "ORDER BY t.date DESC, t.id DESC")
+    List<Transaction> findPageByUserIdAfter(@Param("userId") Long userId,
+                                            @Param("date") LocalDate date,
+                                            @Param("id") Long id,
+                                            Pageable pageable);
+    
     List<Transaction> findByUserIdAndDateBetween(Long userId, LocalDate startDate, LocalDate endDate);
     
     List<Transaction> findByUserIdAndTypeAndDateBetween(Long userId, TransactionType type, LocalDate startDate, LocalDate endDate);
@@ -20,13 +52,54 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     List<Transaction> findByUserIdAndCategoryAndDateBetween(Long userId, String category, LocalDate startDate, LocalDate endDate);
     
     @Query("SELECT t FROM Transaction t WHERE t.user.id = :userId AND t.date BETWEEN :startDate AND :endDate " +
-           "AND (:type IS NULL OR t.type = :type) AND (:category IS NULL OR t.category = :category)")
+           "AND (:type IS NULL OR t.type = :type) AND (:category IS NULL OR t.category = :category) " +
+           "ORDER BY t.date DESC, t.id DESC")
     List<Transaction> findByFilters(@Param("userId") Long userId, 
                                     @Param("startDate") LocalDate startDate, 
                                     @Param("endDate") LocalDate endDate,
                                     @Param("type") TransactionType type,
                                     @Param("category") String category);
     
+    // Primeiras linhas do período na ordem do relatório (janela paginada de /api/reports/transactions)
+    @Query("SELECT t FROM Transaction t WHERE t.user.id = :userId AND t.date BETWEEN :startDate AND :endDate " +
+           "AND (:type IS NULL OR t.type = :type) AND (:category IS NULL OR t.category = :category) " +
+           "ORDER BY t.date DESC, t.id DESC")
+    List<Transaction> findWindowByFilters(@Param("userId") Long userId,
+                                          @Param("startDate") LocalDate startDate,
+                                          @Param("endDate") LocalDate endDate,
+                                          @Param("type") TransactionType type,
+                                          @Param("category") String category,
+                                          Pageable pageable);
+    
+    @Query("SELECT COUNT(t) FROM Transaction t WHERE t.user.id = :userId AND t.date BETWEEN :startDate AND :endDate " +
+           "AND (:type IS NULL OR t.type = :type) AND (:category IS NULL OR t.category = :category)")
+    long countByFilters(@Param("userId") Long userId,
+                        @Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate,
+                        @Param("type") TransactionType type,
+                        @Param("category") String category);
+    
+    // Cursor forward-only para exportações: deve ser consumido dentro de uma transação
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT t FROM Transaction t WHERE t.user.id = :userId AND t.date BETWEEN :startDate AND :endDate " +
+           "AND (:type IS NULL OR t.type = :type) AND (:category IS NULL OR t.category = :category) " +
+           "ORDER BY t.date DESC, t.id DESC")
+    Stream<Transaction> streamByFilters(@Param("userId") Long userId,
+                                        @Param("startDate") LocalDate startDate,
+                                        @Param("endDate") LocalDate endDate,
+                                        @Param("type") TransactionType type,
+                                        @Param("category") String category);
+    
+    // Apenas as transações materializadas a partir de recorrências ([REC:) ou espelhos multi-moeda ([MC:)
+    @Query("SELECT t FROM Transaction t WHERE t.user.id = :userId AND t.date BETWEEN :startDate AND :endDate " +
+           "AND (:type IS NULL OR t.type = :type) AND (:category IS NULL OR t.category = :category) " +
+           "AND (t.description LIKE '%[REC:%' OR t.description LIKE '[MC:%')")
+    List<Transaction> findMarkedByFilters(@Param("userId") Long userId,
+                                          @Param("startDate") LocalDate startDate,
+                                          @Param("endDate") LocalDate endDate,
+                                          @Param("type") TransactionType type,
+                                          @Param("category") String category);
+    
     @Query("SELECT SUM(t.amount) FROM Transaction t WHERE t.user.id = :userId AND t.type = :type AND t.date BETWEEN :startDate AND :endDate")
     Double sumByUserIdAndTypeAndDateBetween(@Param("userId") Long userId, 
                                            @Param("type") TransactionType type,
@@ -40,4 +113,15 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
                                        @Param("type") TransactionType type,
                                        @Param("startDate") LocalDate startDate,
                                        @Param("endDate") LocalDate endDate);
+    
+    // Resumo agregado no banco: [category, type, SUM(amount), COUNT, MIN(amount), MAX(amount)] por categoria e tipo
+    @Query("SELECT t.category, t.type, SUM(t.amount), COUNT(t), MIN(t.amount), MAX(t.amount) FROM Transaction t " +
+           "WHERE t.user.id = :userId AND t.date BETWEEN :startDate AND :endDate " +
+           "AND (:type IS NULL OR t.type = :type) AND (:category IS NULL OR t.category = :category) " +
+           "GROUP BY t.category, t.type ORDER BY t.category")
+    List<Object[]> summarizeByFilters(@Param("userId") Long userId,
+                                      @Param("startDate") LocalDate startDate,
+                                      @Param("endDate") LocalDate endDate,
+                                      @Param("type") TransactionType type,
+                                      @Param("category") String category);
 }
@@ -1,7 +1,10 @@
 package com.qfin.qfinbackend.repository;
 
+import com.qfin.qfinbackend.dto.CurrentUser;
 import com.qfin.qfinbackend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.qfin.qfinbackend.model.UserRole;
@@ -12,6 +15,12 @@ import java.util.Optional;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
+
+    // Principal da autenticação: apenas id, email, senha e papel
+    @Query("SELECT new com.qfin.qfinbackend.dto.CurrentUser(u.id, u.email, u.password, u.role) " +
+           "FROM User u WHERE u.email = :email")
+    Optional<CurrentUser> findCurrentUserByEmail(@Param("email") String email);
+
     Optional<User> findByCpf(String cpf);
     List<User> findByRole(UserRole role);
 }
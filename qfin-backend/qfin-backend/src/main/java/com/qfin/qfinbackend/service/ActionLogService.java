@@ -1,29 +1,165 @@
 package com.qfin.qfinbackend.service;
 
+import com.qfin.qfinbackend.dto.ActionLogPageDTO;
 import com.qfin.qfinbackend.model.ActionLog;
-import com.qfin.qfinbackend.repository.ActionLogRepository;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
 public class ActionLogService {
 
+    private static final String PENDING_ATTRIBUTE = ActionLogService.class.getName() + ".pending";
+    private static final int MAX_ACTION_LENGTH = 100;
+    private static final int MAX_DETAILS_LENGTH = 500;
+    private static final LocalDateTime MIN_TIMESTAMP = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_TIMESTAMP = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private static final Logger log = LoggerFactory.getLogger(ActionLogService.class);
+
     @Autowired
-    private ActionLogRepository actionLogRepository;
+    private ActionLogStore actionLogStore;
+
+    @Autowired
+    private ActionLogWriter actionLogWriter;
+
+    @Value("${app.audit.page-size.default:50}")
+    private int defaultPageSize;
 
+    @Value("${app.audit.page-size.max:500}")
+    private int maxPageSize;
+
+    @Value("${app.audit.retention-days:365}")
+    private int retentionDays;
+
+    /**
+     * Registra a ação de forma assíncrona: o log é enfileirado e gravado em lote
+     * pelo {@link ActionLogWriter}, fora do tempo de resposta da requisição. Dentro de
+     * uma requisição auditada o log fica pendente até o fim dela, para receber IP e latência.
+     */
     public void log(Long userId, String userEmail, String action, String details) {
-        ActionLog log = new ActionLog(userId, userEmail, action, details);
-        actionLogRepository.save(log);
+        ActionLog entry = new ActionLog(userId, userEmail, action, details);
+        HttpServletRequest request = currentRequest();
+        if (request == null) {
+            actionLogWriter.write(entry);
+            return;
+        }
+        entry.setIpAddress(request.getRemoteAddr());
+        @SuppressWarnings("unchecked")
+        List<ActionLog> pending = (List<ActionLog>) request.getAttribute(PENDING_ATTRIBUTE);
+        if (pending != null) {
+            pending.add(entry);
+        } else {
+            actionLogWriter.offer(List.of(entry));
+        }
+    }
+
+    /**
+     * Início de uma requisição auditada: os logs registrados durante ela ficam pendentes.
+     */
+    public void beginRequest(HttpServletRequest request) {
+        request.setAttribute(PENDING_ATTRIBUTE, new ArrayList<ActionLog>());
+    }
+
+    /**
+     * Fim de uma requisição auditada. Os logs registrados pelos services recebem a latência;
+     * se nenhum foi registrado e há usuário autenticado, grava um log genérico com o método,
+     * a rota e o status HTTP. Com a fila cheia e a política BLOCK, espera no máximo
+     * request-block-timeout-ms pelo conjunto dos logs.
+     */
+    public void completeRequest(HttpServletRequest request, int status, long latencyMs, Long userId, String userEmail) {
+        @SuppressWarnings("unchecked")
+        List<ActionLog> pending = (List<ActionLog>) request.getAttribute(PENDING_ATTRIBUTE);
+        if (pending == null) return;
+        request.removeAttribute(PENDING_ATTRIBUTE);
+
+        if (pending.isEmpty() && userId != null) {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String route = pattern != null ? pattern.toString() : request.getRequestURI();
+            ActionLog entry = new ActionLog(userId, userEmail,
+                    truncate(request.getMethod() + " " + route, MAX_ACTION_LENGTH),
+                    truncate("HTTP " + status, MAX_DETAILS_LENGTH));
+            entry.setIpAddress(request.getRemoteAddr());
+            pending.add(entry);
+        }
+        for (ActionLog entry : pending) {
+            entry.setLatencyMs(latencyMs);
+        }
+        actionLogWriter.offer(pending);
+    }
+
+    /**
+     * Lista os logs em páginas ordenadas por (timestamp, id) decrescente, opcionalmente de
+     * um único usuário, no intervalo [from, to] e com uma ação específica. O cursor tem o
+     * formato "timestamp:id" e aponta para o último log da página anterior; quando nulo,
+     * retorna a primeira página.
+     */
+    public ActionLogPageDTO getLogPage(Long userId, LocalDateTime from, LocalDateTime to,
+                                       String action, String cursor, Integer size) {
+        int pageSize = size == null || size <= 0 ? defaultPageSize : Math.min(size, maxPageSize);
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("Data inicial deve ser anterior à data final");
+        }
+        // Sem filtro de data o intervalo é aberto; sem cursor a página começa em "to"
+        LocalDateTime rangeStart = from != null ? from : MIN_TIMESTAMP;
+        LocalDateTime cursorTimestamp = to != null ? to : MAX_TIMESTAMP;
+        Long cursorId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            int separator = cursor.lastIndexOf(':');
+            try {
+                cursorTimestamp = LocalDateTime.parse(cursor.substring(0, Math.max(separator, 0)));
+                cursorId = Long.valueOf(cursor.substring(separator + 1));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Cursor inválido: " + cursor);
+            }
+        }
+        String actionFilter = action == null || action.isBlank() ? null : action;
+        // Busca um item a mais para saber se existe próxima página
+        List<ActionLog> rows = actionLogStore.findPage(
+                userId, rangeStart, cursorTimestamp, cursorId, actionFilter, pageSize + 1);
+
+        String next = null;
+        if (rows.size() > pageSize) {
+            rows = new ArrayList<>(rows.subList(0, pageSize));
+            ActionLog last = rows.get(pageSize - 1);
+            next = last.getTimestamp() + ":" + last.getId();
+        }
+        return new ActionLogPageDTO(rows, next);
+    }
+
+    /**
+     * Remove os logs mais antigos que app.audit.retention-days (0 desabilita).
+     */
+    @Scheduled(cron = "${app.audit.purge.cron:0 30 3 * * *}")
+    public int purgeExpiredLogs() {
+        if (retentionDays <= 0) return 0;
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        int total = actionLogStore.purgeBefore(cutoff);
+        if (total > 0) {
+            log.info("{} logs de auditoria anteriores a {} removidos", total, cutoff);
+        }
+        return total;
     }
 
-    public List<ActionLog> getLogsByUser(Long userId) {
-        return actionLogRepository.findByUserIdOrderByTimestampDesc(userId);
+    private static HttpServletRequest currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servletAttributes ? servletAttributes.getRequest() : null;
     }
 
-    public List<ActionLog> getAllLogs(int page, int size) {
-        return actionLogRepository.findAllByOrderByTimestampDesc(PageRequest.of(page, size)).getContent();
+    private static String truncate(String value, int maxLength) {
+        return value.length() > maxLength ? value.substring(0, maxLength) : value;
     }
 }
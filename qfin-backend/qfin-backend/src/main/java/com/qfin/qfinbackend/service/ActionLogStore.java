@@ -0,0 +1,33 @@
+package com.qfin.qfinbackend.service;
+
+import com.qfin.qfinbackend.model.ActionLog;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Armazenamento dos logs de auditoria. app.audit.store escolhe a implementação:
+ * "jdbc" (padrão, tabela action_logs) ou "file" (segmentos append-only em disco local).
+ */
+public interface ActionLogStore {
+
+    /**
+     * Grava um lote de logs. Chamado pelo ActionLogWriter, uma gravação por vez.
+     */
+    void append(List<ActionLog> batch);
+
+    /**
+     * Até limit logs ordenados por (timestamp, id) decrescente, estritamente antes de
+     * (beforeTimestamp, beforeId) e com timestamp >= from. userId e action são opcionais.
+     */
+    List<ActionLog> findPage(Long userId, LocalDateTime from, LocalDateTime beforeTimestamp,
+                             long beforeId, String action, int limit);
+
+    /**
+     * Remove os logs com timestamp anterior a cutoff e retorna quantos foram removidos.
+     */
+    int purgeBefore(LocalDateTime cutoff);
+
+    Map<String, Object> getStats();
+}
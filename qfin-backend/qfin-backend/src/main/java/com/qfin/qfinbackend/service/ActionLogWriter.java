@@ -0,0 +1,226 @@
+package com.qfin.qfinbackend.service;
+
+import com.qfin.qfinbackend.model.ActionLog;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Gravação assíncrona dos logs de auditoria. As requisições só enfileiram o registro
+ * (fila limitada); uma thread de fundo grava no ActionLogStore em lotes de batch-size
+ * registros ou a cada flush-interval-ms. Com a fila cheia, a política DROP descarta o
+ * registro na hora e BLOCK espera até block-timeout-ms antes de descartar; nas threads de
+ * requisição a espera é limitada a request-block-timeout-ms por requisição. No desligamento
+ * a fila é esvaziada antes de fechar o pool de conexões. Registros sem usuário são
+ * recusados na entrada: user_id é obrigatório e um registro inválido derrubaria o lote inteiro.
+ */
+@Component
+public class ActionLogWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(ActionLogWriter.class);
+
+    public enum OverflowPolicy { DROP, BLOCK }
+
+    @Autowired
+    private ActionLogStore actionLogStore;
+
+    @Value("${app.audit.async:true}")
+    private boolean async;
+
+    @Value("${app.audit.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.audit.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.audit.flush-interval-ms:500}")
+    private long flushIntervalMs;
+
+    @Value("${app.audit.overflow-policy:BLOCK}")
+    private OverflowPolicy overflowPolicy;
+
+    @Value("${app.audit.block-timeout-ms:1000}")
+    private long blockTimeoutMs;
+
+    @Value("${app.audit.request-block-timeout-ms:50}")
+    private long requestBlockTimeoutMs;
+
+    private BlockingQueue<ActionLog> queue;
+    private Thread worker;
+    private volatile boolean running;
+
+    // Serializa a gravação entre a thread de fundo e flush()
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        if (!async) return;
+        running = true;
+        worker = new Thread(this::run, "action-log-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        flush();
+    }
+
+    public void write(ActionLog actionLog) {
+        enqueue(actionLog, overflowPolicy == OverflowPolicy.BLOCK ? TimeUnit.MILLISECONDS.toNanos(blockTimeoutMs) : 0);
+    }
+
+    /**
+     * Como write(), para as threads de requisição: com BLOCK todos os registros da
+     * requisição dividem uma única espera de no máximo request-block-timeout-ms (e nunca
+     * mais que block-timeout-ms) por espaço na fila; com DROP não espera.
+     */
+    public void offer(List<ActionLog> actionLogs) {
+        long deadline = System.nanoTime();
+        if (overflowPolicy == OverflowPolicy.BLOCK) {
+            deadline += TimeUnit.MILLISECONDS.toNanos(Math.min(requestBlockTimeoutMs, blockTimeoutMs));
+        }
+        for (ActionLog actionLog : actionLogs) {
+            enqueue(actionLog, Math.max(0, deadline - System.nanoTime()));
+        }
+    }
+
+    private void enqueue(ActionLog actionLog, long waitNanos) {
+        if (actionLog.getUserId() == null) {
+            if (rejected.incrementAndGet() % 1000 == 1) {
+                log.warn("Log de auditoria sem usuário descartado ({}); {} recusados até agora",
+                        actionLog.getAction(), rejected.get());
+            }
+            return;
+        }
+        if (!async) {
+            insert(List.of(actionLog));
+            return;
+        }
+        boolean accepted;
+        if (waitNanos > 0) {
+            try {
+                accepted = queue.offer(actionLog, waitNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                accepted = false;
+            }
+        } else {
+            accepted = queue.offer(actionLog);
+        }
+        if (accepted) {
+            enqueued.incrementAndGet();
+        } else if (dropped.incrementAndGet() % 1000 == 1) {
+            log.warn("Fila de auditoria cheia ({} registros); {} logs descartados até agora", queueCapacity, dropped.get());
+        }
+    }
+
+    /**
+     * Grava imediatamente tudo o que está na fila e espera o lote que a thread de fundo
+     * já retirou dela, se houver.
+     */
+    public void flush() {
+        long target = enqueued.get();
+        writeLock.lock();
+        try {
+            List<ActionLog> batch = new ArrayList<>(batchSize);
+            while (queue.drainTo(batch, batchSize) > 0) {
+                insert(batch);
+                batch.clear();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (written.get() + failed.get() < target && System.nanoTime() < deadline
+                && worker != null && worker.isAlive()) {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void run() {
+        List<ActionLog> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                ActionLog first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                writeLock.lock();
+                try {
+                    batch.add(first);
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                    // Completa o lote até batch-size ou até o fim do intervalo
+                    while (batch.size() < batchSize) {
+                        queue.drainTo(batch, batchSize - batch.size());
+                        long remaining = deadline - System.nanoTime();
+                        if (batch.size() >= batchSize || remaining <= 0) break;
+                        ActionLog next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                        if (next == null) break;
+                        batch.add(next);
+                    }
+                    insert(batch);
+                } finally {
+                    batch.clear();
+                    writeLock.unlock();
+                }
+            } catch (InterruptedException e) {
+                // shutdown(): o restante da fila é gravado por flush()
+                if (!running) break;
+            }
+        }
+    }
+
+    private void insert(List<ActionLog> batch) {
+        try {
+            actionLogStore.append(batch);
+            written.addAndGet(batch.size());
+        } catch (RuntimeException e) {
+            failed.addAndGet(batch.size());
+            log.error("Falha ao gravar lote de {} logs de auditoria: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "async", async,
+                "store", actionLogStore.getStats(),
+                "overflowPolicy", overflowPolicy.name(),
+                "queueCapacity", queueCapacity,
+                "queued", queue.size(),
+                "enqueued", enqueued.get(),
+                "written", written.get(),
+                "dropped", dropped.get(),
+                "failed", failed.get(),
+                "rejected", rejected.get()
+        );
+    }
+}
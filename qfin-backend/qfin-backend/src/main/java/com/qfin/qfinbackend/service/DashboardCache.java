@@ -0,0 +1,126 @@
+package com.qfin.qfinbackend.service;
+
+import com.qfin.qfinbackend.dto.DashboardDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache dos dashboards por usuário, limitado em quantidade (LRU) e com TTL. Os services
+ * que alteram transações, financiamentos, multi-moeda ou recorrências chamam
+ * invalidate; dentro de uma transação a invalidação é repetida após o commit, para que
+ * uma leitura concorrente não volte a guardar os dados antigos. Cada invalidação também
+ * publica um UserDataChangedEvent para as atualizações em tempo real.
+ */
+@Component
+public class DashboardCache {
+
+    private static final long ABSENT = -1;
+
+    private record Entry(DashboardDTO snapshot, long expiresAt, long version) {
+    }
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.dashboard.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.dashboard.cache.max-entries:1000}")
+    private int maxEntries;
+
+    @Value("${app.dashboard.cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    // Em ordem de acesso; entradas sem snapshot marcam uma invalidação recente
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+            if (size() > maxEntries) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private long nextVersion;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Retorna o dashboard em cache ou calcula e guarda um novo. O resultado só é guardado
+     * se o usuário não foi invalidado durante o cálculo.
+     */
+    public DashboardDTO get(Long userId, Supplier<DashboardDTO> loader) {
+        if (!enabled) return loader.get();
+
+        long version;
+        synchronized (this) {
+            Entry entry = entries.get(userId);
+            if (entry != null && entry.snapshot() != null && entry.expiresAt() > System.currentTimeMillis()) {
+                hits.incrementAndGet();
+                return entry.snapshot();
+            }
+            version = entry != null ? entry.version() : ABSENT;
+        }
+        misses.incrementAndGet();
+
+        DashboardDTO snapshot = loader.get();
+        synchronized (this) {
+            Entry current = entries.get(userId);
+            long currentVersion = current != null ? current.version() : ABSENT;
+            if (currentVersion == version) {
+                entries.put(userId, new Entry(snapshot, System.currentTimeMillis() + ttlSeconds * 1000, nextVersion++));
+            }
+        }
+        return snapshot;
+    }
+
+    public void invalidate(Long userId) {
+        if (userId == null) return;
+        evict(userId);
+        eventPublisher.publishEvent(new UserDataChangedEvent(userId));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId);
+                }
+            });
+        }
+    }
+
+    private synchronized void evict(Long userId) {
+        invalidations.incrementAndGet();
+        entries.put(userId, new Entry(null, 0, nextVersion++));
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long requests = hitCount + missCount;
+        return Map.of(
+                "enabled", enabled,
+                "size", entries.size(),
+                "maxEntries", maxEntries,
+                "ttlSeconds", ttlSeconds,
+                "hits", hitCount,
+                "misses", missCount,
+                "hitRate", requests == 0 ? 0.0 : (double) hitCount / requests,
+                "evictions", evictions.get(),
+                "invalidations", invalidations.get()
+        );
+    }
+}
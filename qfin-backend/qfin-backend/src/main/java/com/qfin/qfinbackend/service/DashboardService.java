@@ -1,7 +1,8 @@
 package com.qfin.qfinbackend.service;
 
-import com.qfin.qfinbackend.model.Financing;
-import com.qfin.qfinbackend.model.MultiCurrencyTransaction;
+import com.qfin.qfinbackend.dto.DashboardDTO;
+import com.qfin.qfinbackend.dto.DashboardFinancingDTO;
+import com.qfin.qfinbackend.dto.DashboardTransactionDTO;
 import com.qfin.qfinbackend.model.RecurringTransaction;
 import com.qfin.qfinbackend.model.Transaction;
 import com.qfin.qfinbackend.model.User;
@@ -10,14 +11,16 @@ import com.qfin.qfinbackend.repository.MultiCurrencyTransactionRepository;
 import com.qfin.qfinbackend.repository.RecurringTransactionRepository;
 import com.qfin.qfinbackend.repository.TransactionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.List;
 
 @Service
 public class DashboardService {
 
+    private static final int RECENT_TRANSACTIONS = 5;
+
     @Autowired
     private TransactionRepository transactionRepository;
 
@@ -30,61 +33,62 @@ public class DashboardService {
     @Autowired
     private RecurringTransactionRepository recurringTransactionRepository;
 
-    public Map<String, Object> getDashboardData(User user) {
-        List<Transaction> transactions = transactionRepository.findAll().stream()
-                .filter(t -> t.getUser() != null && t.getUser().getId() != null && t.getUser().getId().equals(user.getId()))
-                .collect(Collectors.toList());
-
-        List<Financing> financings = financingRepository.findAll().stream()
-                .filter(f -> f.getUser() != null && f.getUser().getId() != null && f.getUser().getId().equals(user.getId()))
-                .collect(Collectors.toList());
+    @Autowired
+    private DashboardCache dashboardCache;
 
-        List<MultiCurrencyTransaction> multiCurrencyTransactions = multiCurrencyTransactionRepository.findByUserOrderByDateDesc(user);
-        List<RecurringTransaction> recurringTransactions = recurringTransactionRepository.findByUserAndIsActiveTrue(user);
+    public DashboardDTO getDashboardData(User user) {
+        return getDashboardData(user.getId());
+    }
 
-        double totalIncome = transactions.stream()
-                .filter(t -> t.getType() == Transaction.TransactionType.INCOME)
-                .mapToDouble(t -> t.getAmount() != null ? t.getAmount() : 0.0)
-                .sum();
+    public DashboardDTO getDashboardData(Long userId) {
+        return dashboardCache.get(userId, () -> buildDashboardData(userId));
+    }
 
-        double totalExpenses = transactions.stream()
-                .filter(t -> t.getType() == Transaction.TransactionType.EXPENSE)
-                .mapToDouble(t -> t.getAmount() != null ? t.getAmount() : 0.0)
-                .sum();
+    /**
+     * Monta o dashboard apenas com consultas do próprio usuário: totais e contagens são
+     * agregados no banco e as listas vêm de projeções por construtor, sem carregar
+     * entidades.
+     */
+    private DashboardDTO buildDashboardData(Long userId) {
+        double totalIncome = 0.0;
+        double totalExpenses = 0.0;
+        long transactionsCount = 0;
+        for (Object[] row : transactionRepository.sumAndCountByUserIdGroupByType(userId)) {
+            double sum = row[1] != null ? ((Number) row[1]).doubleValue() : 0.0;
+            if (row[0] == Transaction.TransactionType.INCOME) {
+                totalIncome += sum;
+            } else if (row[0] == Transaction.TransactionType.EXPENSE) {
+                totalExpenses += sum;
+            }
+            transactionsCount += ((Number) row[2]).longValue();
+        }
 
         // Multi-moeda já é espelhada em Transaction ([MC:id]); evitar dupla contagem no consolidado
         // recorrentes ativos entram como visão planejada de receita/compromisso
-        double recurringIncome = recurringTransactions.stream()
-                .filter(t -> t.getType() == RecurringTransaction.TransactionType.INCOME)
-                .mapToDouble(t -> t.getAmount() != null ? t.getAmount() : 0.0)
-                .sum();
-
-        double recurringExpense = recurringTransactions.stream()
-                .filter(t -> t.getType() == RecurringTransaction.TransactionType.EXPENSE)
-                .mapToDouble(t -> t.getAmount() != null ? t.getAmount() : 0.0)
-                .sum();
-
-        totalIncome += recurringIncome;
-        totalExpenses += recurringExpense;
-
-        double totalBalance = totalIncome - totalExpenses;
-
-        List<Transaction> recentTransactions = transactions.stream()
-                .sorted(Comparator.comparing(Transaction::getDate).reversed())
-                .limit(5)
-                .collect(Collectors.toList());
-
-        Map<String, Object> dashboard = new HashMap<>();
-        dashboard.put("totalIncome", totalIncome);
-        dashboard.put("totalExpenses", totalExpenses);
-        dashboard.put("totalBalance", totalBalance);
-        dashboard.put("financingsCount", financings.size());
-        dashboard.put("recentTransactions", recentTransactions);
-        dashboard.put("financings", financings);
-        dashboard.put("transactionsCount", transactions.size());
-        dashboard.put("multiCurrencyTransactionsCount", multiCurrencyTransactions.size());
-        dashboard.put("recurringTransactionsCount", recurringTransactions.size());
-
-        return dashboard;
+        long recurringTransactionsCount = 0;
+        for (Object[] row : recurringTransactionRepository.sumActiveByUserIdGroupByType(userId)) {
+            double sum = row[1] != null ? ((Number) row[1]).doubleValue() : 0.0;
+            if (row[0] == RecurringTransaction.TransactionType.INCOME) {
+                totalIncome += sum;
+            } else if (row[0] == RecurringTransaction.TransactionType.EXPENSE) {
+                totalExpenses += sum;
+            }
+            recurringTransactionsCount += ((Number) row[2]).longValue();
+        }
+
+        List<DashboardTransactionDTO> recentTransactions = List.copyOf(transactionRepository.findRecentForDashboard(
+                userId, PageRequest.of(0, RECENT_TRANSACTIONS)));
+        List<DashboardFinancingDTO> financings = List.copyOf(financingRepository.findForDashboardByUserId(userId));
+
+        return new DashboardDTO(
+                totalIncome,
+                totalExpenses,
+                totalIncome - totalExpenses,
+                transactionsCount,
+                financings.size(),
+                multiCurrencyTransactionRepository.countByUserId(userId),
+                recurringTransactionsCount,
+                recentTransactions,
+                financings);
     }
 }
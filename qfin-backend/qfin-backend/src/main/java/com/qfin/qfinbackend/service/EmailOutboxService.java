@@ -0,0 +1,254 @@
+package com.qfin.qfinbackend.service;
+
+import com.qfin.qfinbackend.model.OutboxEmail;
+import com.qfin.qfinbackend.repository.OutboxEmailRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Entrega dos emails da outbox. Logo após o commit de um novo email, e a cada
+ * poll-interval-ms, os emails pendentes são distribuídos em lotes de batch-size para as
+ * threads "email-outbox-N", um lote por conexão SMTP. Cada worker reserva o lote por
+ * claim-timeout-ms logo antes de enviá-lo e só grava o resultado se a reserva ainda for
+ * dele. Falhas voltam para a fila com espera exponencial (backoff-ms, 2x, 4x... até
+ * max-backoff-ms) e viram FAILED após max-attempts tentativas.
+ */
+@Service
+public class EmailOutboxService {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxService.class);
+
+    @Autowired
+    private OutboxEmailRepository outboxEmailRepository;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Value("${app.mail.outbox.workers:2}")
+    private int workers;
+
+    @Value("${app.mail.outbox.batch-size:20}")
+    private int batchSize;
+
+    @Value("${app.mail.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.mail.outbox.backoff-ms:30000}")
+    private long backoffMs;
+
+    @Value("${app.mail.outbox.max-backoff-ms:3600000}")
+    private long maxBackoffMs;
+
+    @Value("${app.mail.outbox.claim-timeout-ms:300000}")
+    private long claimTimeoutMs;
+
+    @Value("${app.mail.outbox.retention-days:7}")
+    private int retentionDays;
+
+    private ThreadPoolExecutor executor;
+
+    // Uma varredura por vez; pedidos durante ela geram uma nova rodada no final
+    private final AtomicBoolean dispatching = new AtomicBoolean();
+    private final AtomicBoolean dispatchRequested = new AtomicBoolean();
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workers * 2),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "email-outbox-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Lotes interrompidos voltam para PENDING quando a reserva vence
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    // Executa após o commit do email na outbox (ou imediatamente, fora de transação)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmailQueued(EmailQueuedEvent event) {
+        requestDispatch();
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval-ms:10000}")
+    public void poll() {
+        int released = outboxEmailRepository.releaseExpiredClaims(
+                OutboxEmail.Status.SENDING, OutboxEmail.Status.PENDING, LocalDateTime.now());
+        if (released > 0) {
+            log.warn("{} envios de email interrompidos voltaram para a fila", released);
+        }
+        requestDispatch();
+    }
+
+    @Scheduled(cron = "${app.mail.outbox.purge-cron:0 0 4 * * *}")
+    public void purgeSent() {
+        outboxEmailRepository.deleteByStatusAndSentAtBefore(
+                OutboxEmail.Status.SENT, LocalDateTime.now().minusDays(retentionDays));
+    }
+
+    private void requestDispatch() {
+        dispatchRequested.set(true);
+        if (dispatching.get()) return;
+        try {
+            executor.execute(this::dispatch);
+        } catch (RejectedExecutionException e) {
+            // Workers ocupados: a próxima varredura continua
+        }
+    }
+
+    private void dispatch() {
+        while (dispatchRequested.getAndSet(false)) {
+            if (!dispatching.compareAndSet(false, true)) {
+                // Outra rodada em andamento: ela atende o pedido
+                dispatchRequested.set(true);
+                return;
+            }
+            try {
+                dispatchDue();
+            } catch (RuntimeException e) {
+                log.error("Falha ao distribuir emails da outbox: {}", e.getMessage());
+            } finally {
+                dispatching.set(false);
+            }
+        }
+    }
+
+    /**
+     * Entrega um lote de emails vencidos por vaga livre na fila dos workers; o que não
+     * couber fica para a próxima rodada. A reserva só é feita pelo worker, logo antes do
+     * envio, para que o prazo não corra enquanto o lote espera na fila.
+     */
+    private void dispatchDue() {
+        int freeSlots = executor.getQueue().remainingCapacity();
+        if (freeSlots == 0) return;
+        List<Long> dueIds = outboxEmailRepository.findDueIds(
+                OutboxEmail.Status.PENDING, LocalDateTime.now(), PageRequest.of(0, batchSize * freeSlots));
+        for (int i = 0; i < dueIds.size(); i += batchSize) {
+            if (!submit(new ArrayList<>(dueIds.subList(i, Math.min(i + batchSize, dueIds.size()))))) {
+                break;
+            }
+        }
+    }
+
+    private boolean submit(List<Long> ids) {
+        try {
+            executor.execute(() -> deliver(ids));
+            return true;
+        } catch (RejectedExecutionException e) {
+            // Os emails continuam PENDING e entram na próxima rodada
+            return false;
+        }
+    }
+
+    private void deliver(List<Long> ids) {
+        // Um lote na fila pode repetir emails de outro: só os reservados aqui são enviados.
+        // Truncado em milissegundos para comparar com o valor gravado no banco.
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime lease = now.plus(claimTimeoutMs, ChronoUnit.MILLIS).truncatedTo(ChronoUnit.MILLIS);
+        List<Long> claimed = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            if (outboxEmailRepository.claim(
+                    id, OutboxEmail.Status.PENDING, OutboxEmail.Status.SENDING, lease, now) == 1) {
+                claimed.add(id);
+            }
+        }
+        if (claimed.isEmpty()) return;
+
+        List<OutboxEmail> emails = outboxEmailRepository.findAllById(claimed);
+        Map<Long, String> failures = emailService.deliver(emails);
+
+        LocalDateTime finishedAt = LocalDateTime.now();
+        for (OutboxEmail email : emails) {
+            int attempts = email.getAttempts() + 1;
+            String error = failures.get(email.getId());
+            if (error == null) {
+                if (complete(email, lease, OutboxEmail.Status.SENT, attempts, email.getNextAttemptAt(), null, finishedAt)) {
+                    sent.incrementAndGet();
+                }
+                continue;
+            }
+            String lastError = error.length() > 500 ? error.substring(0, 500) : error;
+            if (attempts >= maxAttempts) {
+                if (complete(email, lease, OutboxEmail.Status.FAILED, attempts, email.getNextAttemptAt(), lastError, null)) {
+                    failed.incrementAndGet();
+                    log.error("Email {} para {} descartado após {} tentativas: {}",
+                            email.getId(), email.getRecipient(), attempts, error);
+                }
+            } else {
+                LocalDateTime nextAttemptAt = finishedAt.plusNanos(TimeUnit.MILLISECONDS.toNanos(backoff(attempts)));
+                if (complete(email, lease, OutboxEmail.Status.PENDING, attempts, nextAttemptAt, lastError, null)) {
+                    retried.incrementAndGet();
+                    log.warn("Falha ao enviar email {} para {} (tentativa {}): {}",
+                            email.getId(), email.getRecipient(), attempts, error);
+                }
+            }
+        }
+
+        // Lote cheio: provavelmente há mais emails esperando
+        if (claimed.size() == batchSize) {
+            requestDispatch();
+        }
+    }
+
+    // Grava o resultado só se a reserva ainda for deste envio
+    private boolean complete(OutboxEmail email, LocalDateTime lease, OutboxEmail.Status status, int attempts,
+                             LocalDateTime nextAttemptAt, String lastError, LocalDateTime sentAt) {
+        int updated = outboxEmailRepository.complete(email.getId(), OutboxEmail.Status.SENDING, lease,
+                status, attempts, nextAttemptAt, lastError, sentAt);
+        if (updated == 0) {
+            log.warn("Reserva do email {} venceu durante o envio; resultado descartado", email.getId());
+        }
+        return updated == 1;
+    }
+
+    // Espera exponencial a partir de backoff-ms, com até 10% de variação para espalhar as tentativas
+    private long backoff(int attempts) {
+        long delay = backoffMs << Math.min(attempts - 1, 20);
+        delay = Math.min(delay < 0 ? maxBackoffMs : delay, maxBackoffMs);
+        return delay + ThreadLocalRandom.current().nextLong(delay / 10 + 1);
+    }
+
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "pending", outboxEmailRepository.countByStatus(OutboxEmail.Status.PENDING),
+                "sending", outboxEmailRepository.countByStatus(OutboxEmail.Status.SENDING),
+                "failed", outboxEmailRepository.countByStatus(OutboxEmail.Status.FAILED),
+                "sentTotal", sent.get(),
+                "retriedTotal", retried.get(),
+                "failedTotal", failed.get()
+        );
+    }
+}
@@ -0,0 +1,8 @@
+package com.qfin.qfinbackend.service;
+
+/**
+ * Evento publicado quando um email entra na outbox, para que a entrega comece logo
+ * após o commit em vez de esperar a próxima varredura.
+ */
+public record EmailQueuedEvent(Long emailId) {
+}
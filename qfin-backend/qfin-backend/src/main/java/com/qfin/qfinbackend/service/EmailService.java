@@ -1,12 +1,23 @@
 package com.qfin.qfinbackend.service;
 
+import com.qfin.qfinbackend.model.OutboxEmail;
+import com.qfin.qfinbackend.repository.OutboxEmailRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Service
 public class EmailService {
@@ -16,6 +27,12 @@ public class EmailService {
     @Autowired(required = false)
     private JavaMailSender mailSender;
 
+    @Autowired
+    private OutboxEmailRepository outboxEmailRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Value("${app.mail.from:no-reply@qfin.local}")
     private String from;
 
@@ -23,11 +40,10 @@ public class EmailService {
     private String smtpUsername;
 
     /**
-     * Envia o email de recuperação de senha com o link contendo o token.
-     * Retorna true se o email foi efetivamente enviado via SMTP, false caso
-     * o envio não tenha sido possível (modo desenvolvimento, sem SMTP).
+     * Coloca na outbox o email de recuperação de senha com o link contendo o token.
+     * O envio acontece depois do commit, pelo EmailOutboxService.
      */
-    public boolean sendPasswordResetEmail(String to, String resetLink) {
+    public void sendPasswordResetEmail(String to, String resetLink) {
         String subject = "QFin - Recuperação de senha";
         String body = "Olá,\n\n" +
                 "Recebemos uma solicitação para redefinir a senha da sua conta QFin.\n\n" +
@@ -35,27 +51,61 @@ public class EmailService {
                 resetLink + "\n\n" +
                 "Se você não solicitou a recuperação de senha, ignore este email com segurança.\n\n" +
                 "Atenciosamente,\nEquipe QFin";
+        enqueue(to, subject, body);
+    }
+
+    /**
+     * Grava o email na outbox, na transação atual quando houver: se ela for desfeita, o
+     * email também é descartado.
+     */
+    @Transactional
+    public OutboxEmail enqueue(String to, String subject, String body) {
+        OutboxEmail saved = outboxEmailRepository.save(new OutboxEmail(to, subject, body));
+        eventPublisher.publishEvent(new EmailQueuedEvent(saved.getId()));
+        return saved;
+    }
 
-        boolean smtpConfigured = mailSender != null && smtpUsername != null && !smtpUsername.isBlank();
+    public boolean isSmtpConfigured() {
+        return mailSender != null && smtpUsername != null && !smtpUsername.isBlank();
+    }
 
-        if (!smtpConfigured) {
-            // Modo desenvolvimento: registra o link no log em vez de enviar email.
-            log.warn("[DEV] SMTP não configurado. Link de recuperação para {}: {}", to, resetLink);
-            return false;
+    /**
+     * Envia os emails em uma única conexão SMTP e retorna o erro de cada email que falhou,
+     * pelo id. Sem SMTP configurado (modo desenvolvimento) o conteúdo só é registrado no log.
+     */
+    Map<Long, String> deliver(List<OutboxEmail> emails) {
+        Map<Long, String> failures = new HashMap<>();
+        if (!isSmtpConfigured()) {
+            for (OutboxEmail email : emails) {
+                log.warn("[DEV] SMTP não configurado. Email para {} ({}):\n{}",
+                        email.getRecipient(), email.getSubject(), email.getBody());
+            }
+            return failures;
         }
 
-        try {
+        Map<SimpleMailMessage, OutboxEmail> messages = new IdentityHashMap<>();
+        for (OutboxEmail email : emails) {
             SimpleMailMessage message = new SimpleMailMessage();
             message.setFrom(from);
-            message.setTo(to);
-            message.setSubject(subject);
-            message.setText(body);
-            mailSender.send(message);
-            log.info("Email de recuperação de senha enviado para {}", to);
-            return true;
-        } catch (Exception e) {
-            log.error("Falha ao enviar email de recuperação para {}: {}", to, e.getMessage());
-            return false;
+            message.setTo(email.getRecipient());
+            message.setSubject(email.getSubject());
+            message.setText(email.getBody());
+            messages.put(message, email);
+        }
+        try {
+            mailSender.send(messages.keySet().toArray(new SimpleMailMessage[0]));
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                emails.forEach(email -> failures.put(email.getId(), e.getMessage()));
+            } else {
+                e.getFailedMessages().forEach((message, cause) -> {
+                    OutboxEmail email = messages.get(message);
+                    if (email != null) failures.put(email.getId(), cause.getMessage());
+                });
+            }
+        } catch (MailException e) {
+            emails.forEach(email -> failures.put(email.getId(), e.getMessage()));
         }
+        return failures;
     }
 }
@@ -16,6 +16,9 @@ public class FinancingService {
     @Autowired
     private FinancingRepository financingRepository;
 
+    @Autowired
+    private DashboardCache dashboardCache;
+
     public List<Financing> getAllFinancings() {
         return financingRepository.findAll();
     }
@@ -36,7 +39,11 @@ public class FinancingService {
     }
 
     public Financing createFinancing(Financing financing) {
-        return financingRepository.save(financing);
+        Financing saved = financingRepository.save(financing);
+        if (saved.getUser() != null) {
+            dashboardCache.invalidate(saved.getUser().getId());
+        }
+        return saved;
     }
 
     public Financing updateFinancing(Long id, Financing financingDetails, User user) {
@@ -49,14 +56,19 @@ public class FinancingService {
                     financing.setMonthlyPayment(financingDetails.getMonthlyPayment());
                     financing.setType(financingDetails.getType());
                     financing.setEndDate(financingDetails.getEndDate());
-                    return financingRepository.save(financing);
+                    Financing saved = financingRepository.save(financing);
+                    dashboardCache.invalidate(user.getId());
+                    return saved;
                 }).orElse(null);
     }
 
     public void deleteFinancing(Long id, User user) {
         financingRepository.findById(id)
                 .filter(f -> f.getUser().getId().equals(user.getId()))
-                .ifPresent(financingRepository::delete);
+                .ifPresent(financing -> {
+                    financingRepository.delete(financing);
+                    dashboardCache.invalidate(user.getId());
+                });
     }
 
     public Financing registerPayment(Long id, Double amount, User user) {
@@ -76,7 +88,9 @@ public class FinancingService {
                     double newRemaining = Math.max(0.0, remaining - paymentApplied);
                     financing.setRemainingAmount(newRemaining);
 
-                    return financingRepository.save(financing);
+                    Financing saved = financingRepository.save(financing);
+                    dashboardCache.invalidate(user.getId());
+                    return saved;
                 })
                 .orElseThrow(() -> new IllegalArgumentException("Financiamento não encontrado"));
     }
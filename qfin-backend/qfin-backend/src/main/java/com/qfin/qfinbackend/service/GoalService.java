@@ -26,7 +26,7 @@ public class GoalService {
     
     public Optional<Goal> getGoalById(Long id, User user) {
         return goalRepository.findById(id)
-                .filter(g -> g.getUser().equals(user));
+                .filter(g -> g.getUser().getId().equals(user.getId()));
     }
     
     @Transactional
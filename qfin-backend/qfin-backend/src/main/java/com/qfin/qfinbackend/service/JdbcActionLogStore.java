@@ -0,0 +1,82 @@
+package com.qfin.qfinbackend.service;
+
+import com.qfin.qfinbackend.model.ActionLog;
+import com.qfin.qfinbackend.repository.ActionLogRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Logs de auditoria na tabela action_logs. As inserções usam batchUpdate do JDBC porque o
+ * id IDENTITY da entidade desativa o batch de inserts do Hibernate.
+ */
+@Component
+@ConditionalOnProperty(name = "app.audit.store", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcActionLogStore implements ActionLogStore {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO action_logs (user_id, user_email, action, details, timestamp, ip_address, latency_ms) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String PURGE_SQL =
+            "DELETE FROM action_logs WHERE id IN (SELECT id FROM action_logs WHERE timestamp < ? ORDER BY id LIMIT ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ActionLogRepository actionLogRepository;
+
+    @Value("${app.audit.purge.batch-size:5000}")
+    private int purgeBatchSize;
+
+    @Override
+    public void append(List<ActionLog> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, actionLog) -> {
+            ps.setLong(1, actionLog.getUserId());
+            ps.setString(2, actionLog.getUserEmail());
+            ps.setString(3, actionLog.getAction());
+            ps.setString(4, actionLog.getDetails());
+            ps.setTimestamp(5, Timestamp.valueOf(actionLog.getTimestamp()));
+            ps.setString(6, actionLog.getIpAddress());
+            ps.setObject(7, actionLog.getLatencyMs(), Types.BIGINT);
+        });
+    }
+
+    @Override
+    public List<ActionLog> findPage(Long userId, LocalDateTime from, LocalDateTime beforeTimestamp,
+                                    long beforeId, String action, int limit) {
+        PageRequest pageRequest = PageRequest.of(0, limit);
+        return userId == null
+                ? actionLogRepository.findPage(from, beforeTimestamp, beforeId, action, pageRequest)
+                : actionLogRepository.findPageByUserId(userId, from, beforeTimestamp, beforeId, action, pageRequest);
+    }
+
+    /**
+     * Remove em lotes de app.audit.purge.batch-size linhas, cada um em sua própria
+     * transação curta.
+     */
+    @Override
+    public int purgeBefore(LocalDateTime cutoff) {
+        int total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(PURGE_SQL, Timestamp.valueOf(cutoff), purgeBatchSize);
+            total += deleted;
+        } while (deleted == purgeBatchSize);
+        return total;
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        return Map.of("type", "jdbc");
+    }
+}
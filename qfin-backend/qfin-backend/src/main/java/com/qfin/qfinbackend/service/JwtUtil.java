@@ -1,13 +1,22 @@
 package com.qfin.qfinbackend.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.function.Function;
 
 @Component
@@ -16,25 +25,84 @@ public class JwtUtil {
     private static final String SECRET_KEY = "mySecretKeyForJwtTokenGenerationWhichShouldBeLongEnough"; // In production, use environment variable
     private static final int JWT_EXPIRATION = 86400000; // 24 hours
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
-    }
+    // Chave e parser são imutáveis e thread-safe: construídos uma única vez
+    private final Key signingKey = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+
+    // 0 desativa o cache de tokens verificados
+    @Value("${app.jwt.verified-cache.max-entries:10000}")
+    private int verifiedCacheMaxEntries = 10000;
+
+    // Tokens já verificados, pelo SHA-256 (o token em si não fica guardado); LRU por acesso
+    private final LinkedHashMap<ByteBuffer, VerifiedToken> verified = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ByteBuffer, VerifiedToken> eldest) {
+            return size() > verifiedCacheMaxEntries;
+        }
+    };
 
     public String generateToken(String email) {
         return Jwts.builder()
                 .setSubject(email)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + JWT_EXPIRATION))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Verifica assinatura e expiração uma única vez. Um token já verificado e ainda não
+     * expirado é atendido pelo cache, sem refazer o HMAC. Lança ExpiredJwtException ou
+     * JwtException quando o token não é válido.
+     */
+    public VerifiedToken verify(String token) {
+        if (verifiedCacheMaxEntries <= 0) return parse(token);
+
+        ByteBuffer key = hash(token);
+        VerifiedToken cached;
+        synchronized (verified) {
+            cached = verified.get(key);
+        }
+        if (cached != null) {
+            if (!cached.isExpired(Instant.now())) return cached;
+            synchronized (verified) {
+                verified.remove(key);
+            }
+        }
+
+        // Token expirado cai aqui e o parser lança ExpiredJwtException
+        VerifiedToken parsed = parse(token);
+        if (parsed.expiresAt() != null) {
+            synchronized (verified) {
+                verified.put(key, parsed);
+            }
+        }
+        return parsed;
+    }
+
+    private VerifiedToken parse(String token) {
+        Claims claims = extractAllClaims(token);
+        return new VerifiedToken(
+                claims.getSubject(),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null);
+    }
+
+    private static ByteBuffer hash(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).subject();
     }
 
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        Instant expiresAt = verify(token).expiresAt();
+        return expiresAt != null ? Date.from(expiresAt) : null;
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -43,19 +111,15 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
     public Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        return verify(token).isExpired(Instant.now());
     }
 
     public Boolean validateToken(String token, String email) {
-        final String username = extractUsername(token);
-        return (username.equals(email) && !isTokenExpired(token));
+        VerifiedToken verifiedToken = verify(token);
+        return verifiedToken.subject().equals(email) && !verifiedToken.isExpired(Instant.now());
     }
 }
@@ -0,0 +1,255 @@
+package com.qfin.qfinbackend.service;
+
+import com.qfin.qfinbackend.dto.DashboardDTO;
+import com.qfin.qfinbackend.dto.DashboardTransactionDTO;
+import com.qfin.qfinbackend.repository.NotificationRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Atualizações do dashboard em tempo real via Server-Sent Events. As conexões ficam em
+ * requisições assíncronas (SseEmitter), sem thread presa por cliente ocioso. Quando os
+ * dados de um usuário com conexões abertas mudam, o dashboard é recalculado uma vez e
+ * cada conexão recebe apenas as diferenças em relação ao último estado enviado a ela:
+ * - "balance": totais e a variação do saldo;
+ * - "transactions": transações que entraram entre as recentes;
+ * - "notifications": quantidade de notificações não lidas.
+ */
+@Service
+public class LiveUpdateService {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveUpdateService.class);
+
+    // Uma conexão e o último estado enviado a ela (null até o estado inicial ser enviado)
+    private static class Connection {
+        private final SseEmitter emitter;
+        private DashboardDTO lastDashboard;
+        private long lastUnreadCount;
+
+        private Connection(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+
+    // Conexões abertas de um usuário
+    private static class Subscription {
+        private final List<Connection> connections = new CopyOnWriteArrayList<>();
+    }
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Value("${app.live.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${app.live.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+
+    @Value("${app.live.workers:2}")
+    private int workers;
+
+    private final Map<Long, Subscription> subscriptions = new ConcurrentHashMap<>();
+
+    // Usuários com envio pendente: várias alterações seguidas geram um único recálculo
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1000),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "live-update-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        subscriptions.values().forEach(subscription ->
+                subscription.connections.forEach(connection -> connection.emitter.complete()));
+    }
+
+    /**
+     * Abre uma conexão para o usuário e envia o estado atual completo ("dashboard" e
+     * "notifications"). Acima do limite de conexões, a mais antiga é encerrada.
+     */
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Connection connection = new Connection(emitter);
+        List<Connection> evicted = new ArrayList<>();
+        // Inclusão atômica com a remoção de assinaturas vazias em remove()
+        subscriptions.compute(userId, (id, subscription) -> {
+            Subscription current = subscription != null ? subscription : new Subscription();
+            current.connections.add(connection);
+            while (current.connections.size() > maxConnectionsPerUser) {
+                evicted.add(current.connections.remove(0));
+            }
+            return current;
+        });
+        evicted.forEach(old -> old.emitter.complete());
+
+        emitter.onCompletion(() -> remove(userId, connection));
+        emitter.onTimeout(() -> remove(userId, connection));
+        emitter.onError(e -> remove(userId, connection));
+
+        // push() ignora a conexão até o estado inicial ser enviado e registrado
+        synchronized (connection) {
+            DashboardDTO dashboard = dashboardService.getDashboardData(userId);
+            long unreadCount = notificationRepository.countByUserIdAndIsReadFalse(userId);
+            try {
+                emitter.send(SseEmitter.event().name("dashboard").data(dashboard));
+                emitter.send(SseEmitter.event().name("notifications").data(Map.of("unreadCount", unreadCount)));
+                connection.lastDashboard = dashboard;
+                connection.lastUnreadCount = unreadCount;
+            } catch (IOException e) {
+                emitter.completeWithError(e);
+            }
+        }
+        return emitter;
+    }
+
+    public int getConnectionCount() {
+        return subscriptions.values().stream().mapToInt(subscription -> subscription.connections.size()).sum();
+    }
+
+    // Executa após o commit (ou imediatamente, fora de transação), para ler os dados já gravados
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDataChanged(UserDataChangedEvent event) {
+        Long userId = event.userId();
+        if (!subscriptions.containsKey(userId) || !pending.add(userId)) return;
+        try {
+            executor.execute(() -> {
+                pending.remove(userId);
+                push(userId);
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(userId);
+            log.warn("Fila de atualizações em tempo real cheia; envio ao usuário {} descartado", userId);
+        }
+    }
+
+    private void push(Long userId) {
+        Subscription subscription = subscriptions.get(userId);
+        if (subscription == null || subscription.connections.isEmpty()) return;
+
+        // Envios do mesmo usuário em ordem, mesmo com mais de um worker
+        synchronized (subscription) {
+            DashboardDTO current = dashboardService.getDashboardData(userId);
+            long unreadCount = notificationRepository.countByUserIdAndIsReadFalse(userId);
+            for (Connection connection : subscription.connections) {
+                synchronized (connection) {
+                    if (connection.lastDashboard == null) continue;
+                    pushDelta(userId, connection, current, unreadCount);
+                }
+            }
+        }
+    }
+
+    private void pushDelta(Long userId, Connection connection, DashboardDTO current, long unreadCount) {
+        try {
+            Map<String, Object> balance = balanceDelta(connection.lastDashboard, current);
+            if (balance != null) {
+                connection.emitter.send(SseEmitter.event().name("balance").data(balance));
+            }
+            List<DashboardTransactionDTO> added = newTransactions(connection.lastDashboard, current);
+            if (!added.isEmpty()) {
+                connection.emitter.send(SseEmitter.event().name("transactions").data(added));
+            }
+            if (unreadCount != connection.lastUnreadCount) {
+                connection.emitter.send(SseEmitter.event().name("notifications").data(Map.of("unreadCount", unreadCount)));
+            }
+            connection.lastDashboard = current;
+            connection.lastUnreadCount = unreadCount;
+        } catch (IOException | IllegalStateException e) {
+            remove(userId, connection);
+        }
+    }
+
+    /**
+     * Totais atuais e variação do saldo; null quando nenhum total mudou.
+     */
+    static Map<String, Object> balanceDelta(DashboardDTO previous, DashboardDTO current) {
+        if (previous != null
+                && previous.getTotalIncome() == current.getTotalIncome()
+                && previous.getTotalExpenses() == current.getTotalExpenses()) {
+            return null;
+        }
+        double previousBalance = previous != null ? previous.getTotalBalance() : 0.0;
+        return Map.of(
+                "totalIncome", current.getTotalIncome(),
+                "totalExpenses", current.getTotalExpenses(),
+                "totalBalance", current.getTotalBalance(),
+                "delta", current.getTotalBalance() - previousBalance
+        );
+    }
+
+    /**
+     * Transações recentes que não estavam no último estado enviado.
+     */
+    static List<DashboardTransactionDTO> newTransactions(DashboardDTO previous, DashboardDTO current) {
+        if (previous == null) return current.getRecentTransactions();
+        Set<Long> known = previous.getRecentTransactions().stream()
+                .map(DashboardTransactionDTO::getId)
+                .collect(Collectors.toSet());
+        return current.getRecentTransactions().stream()
+                .filter(transaction -> !known.contains(transaction.getId()))
+                .toList();
+    }
+
+    // Comentário periódico: mantém proxies abertos e detecta conexões encerradas pelo cliente
+    @Scheduled(fixedDelayString = "${app.live.heartbeat-ms:25000}")
+    public void heartbeat() {
+        subscriptions.forEach((userId, subscription) ->
+                broadcast(userId, subscription, () -> SseEmitter.event().comment("ping")));
+    }
+
+    // Um evento novo por conexão: o SseEventBuilder acumula dados a cada build() e não pode ser reaproveitado
+    private void broadcast(Long userId, Subscription subscription, Supplier<SseEmitter.SseEventBuilder> event) {
+        for (Connection connection : subscription.connections) {
+            try {
+                connection.emitter.send(event.get());
+            } catch (IOException | IllegalStateException e) {
+                remove(userId, connection);
+            }
+        }
+    }
+
+    private void remove(Long userId, Connection connection) {
+        subscriptions.computeIfPresent(userId, (id, subscription) -> {
+            subscription.connections.remove(connection);
+            return subscription.connections.isEmpty() ? null : subscription;
+        });
+    }
+}
@@ -33,6 +33,9 @@ public class MultiCurrencyService {
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    private DashboardCache dashboardCache;
+
     @PostConstruct
     public void initDefaultRates() {
         createRateIfNotExists("USD", 5.20);
@@ -73,6 +76,9 @@ public class MultiCurrencyService {
         }
         MultiCurrencyTransaction saved = multiCurrencyTransactionRepository.save(transaction);
         upsertMirrorTransaction(saved);
+        if (saved.getUser() != null) {
+            dashboardCache.invalidate(saved.getUser().getId());
+        }
         return saved;
     }
 
@@ -90,6 +96,7 @@ public class MultiCurrencyService {
                     transaction.setAmountInBaseCurrency(details.getAmount() * rate);
                     MultiCurrencyTransaction saved = multiCurrencyTransactionRepository.save(transaction);
                     upsertMirrorTransaction(saved);
+                    dashboardCache.invalidate(user.getId());
                     return saved;
                 }).orElse(null);
     }
@@ -99,6 +106,7 @@ public class MultiCurrencyService {
                 .ifPresent(transaction -> {
                     deleteMirrorTransaction(transaction);
                     multiCurrencyTransactionRepository.delete(transaction);
+                    dashboardCache.invalidate(user.getId());
                 });
     }
 
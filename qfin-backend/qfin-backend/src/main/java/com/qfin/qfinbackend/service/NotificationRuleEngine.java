@@ -0,0 +1,286 @@
+package com.qfin.qfinbackend.service;
+
+import com.qfin.qfinbackend.model.Notification.NotificationPriority;
+import com.qfin.qfinbackend.model.Notification.NotificationType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Gera as notificações automáticas uma vez por noite. Os usuários são percorridos em
+ * páginas de page-size ids; para cada página, cada regra é uma única consulta agrupada
+ * sobre o intervalo de ids (sem consultas por usuário) e as notificações novas são
+ * inseridas em lote via JDBC. Regras:
+ * - BILL: despesas recorrentes ativas que vencem nos próximos reminderDays dias;
+ * - GOAL: metas em andamento atingidas ou com prazo nos próximos goal-deadline-days dias;
+ * - BUDGET: categoria com gasto no mês acima de budget-threshold vezes a média mensal dos
+ *   três meses anteriores (não há orçamento cadastrado; a média faz esse papel);
+ * - SUSPICIOUS: despesa do último dia acima de suspicious-multiplier vezes a despesa média
+ *   do usuário nos últimos 90 dias.
+ * Cada alerta tem uma chave (ruleKey) única por usuário, para não se repetir nas noites seguintes.
+ * As preferências de NotificationSettings são respeitadas; usuários sem configuração usam os padrões.
+ */
+@Service
+public class NotificationRuleEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationRuleEngine.class);
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final int MAX_REMINDER_DAYS = 30;
+    private static final int DEFAULT_REMINDER_DAYS = 3;
+
+    private static final String USERS_SQL = "SELECT id FROM users WHERE id > ? ORDER BY id LIMIT ?";
+
+    // Sem linha em notification_settings valem os padrões da entidade (tudo habilitado)
+    private static final String SETTINGS_JOIN =
+            " LEFT JOIN notification_settings s ON s.user_id = %1$s.user_id" +
+            " WHERE %1$s.user_id BETWEEN ? AND ? AND COALESCE(s.in_app_notifications, TRUE) AND COALESCE(s.%2$s, TRUE)";
+
+    private static final String BILLS_SQL =
+            "SELECT r.id, r.user_id, r.name, r.amount, r.next_processing, COALESCE(s.reminder_days, " + DEFAULT_REMINDER_DAYS + ")" +
+            " FROM recurring_transactions r" + SETTINGS_JOIN.formatted("r", "bill_reminders") +
+            " AND r.is_active = TRUE AND r.type = 'EXPENSE' AND r.next_processing BETWEEN ? AND ?" +
+            " AND (r.end_date IS NULL OR r.next_processing <= r.end_date)";
+
+    private static final String GOALS_SQL =
+            "SELECT g.id, g.user_id, g.name, g.target_amount, g.current_amount, g.deadline" +
+            " FROM goals g" + SETTINGS_JOIN.formatted("g", "goal_updates") +
+            " AND g.status = 'IN_PROGRESS' AND (g.current_amount >= g.target_amount OR g.deadline BETWEEN ? AND ?)";
+
+    private static final String BUDGET_SQL =
+            "SELECT t.user_id, t.category," +
+            " SUM(CASE WHEN t.date >= ? THEN t.amount ELSE 0 END)," +
+            " SUM(CASE WHEN t.date < ? THEN t.amount ELSE 0 END) / 3" +
+            " FROM transaction t" + SETTINGS_JOIN.formatted("t", "budget_alerts") +
+            " AND t.type = 'EXPENSE' AND t.date BETWEEN ? AND ?" +
+            " GROUP BY t.user_id, t.category";
+
+    private static final String SUSPICIOUS_SQL =
+            "SELECT t.id, t.user_id, t.amount, t.category, t.date, b.average" +
+            " FROM transaction t" +
+            " JOIN (SELECT user_id, AVG(amount) AS average, COUNT(*) AS total FROM transaction" +
+            "       WHERE user_id BETWEEN ? AND ? AND type = 'EXPENSE' AND date >= ? AND date < ?" +
+            "       GROUP BY user_id) b ON b.user_id = t.user_id" +
+            SETTINGS_JOIN.formatted("t", "suspicious_activity") +
+            " AND t.type = 'EXPENSE' AND t.date >= ? AND b.total >= ? AND t.amount >= ? AND t.amount > b.average * ?";
+
+    private static final String EXISTING_KEYS_SQL =
+            "SELECT user_id, rule_key FROM notifications WHERE user_id BETWEEN :first AND :last AND rule_key IN (:keys)";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO notifications (type, title, description, date, is_read, priority, user_id, rule_key)" +
+            " VALUES (?, ?, ?, ?, FALSE, ?, ?, ?)";
+
+    record Alert(Long userId, String ruleKey, NotificationType type, NotificationPriority priority,
+                 String title, String description) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.notifications.rules.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.notifications.rules.page-size:500}")
+    private int pageSize;
+
+    @Value("${app.notifications.rules.insert-batch-size:500}")
+    private int insertBatchSize;
+
+    @Value("${app.notifications.rules.goal-deadline-days:7}")
+    private int goalDeadlineDays;
+
+    @Value("${app.notifications.rules.budget-threshold:1.2}")
+    private double budgetThreshold;
+
+    @Value("${app.notifications.rules.budget-min-average:100}")
+    private double budgetMinAverage;
+
+    @Value("${app.notifications.rules.suspicious-multiplier:5}")
+    private double suspiciousMultiplier;
+
+    @Value("${app.notifications.rules.suspicious-min-amount:500}")
+    private double suspiciousMinAmount;
+
+    @Value("${app.notifications.rules.suspicious-min-history:10}")
+    private int suspiciousMinHistory;
+
+    @Scheduled(cron = "${app.notifications.rules.cron:0 0 2 * * *}")
+    public void runNightly() {
+        if (enabled) {
+            evaluate(LocalDate.now());
+        }
+    }
+
+    /**
+     * Avalia todas as regras para todos os usuários na data informada e retorna quantas
+     * notificações foram criadas.
+     */
+    public int evaluate(LocalDate today) {
+        long start = System.nanoTime();
+        int created = 0;
+        int users = 0;
+        long lastId = 0;
+        while (true) {
+            List<Long> page = jdbcTemplate.queryForList(USERS_SQL, Long.class, lastId, pageSize);
+            if (page.isEmpty()) break;
+            long firstId = page.get(0);
+            lastId = page.get(page.size() - 1);
+            users += page.size();
+            created += evaluatePage(firstId, lastId, today);
+            if (page.size() < pageSize) break;
+        }
+        log.info("Regras de notificação avaliadas para {} usuários: {} notificações criadas em {} ms",
+                users, created, (System.nanoTime() - start) / 1_000_000);
+        return created;
+    }
+
+    private int evaluatePage(long firstId, long lastId, LocalDate today) {
+        List<Alert> alerts = new ArrayList<>();
+        alerts.addAll(billAlerts(firstId, lastId, today));
+        alerts.addAll(goalAlerts(firstId, lastId, today));
+        alerts.addAll(budgetAlerts(firstId, lastId, today));
+        alerts.addAll(suspiciousAlerts(firstId, lastId, today));
+        if (alerts.isEmpty()) return 0;
+
+        List<Alert> fresh = withoutExisting(firstId, lastId, alerts);
+        if (fresh.isEmpty()) return 0;
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, fresh, insertBatchSize, (ps, alert) -> {
+            ps.setString(1, alert.type().name());
+            ps.setString(2, alert.title());
+            ps.setString(3, alert.description());
+            ps.setTimestamp(4, now);
+            ps.setString(5, alert.priority().name());
+            ps.setLong(6, alert.userId());
+            ps.setString(7, alert.ruleKey());
+        });
+
+        // Contadores de não lidas abertos via SSE
+        Set<Long> notifiedUsers = new TreeSet<>();
+        fresh.forEach(alert -> notifiedUsers.add(alert.userId()));
+        notifiedUsers.forEach(userId -> eventPublisher.publishEvent(new UserDataChangedEvent(userId)));
+        return fresh.size();
+    }
+
+    private List<Alert> billAlerts(long firstId, long lastId, LocalDate today) {
+        List<Alert> alerts = new ArrayList<>();
+        jdbcTemplate.query(BILLS_SQL, rs -> {
+            LocalDate due = rs.getDate(5).toLocalDate();
+            int reminderDays = Math.min(Math.max(rs.getInt(6), 0), MAX_REMINDER_DAYS);
+            if (due.isAfter(today.plusDays(reminderDays))) return;
+            long daysLeft = ChronoUnit.DAYS.between(today, due);
+            String when = daysLeft == 0 ? "hoje" : daysLeft == 1 ? "amanhã" : "em " + daysLeft + " dias";
+            alerts.add(new Alert(rs.getLong(2), "BILL:" + rs.getLong(1) + ":" + due,
+                    NotificationType.BILL, daysLeft <= 1 ? NotificationPriority.HIGH : NotificationPriority.MEDIUM,
+                    "Conta a vencer: " + rs.getString(3),
+                    String.format("%s de R$ %.2f vence %s (%s).",
+                            rs.getString(3), rs.getDouble(4), when, due.format(DATE_FORMAT))));
+        }, firstId, lastId, Date.valueOf(today), Date.valueOf(today.plusDays(MAX_REMINDER_DAYS)));
+        return alerts;
+    }
+
+    private List<Alert> goalAlerts(long firstId, long lastId, LocalDate today) {
+        List<Alert> alerts = new ArrayList<>();
+        jdbcTemplate.query(GOALS_SQL, rs -> {
+            long goalId = rs.getLong(1);
+            String name = rs.getString(3);
+            double target = rs.getDouble(4);
+            double current = rs.getDouble(5);
+            LocalDate deadline = rs.getDate(6).toLocalDate();
+            if (current >= target) {
+                alerts.add(new Alert(rs.getLong(2), "GOAL_REACHED:" + goalId,
+                        NotificationType.GOAL, NotificationPriority.LOW,
+                        "Meta atingida: " + name,
+                        String.format("Você alcançou R$ %.2f de R$ %.2f na meta %s.", current, target, name)));
+            } else {
+                alerts.add(new Alert(rs.getLong(2), "GOAL_DEADLINE:" + goalId + ":" + deadline,
+                        NotificationType.GOAL, NotificationPriority.MEDIUM,
+                        "Prazo da meta se aproximando: " + name,
+                        String.format("Faltam R$ %.2f para a meta %s, com prazo em %s.",
+                                target - current, name, deadline.format(DATE_FORMAT))));
+            }
+        }, firstId, lastId, Date.valueOf(today), Date.valueOf(today.plusDays(goalDeadlineDays)));
+        return alerts;
+    }
+
+    private List<Alert> budgetAlerts(long firstId, long lastId, LocalDate today) {
+        LocalDate monthStart = today.withDayOfMonth(1);
+        LocalDate baselineStart = monthStart.minusMonths(3);
+        String month = monthStart.toString().substring(0, 7);
+        List<Alert> alerts = new ArrayList<>();
+        jdbcTemplate.query(BUDGET_SQL, rs -> {
+            double spent = rs.getDouble(3);
+            double average = rs.getDouble(4);
+            if (average < budgetMinAverage || spent <= average * budgetThreshold) return;
+            String category = rs.getString(2);
+            alerts.add(new Alert(rs.getLong(1), "BUDGET:" + category + ":" + month,
+                    NotificationType.BUDGET, NotificationPriority.HIGH,
+                    "Gastos acima do normal em " + category,
+                    String.format("Você já gastou R$ %.2f em %s este mês; a média mensal é de R$ %.2f.",
+                            spent, category, average)));
+        }, Date.valueOf(monthStart), Date.valueOf(monthStart), firstId, lastId,
+                Date.valueOf(baselineStart), Date.valueOf(today));
+        return alerts;
+    }
+
+    private List<Alert> suspiciousAlerts(long firstId, long lastId, LocalDate today) {
+        LocalDate since = today.minusDays(1);
+        List<Alert> alerts = new ArrayList<>();
+        jdbcTemplate.query(SUSPICIOUS_SQL, rs -> {
+            LocalDate date = rs.getDate(5).toLocalDate();
+            alerts.add(new Alert(rs.getLong(2), "SUSPICIOUS:" + rs.getLong(1),
+                    NotificationType.SUSPICIOUS, NotificationPriority.HIGH,
+                    "Despesa fora do padrão",
+                    String.format("Despesa de R$ %.2f em %s no dia %s, bem acima da sua média de R$ %.2f.",
+                            rs.getDouble(3), rs.getString(4), date.format(DATE_FORMAT), rs.getDouble(6))));
+        }, firstId, lastId, Date.valueOf(today.minusDays(90)), Date.valueOf(since),
+                firstId, lastId, Date.valueOf(since), suspiciousMinHistory, suspiciousMinAmount, suspiciousMultiplier);
+        return alerts;
+    }
+
+    // Descarta os alertas já gerados em noites anteriores (mesmo usuário e ruleKey)
+    private List<Alert> withoutExisting(long firstId, long lastId, List<Alert> alerts) {
+        Map<String, Alert> byKey = new LinkedHashMap<>();
+        alerts.forEach(alert -> byKey.putIfAbsent(alert.userId() + "|" + alert.ruleKey(), alert));
+
+        List<String> ruleKeys = new ArrayList<>(new HashSet<>(alerts.stream().map(Alert::ruleKey).toList()));
+        for (int i = 0; i < ruleKeys.size(); i += insertBatchSize) {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("first", firstId)
+                    .addValue("last", lastId)
+                    .addValue("keys", ruleKeys.subList(i, Math.min(i + insertBatchSize, ruleKeys.size())));
+            namedParameterJdbcTemplate.query(EXISTING_KEYS_SQL, params,
+                    rs -> { byKey.remove(rs.getLong(1) + "|" + rs.getString(2)); });
+        }
+        return new ArrayList<>(byKey.values());
+    }
+}
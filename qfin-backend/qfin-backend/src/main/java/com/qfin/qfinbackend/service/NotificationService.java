@@ -6,6 +6,7 @@ import com.qfin.qfinbackend.model.User;
 import com.qfin.qfinbackend.repository.NotificationRepository;
 import com.qfin.qfinbackend.repository.NotificationSettingsRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -20,6 +21,9 @@ public class NotificationService {
     @Autowired
     private NotificationSettingsRepository settingsRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public List<Notification> getNotificationsByUser(User user) {
         return notificationRepository.findByUserOrderByDateDesc(user);
     }
@@ -33,14 +37,20 @@ public class NotificationService {
     }
 
     public Notification createNotification(Notification notification) {
-        return notificationRepository.save(notification);
+        Notification saved = notificationRepository.save(notification);
+        if (saved.getUser() != null) {
+            eventPublisher.publishEvent(new UserDataChangedEvent(saved.getUser().getId()));
+        }
+        return saved;
     }
 
     public Notification markAsRead(Long id, User user) {
         return notificationRepository.findByIdAndUser(id, user)
                 .map(notification -> {
                     notification.setIsRead(true);
-                    return notificationRepository.save(notification);
+                    Notification saved = notificationRepository.save(notification);
+                    eventPublisher.publishEvent(new UserDataChangedEvent(user.getId()));
+                    return saved;
                 }).orElse(null);
     }
 
@@ -48,11 +58,15 @@ public class NotificationService {
         List<Notification> unread = notificationRepository.findByUserAndIsReadFalseOrderByDateDesc(user);
         unread.forEach(n -> n.setIsRead(true));
         notificationRepository.saveAll(unread);
+        eventPublisher.publishEvent(new UserDataChangedEvent(user.getId()));
     }
 
     public void deleteNotification(Long id, User user) {
         notificationRepository.findByIdAndUser(id, user)
-                .ifPresent(notificationRepository::delete);
+                .ifPresent(notification -> {
+                    notificationRepository.delete(notification);
+                    eventPublisher.publishEvent(new UserDataChangedEvent(user.getId()));
+                });
     }
 
     // Settings
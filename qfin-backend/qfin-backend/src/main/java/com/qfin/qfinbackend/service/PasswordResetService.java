@@ -33,6 +33,9 @@ public class PasswordResetService {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
     @Value("${app.frontend.url:http://localhost:5173}")
     private String frontendUrl;
 
@@ -41,7 +44,7 @@ public class PasswordResetService {
 
     /**
      * Gera um token de recuperação, envia o link por email e retorna o token
-     * apenas quando o email não pôde ser enviado e o modo dev está ativo
+     * apenas quando não há SMTP configurado e o modo dev está ativo
      * (para facilitar testes locais). Em produção retorna null.
      */
     @Transactional
@@ -65,10 +68,11 @@ public class PasswordResetService {
         String resetLink = frontendUrl + "/?resetToken=" +
                 URLEncoder.encode(token, StandardCharsets.UTF_8);
 
-        boolean sent = emailService.sendPasswordResetEmail(email, resetLink);
+        // Vai para a outbox nesta mesma transação; o envio SMTP acontece depois do commit
+        emailService.sendPasswordResetEmail(email, resetLink);
 
         // Em modo dev (sem SMTP), devolve o token para facilitar testes locais
-        if (!sent && devMode) {
+        if (devMode && !emailService.isSmtpConfigured()) {
             return token;
         }
         return null;
@@ -94,6 +98,7 @@ public class PasswordResetService {
 
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        userDetailsCache.invalidate(user.getEmail());
 
         resetToken.setUsed(true);
         tokenRepository.save(resetToken);
@@ -21,6 +21,9 @@ public class PaymentService {
     @Autowired
     private FinancingRepository financingRepository;
 
+    @Autowired
+    private DashboardCache dashboardCache;
+
     public List<Payment> getPaymentsByFinancing(Long financingId, User user) {
         Optional<Financing> financing = financingRepository.findById(financingId);
         if (financing.isPresent() && financing.get().getUser().getId().equals(user.getId())) {
@@ -50,6 +53,7 @@ public class PaymentService {
         }
         financing.setRemainingAmount(newRemainingAmount);
         financingRepository.save(financing);
+        dashboardCache.invalidate(user.getId());
         
         // Salvar o pagamento
         payment.setFinancing(financing);
@@ -71,6 +75,7 @@ public class PaymentService {
                 }
                 financing.setRemainingAmount(newRemainingAmount);
                 financingRepository.save(financing);
+                dashboardCache.invalidate(user.getId());
                 
                 // Deletar o pagamento
                 paymentRepository.delete(payment);
@@ -0,0 +1,325 @@
+package com.qfin.qfinbackend.service;
+
+import com.qfin.qfinbackend.model.ProfileImage;
+import com.qfin.qfinbackend.repository.ProfileImageRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Fotos de perfil em disco local, como bytes crus endereçados pelo SHA-256 do conteúdo.
+ * A miniatura (JPEG) é gerada no upload; arquivos só são removidos quando nenhum usuário
+ * referencia mais o conteúdo.
+ */
+@Service
+public class ProfileImageService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProfileImageService.class);
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final String URL_PREFIX = "/api/profile-images/";
+
+    public record StoredImage(Path path, String contentType, long size) {
+    }
+
+    // Imagem já reduzida por subamostragem, só o suficiente para a miniatura
+    private record DecodedImage(String contentType, BufferedImage image) {
+    }
+
+    @Autowired
+    private ProfileImageRepository profileImageRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Única cópia das fotos: o padrão fica no diretório da aplicação, não no temporário do sistema
+    @Value("${app.profile-images.dir:./data/profile-images}")
+    private String directory;
+
+    @Value("${app.profile-images.max-bytes:5242880}")
+    private long maxBytes;
+
+    // Limite de largura e altura lido do cabeçalho, antes de decodificar os pixels
+    @Value("${app.profile-images.max-dimension:4096}")
+    private int maxDimension;
+
+    @Value("${app.profile-images.thumbnail-size:128}")
+    private int thumbnailSize;
+
+    private Path root;
+
+    @PostConstruct
+    public void init() throws IOException {
+        root = Paths.get(directory).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+        Path tmp = Paths.get(System.getProperty("java.io.tmpdir")).toAbsolutePath().normalize();
+        if (root.startsWith(tmp)) {
+            log.warn("Fotos de perfil em diretório temporário ({}); podem ser apagadas pelo sistema. " +
+                    "Configure PROFILE_IMAGES_DIR com um diretório persistente", root);
+        }
+    }
+
+    /**
+     * Recebe a imagem como data URL ("data:image/png;base64,...") ou base64 puro, valida
+     * o formato pelo conteúdo e substitui a foto atual do usuário.
+     */
+    @Transactional
+    public ProfileImage store(Long userId, String base64Image) {
+        if (base64Image == null || base64Image.isBlank()) {
+            throw new RuntimeException("Imagem é obrigatória");
+        }
+        String payload = base64Image.startsWith("data:")
+                ? base64Image.substring(base64Image.indexOf(',') + 1)
+                : base64Image;
+        byte[] bytes;
+        try {
+            bytes = Base64.getMimeDecoder().decode(payload);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Imagem inválida");
+        }
+        if (bytes.length == 0) {
+            throw new RuntimeException("Imagem inválida");
+        }
+        if (bytes.length > maxBytes) {
+            throw new RuntimeException("A imagem deve ter no máximo " + (maxBytes / (1024 * 1024)) + "MB");
+        }
+
+        DecodedImage decoded = decode(bytes);
+        String contentType = decoded.contentType();
+
+        String hash = sha256(bytes);
+        byte[] thumbnail = thumbnail(decoded.image());
+        try {
+            writeIfAbsent(path(hash, false), bytes);
+            writeIfAbsent(path(hash, true), thumbnail);
+        } catch (IOException e) {
+            throw new IllegalStateException("Falha ao gravar a foto de perfil", e);
+        }
+
+        ProfileImage profileImage = profileImageRepository.findByUserId(userId).orElseGet(ProfileImage::new);
+        String previousHash = profileImage.getContentHash();
+        profileImage.setUserId(userId);
+        profileImage.setContentHash(hash);
+        profileImage.setContentType(contentType);
+        profileImage.setSizeBytes((long) bytes.length);
+        profileImage.setThumbnailSizeBytes((long) thumbnail.length);
+        profileImage.setUpdatedAt(LocalDateTime.now());
+        ProfileImage saved = profileImageRepository.save(profileImage);
+
+        if (previousHash != null && !previousHash.equals(hash)) {
+            deleteFilesWhenUnused(previousHash);
+        }
+        return saved;
+    }
+
+    @Transactional
+    public void delete(Long userId) {
+        profileImageRepository.findByUserId(userId).ifPresent(profileImage -> {
+            profileImageRepository.delete(profileImage);
+            deleteFilesWhenUnused(profileImage.getContentHash());
+        });
+    }
+
+    public Optional<ProfileImage> findByUserId(Long userId) {
+        return profileImageRepository.findByUserId(userId);
+    }
+
+    public Optional<StoredImage> find(String hash, boolean thumbnail) {
+        if (hash == null || !HASH.matcher(hash).matches()) return Optional.empty();
+        return profileImageRepository.findFirstByContentHash(hash)
+                .map(profileImage -> thumbnail
+                        ? new StoredImage(path(hash, true), "image/jpeg", profileImage.getThumbnailSizeBytes())
+                        : new StoredImage(path(hash, false), profileImage.getContentType(), profileImage.getSizeBytes()))
+                .filter(stored -> Files.isRegularFile(stored.path()));
+    }
+
+    public String imageUrl(ProfileImage profileImage) {
+        return URL_PREFIX + profileImage.getContentHash();
+    }
+
+    public String thumbnailUrl(ProfileImage profileImage) {
+        return URL_PREFIX + profileImage.getContentHash() + "/thumbnail";
+    }
+
+    /**
+     * Move as imagens da antiga coluna users.profile_image_base64 (bancos criados antes
+     * desta tabela) para o armazenamento em disco, um usuário por vez. Cada usuário roda em
+     * uma transação própria (a chamada interna não passa pelo proxy de {@link #store}), que
+     * grava a imagem e limpa a coluna juntas; as que falharem ficam para a próxima inicialização.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateLegacyImages() {
+        List<Long> userIds;
+        try {
+            userIds = jdbcTemplate.queryForList(
+                    "SELECT id FROM users WHERE profile_image_base64 IS NOT NULL", Long.class);
+        } catch (DataAccessException e) {
+            // Banco novo: a coluna não existe
+            return;
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int migrated = 0;
+        for (Long userId : userIds) {
+            try {
+                transaction.executeWithoutResult(status -> {
+                    String base64Image = jdbcTemplate.queryForObject(
+                            "SELECT profile_image_base64 FROM users WHERE id = ?", String.class, userId);
+                    store(userId, base64Image);
+                    jdbcTemplate.update("UPDATE users SET profile_image_base64 = NULL WHERE id = ?", userId);
+                });
+            } catch (RuntimeException e) {
+                log.warn("Foto de perfil do usuário {} não migrada, mantida em users para nova tentativa: {}",
+                        userId, e.getMessage());
+                continue;
+            }
+            migrated++;
+        }
+        if (!userIds.isEmpty()) {
+            log.info("{} de {} fotos de perfil migradas para {}", migrated, userIds.size(), root);
+        }
+    }
+
+    /**
+     * Identifica o formato pelo conteúdo e confere as dimensões declaradas no cabeçalho antes
+     * de decodificar: alguns KB de PNG podem declarar 50000x50000 pixels, gigabytes em memória.
+     * Os pixels são lidos com subamostragem, só o necessário para a miniatura.
+     */
+    private DecodedImage decode(byte[] bytes) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                throw new RuntimeException("Formato de imagem não suportado");
+            }
+            ImageReader reader = readers.next();
+            try {
+                String[] mimeTypes = reader.getOriginatingProvider().getMIMETypes();
+                if (mimeTypes == null || mimeTypes.length == 0) {
+                    throw new RuntimeException("Formato de imagem não suportado");
+                }
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if (width <= 0 || height <= 0) {
+                    throw new RuntimeException("Formato de imagem não suportado");
+                }
+                if (width > maxDimension || height > maxDimension) {
+                    throw new RuntimeException("A imagem deve ter no máximo " + maxDimension + "x" + maxDimension + " pixels");
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, Math.max(width, height) / thumbnailSize);
+                param.setSourceSubsampling(step, step, 0, 0);
+                return new DecodedImage(mimeTypes[0], reader.read(0, param));
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Formato de imagem não suportado");
+        }
+    }
+
+    // Reduz para caber em thumbnailSize x thumbnailSize, sem ampliar; fundo branco para o JPEG
+    private byte[] thumbnail(BufferedImage image) {
+        double scale = Math.min(1.0, (double) thumbnailSize / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+
+        BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = thumbnail.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(thumbnail, "jpg", out);
+        } catch (IOException e) {
+            throw new IllegalStateException("Falha ao gerar a miniatura", e);
+        }
+        return out.toByteArray();
+    }
+
+    private void writeIfAbsent(Path target, byte[] bytes) throws IOException {
+        if (Files.exists(target)) return;
+        Path partial = target.resolveSibling(target.getFileName() + ".part");
+        Files.write(partial, bytes);
+        Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Os arquivos só saem do disco depois do commit: num rollback (inclusive da transação de
+     * quem chamou) a linha volta a apontar para o hash anterior, que precisa continuar lá.
+     * Sempre chamado dentro de transação; sem ela registerSynchronization falha.
+     */
+    private void deleteFilesWhenUnused(String hash) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (profileImageRepository.existsByContentHash(hash)) return;
+                try {
+                    Files.deleteIfExists(path(hash, false));
+                    Files.deleteIfExists(path(hash, true));
+                } catch (IOException e) {
+                    log.warn("Falha ao remover foto de perfil {}: {}", hash, e.getMessage());
+                }
+            }
+        });
+    }
+
+    private Path path(String hash, boolean thumbnail) {
+        return root.resolve(thumbnail ? hash + ".thumb.jpg" : hash);
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
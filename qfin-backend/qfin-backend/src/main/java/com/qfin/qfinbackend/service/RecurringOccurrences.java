@@ -0,0 +1,157 @@
+package com.qfin.qfinbackend.service;
+
+import com.qfin.qfinbackend.model.RecurringTransaction;
+import com.qfin.qfinbackend.model.RecurringTransaction.Frequency;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Ocorrências de uma recorrência dentro de um período, calculadas em forma fechada: a
+ * k-ésima data a partir de nextProcessing é obtida diretamente pela frequência, sem
+ * percorrer as datas intermediárias. Reproduz as regras de avanço usadas pelo
+ * processamento das recorrências (dayOfMonth limitado ao tamanho do mês, endDate da
+ * recorrência como limite).
+ */
+final class RecurringOccurrences {
+
+    private final RecurringTransaction recurring;
+    private final LocalDate origin;
+    private final Frequency frequency;
+    // Índices da primeira ocorrência dentro do período e da primeira depois dele
+    private final long firstIndex;
+    private final long endIndex;
+
+    private RecurringOccurrences(RecurringTransaction recurring, LocalDate startDate, LocalDate endDate) {
+        this.recurring = recurring;
+        this.origin = recurring.getNextProcessing();
+        this.frequency = recurring.getFrequency() != null ? recurring.getFrequency() : Frequency.MONTHLY;
+
+        LocalDate hardEnd = recurring.getEndDate() != null && recurring.getEndDate().isBefore(endDate)
+                ? recurring.getEndDate()
+                : endDate;
+        if (origin == null || hardEnd.isBefore(startDate) || hardEnd.isBefore(origin)) {
+            this.firstIndex = 0;
+            this.endIndex = 0;
+        } else {
+            this.firstIndex = indexAtOrAfter(startDate);
+            this.endIndex = Math.max(firstIndex, indexAtOrAfter(hardEnd.plusDays(1)));
+        }
+    }
+
+    static RecurringOccurrences of(RecurringTransaction recurring, LocalDate startDate, LocalDate endDate) {
+        return new RecurringOccurrences(recurring, startDate, endDate);
+    }
+
+    RecurringTransaction recurring() {
+        return recurring;
+    }
+
+    long count() {
+        return endIndex - firstIndex;
+    }
+
+    /**
+     * Indica se a data é uma ocorrência dentro do período.
+     */
+    boolean contains(LocalDate date) {
+        if (count() == 0 || date == null) return false;
+        long index = indexAtOrAfter(date);
+        return index >= firstIndex && index < endIndex && occurrence(index).equals(date);
+    }
+
+    /**
+     * Percorre as ocorrências da mais recente para a mais antiga, calculando cada data
+     * apenas quando solicitada.
+     */
+    Iterator<LocalDate> newestFirst() {
+        return new Iterator<>() {
+            private long next = endIndex - 1;
+
+            @Override
+            public boolean hasNext() {
+                return next >= firstIndex;
+            }
+
+            @Override
+            public LocalDate next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return occurrence(next--);
+            }
+        };
+    }
+
+    /**
+     * Data da k-ésima ocorrência (k = 0 é nextProcessing). Equivale a aplicar k vezes o
+     * avanço da frequência.
+     */
+    LocalDate occurrence(long k) {
+        if (k == 0) return origin;
+        switch (frequency) {
+            case DAILY:
+                return origin.plusDays(k);
+            case WEEKLY:
+                return origin.plusWeeks(k);
+            case MONTHLY:
+                YearMonth month = YearMonth.from(origin).plusMonths(k);
+                Integer dayOfMonth = recurring.getDayOfMonth();
+                int day = dayOfMonth != null ? dayOfMonth : driftedDay(k);
+                return month.atDay(Math.min(day, month.lengthOfMonth()));
+            case YEARLY:
+                // Avançando ano a ano, 29/02 vira 28/02 e permanece assim
+                LocalDate date = origin.plusYears(k);
+                return origin.getMonth() == Month.FEBRUARY && origin.getDayOfMonth() == 29
+                        ? date.withDayOfMonth(28)
+                        : date;
+            default:
+                return origin.plusMonths(k);
+        }
+    }
+
+    /**
+     * Dia do mês após k avanços mensais sem dayOfMonth: cada plusMonths limita o dia ao
+     * tamanho do mês, então o dia é o menor entre o original e os tamanhos dos meses
+     * percorridos. Em 24 meses sempre há um fevereiro de 28 dias.
+     */
+    private int driftedDay(long k) {
+        int day = origin.getDayOfMonth();
+        if (day <= 28) return day;
+        if (k >= 24) return 28;
+        YearMonth month = YearMonth.from(origin);
+        for (long i = 1; i <= k; i++) {
+            day = Math.min(day, month.plusMonths(i).lengthOfMonth());
+        }
+        return day;
+    }
+
+    /**
+     * Menor índice cuja ocorrência é igual ou posterior à data. Parte de uma estimativa
+     * pela frequência e corrige em poucos passos.
+     */
+    private long indexAtOrAfter(LocalDate date) {
+        if (!date.isAfter(origin)) return 0;
+
+        long index;
+        switch (frequency) {
+            case DAILY:
+                index = ChronoUnit.DAYS.between(origin, date);
+                break;
+            case WEEKLY:
+                index = ChronoUnit.DAYS.between(origin, date) / 7;
+                break;
+            case YEARLY:
+                index = date.getYear() - origin.getYear();
+                break;
+            default:
+                index = ChronoUnit.MONTHS.between(YearMonth.from(origin), YearMonth.from(date));
+        }
+        index = Math.max(0, index);
+        while (occurrence(index).isBefore(date)) index++;
+        while (index > 0 && !occurrence(index - 1).isBefore(date)) index--;
+        return index;
+    }
+}
@@ -22,6 +22,9 @@ public class RecurringTransactionService {
     @Autowired
     private TransactionRepository transactionRepository;
 
+    @Autowired
+    private DashboardCache dashboardCache;
+
     public List<RecurringTransaction> getRecurringTransactionsByUser(User user) {
         return recurringRepository.findByUserOrderByNextProcessingAsc(user);
     }
@@ -35,7 +38,11 @@ public class RecurringTransactionService {
         if (recurring.getNextProcessing() == null) {
             recurring.setNextProcessing(calculateNextProcessing(recurring));
         }
-        return recurringRepository.save(recurring);
+        RecurringTransaction saved = recurringRepository.save(recurring);
+        if (saved.getUser() != null) {
+            dashboardCache.invalidate(saved.getUser().getId());
+        }
+        return saved;
     }
 
     public RecurringTransaction updateRecurringTransaction(Long id, RecurringTransaction details, User user) {
@@ -52,7 +59,9 @@ public class RecurringTransactionService {
                     recurring.setEndDate(details.getEndDate());
                     recurring.setAutoLaunch(details.getAutoLaunch());
                     recurring.setNextProcessing(calculateNextProcessing(recurring));
-                    return recurringRepository.save(recurring);
+                    RecurringTransaction saved = recurringRepository.save(recurring);
+                    dashboardCache.invalidate(user.getId());
+                    return saved;
                 }).orElse(null);
     }
 
@@ -60,13 +69,18 @@ public class RecurringTransactionService {
         return recurringRepository.findByIdAndUser(id, user)
                 .map(recurring -> {
                     recurring.setIsActive(!recurring.getIsActive());
-                    return recurringRepository.save(recurring);
+                    RecurringTransaction saved = recurringRepository.save(recurring);
+                    dashboardCache.invalidate(user.getId());
+                    return saved;
                 }).orElse(null);
     }
 
     public void deleteRecurringTransaction(Long id, User user) {
         recurringRepository.findByIdAndUser(id, user)
-                .ifPresent(recurringRepository::delete);
+                .ifPresent(recurring -> {
+                    recurringRepository.delete(recurring);
+                    dashboardCache.invalidate(user.getId());
+                });
     }
 
     // Process auto-launch recurring transactions daily
@@ -101,6 +115,7 @@ public class RecurringTransactionService {
             }
 
             recurringRepository.save(recurring);
+            dashboardCache.invalidate(recurring.getUser().getId());
         }
     }
 
@@ -0,0 +1,114 @@
+package com.qfin.qfinbackend.service;
+
+import com.qfin.qfinbackend.dto.CategorySummaryDTO;
+import com.qfin.qfinbackend.dto.ReportSummaryDTO;
+import com.qfin.qfinbackend.model.Transaction;
+import com.qfin.qfinbackend.model.Transaction.TransactionType;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Calcula o resumo do relatório (totais, soma/quantidade/mínimo/máximo por categoria e
+ * tipo) numa única passada sobre as transações, com acumuladores primitivos. As
+ * transações não são retidas, então pode ser alimentado por um cursor.
+ */
+final class ReportAggregator {
+
+    private static final String NO_CATEGORY = "SEM_CATEGORIA";
+
+    private static final class Stats {
+        private double sum;
+        private long count;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+
+        void add(double amount) {
+            sum += amount;
+            count++;
+            if (amount < min) min = amount;
+            if (amount > max) max = amount;
+        }
+
+        void addGroup(double groupSum, long groupCount, double groupMin, double groupMax) {
+            sum += groupSum;
+            count += groupCount;
+            if (groupMin < min) min = groupMin;
+            if (groupMax > max) max = groupMax;
+        }
+
+        CategorySummaryDTO toDTO(String category, TransactionType type) {
+            return new CategorySummaryDTO(category, sum, count, type.name(), min, max);
+        }
+    }
+
+    private static final class CategoryStats {
+        private final Stats income = new Stats();
+        private final Stats expense = new Stats();
+    }
+
+    private final Stats totalIncome = new Stats();
+    private final Stats totalExpense = new Stats();
+    private long totalCount;
+    // Ordem de primeira ocorrência da categoria
+    private final Map<String, CategoryStats> byCategory = new LinkedHashMap<>();
+
+    void add(Transaction transaction) {
+        add(transaction.getType(), transaction.getCategory(), transaction.getAmount() != null ? transaction.getAmount() : 0.0);
+    }
+
+    void add(TransactionType type, String category, double amount) {
+        totalCount++;
+        CategoryStats stats = byCategory.computeIfAbsent(category != null ? category : NO_CATEGORY, c -> new CategoryStats());
+        if (type == TransactionType.INCOME) {
+            totalIncome.add(amount);
+            stats.income.add(amount);
+        } else if (type == TransactionType.EXPENSE) {
+            totalExpense.add(amount);
+            stats.expense.add(amount);
+        }
+    }
+
+    /**
+     * Incorpora um grupo já agregado (por exemplo, uma linha de GROUP BY do banco).
+     */
+    void addGroup(TransactionType type, String category, double sum, long count, double min, double max) {
+        if (count <= 0) return;
+        totalCount += count;
+        CategoryStats stats = byCategory.computeIfAbsent(category != null ? category : NO_CATEGORY, c -> new CategoryStats());
+        if (type == TransactionType.INCOME) {
+            totalIncome.addGroup(sum, count, min, max);
+            stats.income.addGroup(sum, count, min, max);
+        } else if (type == TransactionType.EXPENSE) {
+            totalExpense.addGroup(sum, count, min, max);
+            stats.expense.addGroup(sum, count, min, max);
+        }
+    }
+
+    ReportSummaryDTO toSummary() {
+        List<CategorySummaryDTO> categoryBreakdown = new ArrayList<>();
+        for (Map.Entry<String, CategoryStats> entry : byCategory.entrySet()) {
+            CategoryStats stats = entry.getValue();
+            if (stats.income.count > 0) {
+                categoryBreakdown.add(stats.income.toDTO(entry.getKey(), TransactionType.INCOME));
+            }
+            if (stats.expense.count > 0) {
+                categoryBreakdown.add(stats.expense.toDTO(entry.getKey(), TransactionType.EXPENSE));
+            }
+        }
+
+        double min = Math.min(totalIncome.min, totalExpense.min);
+        double max = Math.max(totalIncome.max, totalExpense.max);
+        return new ReportSummaryDTO(
+                totalIncome.sum,
+                totalExpense.sum,
+                totalIncome.sum - totalExpense.sum,
+                totalCount,
+                categoryBreakdown,
+                Double.isInfinite(min) ? null : min,
+                Double.isInfinite(max) ? null : max
+        );
+    }
+}
@@ -0,0 +1,85 @@
+package com.qfin.qfinbackend.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.regex.Pattern;
+
+/**
+ * Armazena em disco local os arquivos gerados pelos jobs de relatório. O arquivo é
+ * escrito como "{id}.part" e só fica disponível após commit (rename atômico).
+ */
+@Component
+public class ReportArtifactStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportArtifactStore.class);
+
+    // Nomes gerados por ReportJobService (UUID), com ou sem o sufixo ".part"
+    private static final Pattern ARTIFACT_NAME =
+            Pattern.compile("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}(\\.part)?");
+
+    @Value("${app.reports.jobs.dir:${java.io.tmpdir}/qfin-reports}")
+    private String directory;
+
+    private Path root;
+
+    @PostConstruct
+    public void init() throws IOException {
+        root = Paths.get(directory).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+
+        // O registro de jobs fica em memória: artefatos de execuções anteriores não são mais acessíveis.
+        // O diretório pode ser compartilhado, então só os arquivos com nome de artefato são removidos.
+        int removed = 0;
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(root,
+                file -> Files.isRegularFile(file) && ARTIFACT_NAME.matcher(file.getFileName().toString()).matches())) {
+            for (Path file : leftovers) {
+                try {
+                    Files.deleteIfExists(file);
+                    removed++;
+                } catch (IOException e) {
+                    log.warn("Falha ao remover artefato antigo {}: {}", file, e.getMessage());
+                }
+            }
+        }
+        if (removed > 0) {
+            log.info("{} artefatos de relatório de execuções anteriores removidos de {}", removed, root);
+        }
+    }
+
+    public OutputStream openForWrite(String jobId) throws IOException {
+        return new BufferedOutputStream(Files.newOutputStream(partialPath(jobId)));
+    }
+
+    public void commit(String jobId) throws IOException {
+        Files.move(partialPath(jobId), path(jobId), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public Path path(String jobId) {
+        return root.resolve(jobId);
+    }
+
+    public void delete(String jobId) {
+        try {
+            Files.deleteIfExists(partialPath(jobId));
+            Files.deleteIfExists(path(jobId));
+        } catch (IOException e) {
+            log.warn("Falha ao remover artefato do relatório {}: {}", jobId, e.getMessage());
+        }
+    }
+
+    private Path partialPath(String jobId) {
+        return root.resolve(jobId + ".part");
+    }
+}
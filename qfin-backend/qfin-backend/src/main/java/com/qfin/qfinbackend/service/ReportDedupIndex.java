@@ -0,0 +1,94 @@
+package com.qfin.qfinbackend.service;
+
+import com.qfin.qfinbackend.model.Transaction;
+import com.qfin.qfinbackend.model.Transaction.TransactionType;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Índices hash montados uma única vez sobre as transações gravadas, usados para
+ * descartar as linhas sintéticas do relatório que já foram materializadas:
+ * recorrências ([REC:) por (data, tipo, categoria, valor em centavos) e
+ * espelhos multi-moeda pelo id do marcador [MC:id].
+ */
+final class ReportDedupIndex {
+
+    private static final String RECURRING_MARKER = "[REC:";
+    private static final String MULTI_CURRENCY_MARKER = "[MC:";
+
+    private record RecurringKey(LocalDate date, TransactionType type, String category, long cents) {
+    }
+
+    private final Set<RecurringKey> recurringKeys = new HashSet<>();
+    private final Set<Long> multiCurrencyIds = new HashSet<>();
+
+    private ReportDedupIndex() {
+    }
+
+    static ReportDedupIndex of(Collection<Transaction> baseTransactions) {
+        ReportDedupIndex index = new ReportDedupIndex();
+        for (Transaction transaction : baseTransactions) {
+            String description = transaction.getDescription();
+            if (description == null) continue;
+
+            if (description.contains(RECURRING_MARKER)) {
+                RecurringKey key = keyOf(transaction);
+                if (key != null) index.recurringKeys.add(key);
+            }
+            if (description.startsWith(MULTI_CURRENCY_MARKER)) {
+                Long id = parseMarkerId(description);
+                if (id != null) index.multiCurrencyIds.add(id);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Indica se a recorrência projetada já existe como transação gravada.
+     */
+    boolean containsRecurring(Transaction projected) {
+        RecurringKey key = keyOf(projected);
+        return key != null && recurringKeys.contains(key);
+    }
+
+    /**
+     * Quantas ocorrências da recorrência já existem como transações gravadas, sem
+     * materializar as ocorrências: percorre apenas as chaves gravadas.
+     */
+    long countRecurring(RecurringOccurrences occurrences, TransactionType type, String category, double amount) {
+        String normalizedCategory = category == null ? "" : category.toLowerCase(Locale.ROOT);
+        long cents = Math.round(amount * 100);
+        return recurringKeys.stream()
+                .filter(key -> key.type() == type && key.cents() == cents && key.category().equals(normalizedCategory))
+                .filter(key -> occurrences.contains(key.date()))
+                .count();
+    }
+
+    /**
+     * Indica se a transação multi-moeda já possui espelho ([MC:id]) gravado.
+     */
+    boolean containsMultiCurrency(Long multiCurrencyId) {
+        return multiCurrencyIds.contains(multiCurrencyId);
+    }
+
+    private static RecurringKey keyOf(Transaction transaction) {
+        if (transaction.getDate() == null || transaction.getAmount() == null) return null;
+        String category = transaction.getCategory() == null ? "" : transaction.getCategory().toLowerCase(Locale.ROOT);
+        return new RecurringKey(transaction.getDate(), transaction.getType(), category,
+                Math.round(transaction.getAmount() * 100));
+    }
+
+    private static Long parseMarkerId(String description) {
+        int end = description.indexOf(']', MULTI_CURRENCY_MARKER.length());
+        if (end < 0) return null;
+        try {
+            return Long.valueOf(description.substring(MULTI_CURRENCY_MARKER.length(), end));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.qfin.qfinbackend.service;
+
+import com.qfin.qfinbackend.dto.ReportJobDTO;
+import com.qfin.qfinbackend.dto.ReportRequestDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executa exportações de relatório fora das threads HTTP. Cada job é processado por um
+ * pool limitado de workers, grava o arquivo no ReportArtifactStore e fica disponível
+ * para download até expirar.
+ */
+@Service
+public class ReportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportJobService.class);
+
+    public enum ReportJobType {
+        TRANSACTIONS_CSV("transacoes.csv", "text/csv"),
+        FINANCINGS_CSV("financiamentos.csv", "text/csv"),
+        PDF("relatorio.pdf", "application/pdf");
+
+        private final String fileName;
+        private final String contentType;
+
+        ReportJobType(String fileName, String contentType) {
+            this.fileName = fileName;
+            this.contentType = contentType;
+        }
+    }
+
+    public enum ReportJobStatus {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private static class ReportJob {
+        private final String id;
+        private final Long userId;
+        private final ReportJobType type;
+        private final LocalDateTime createdAt;
+        private volatile ReportJobStatus status = ReportJobStatus.PENDING;
+        private volatile LocalDateTime finishedAt;
+        private volatile LocalDateTime expiresAt;
+        private volatile String error;
+
+        ReportJob(Long userId, ReportJobType type) {
+            this.id = UUID.randomUUID().toString();
+            this.userId = userId;
+            this.type = type;
+            this.createdAt = LocalDateTime.now();
+        }
+
+        boolean isActive() {
+            return status == ReportJobStatus.PENDING || status == ReportJobStatus.RUNNING;
+        }
+
+        ReportJobDTO toDTO() {
+            return new ReportJobDTO(id, type.name(), status.name(), type.fileName, type.contentType,
+                    createdAt, finishedAt, expiresAt, error);
+        }
+    }
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private ReportArtifactStore artifactStore;
+
+    @Value("${app.reports.jobs.workers:2}")
+    private int workers;
+
+    @Value("${app.reports.jobs.queue-capacity:20}")
+    private int queueCapacity;
+
+    @Value("${app.reports.jobs.max-per-user:3}")
+    private int maxActiveJobsPerUser;
+
+    @Value("${app.reports.jobs.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "report-job-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public synchronized ReportJobDTO submit(Long userId, ReportJobType type, ReportRequestDTO request) {
+        long activeJobs = jobs.values().stream()
+                .filter(job -> job.userId.equals(userId) && job.isActive())
+                .count();
+        if (activeJobs >= maxActiveJobsPerUser) {
+            throw new IllegalStateException("Você já possui relatórios em processamento. Aguarde a conclusão para solicitar outro.");
+        }
+
+        ReportJob job = new ReportJob(userId, type);
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job, request != null ? request : new ReportRequestDTO()));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw new IllegalStateException("Fila de relatórios cheia. Tente novamente em instantes.");
+        }
+        return job.toDTO();
+    }
+
+    public Optional<ReportJobDTO> getJob(String id, Long userId) {
+        return findJob(id, userId).map(ReportJob::toDTO);
+    }
+
+    /**
+     * Retorna o arquivo do job apenas quando ele pertence ao usuário e já foi concluído.
+     */
+    public Optional<Path> getArtifact(String id, Long userId) {
+        return findJob(id, userId)
+                .filter(job -> job.status == ReportJobStatus.COMPLETED)
+                .map(job -> artifactStore.path(job.id));
+    }
+
+    private Optional<ReportJob> findJob(String id, Long userId) {
+        return Optional.ofNullable(jobs.get(id))
+                .filter(job -> job.userId.equals(userId));
+    }
+
+    private void run(ReportJob job, ReportRequestDTO request) {
+        job.status = ReportJobStatus.RUNNING;
+        try {
+            try (OutputStream out = artifactStore.openForWrite(job.id)) {
+                switch (job.type) {
+                    case TRANSACTIONS_CSV -> reportService.exportTransactionsToCSV(job.userId, request, out);
+                    case FINANCINGS_CSV -> reportService.exportFinancingsToCSV(job.userId, out);
+                    case PDF -> reportService.exportReportToPDF(job.userId, request, out);
+                }
+            }
+            artifactStore.commit(job.id);
+            finish(job, ReportJobStatus.COMPLETED);
+        } catch (Exception e) {
+            log.error("Falha ao gerar relatório {} ({}): {}", job.id, job.type, e.getMessage());
+            artifactStore.delete(job.id);
+            job.error = "Falha ao gerar relatório";
+            finish(job, ReportJobStatus.FAILED);
+        }
+    }
+
+    private void finish(ReportJob job, ReportJobStatus status) {
+        job.finishedAt = LocalDateTime.now();
+        job.expiresAt = job.finishedAt.plusMinutes(ttlMinutes);
+        job.status = status;
+    }
+
+    // Remove jobs finalizados e seus arquivos após o TTL
+    @Scheduled(fixedDelayString = "${app.reports.jobs.cleanup-interval-ms:300000}")
+    public void purgeExpiredJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        jobs.values().removeIf(job -> {
+            if (job.expiresAt == null || job.expiresAt.isAfter(now)) return false;
+            artifactStore.delete(job.id);
+            return true;
+        });
+    }
+}
@@ -0,0 +1,51 @@
+package com.qfin.qfinbackend.service;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Intercalação preguiçosa (k-way merge) de fontes já ordenadas. Mantém apenas o
+ * elemento corrente de cada fonte num heap; cada next() custa O(log k) e lê no máximo
+ * um novo elemento. Em caso de empate, a fonte informada primeiro sai antes, o que
+ * preserva a ordem de uma ordenação estável da concatenação.
+ */
+final class ReportMergeIterator<T> implements Iterator<T> {
+
+    private record Head<T>(T value, int source) {
+    }
+
+    private final List<? extends Iterator<? extends T>> sources;
+    private final PriorityQueue<Head<T>> heads;
+
+    ReportMergeIterator(List<? extends Iterator<? extends T>> sources, Comparator<? super T> order) {
+        this.sources = sources;
+        Comparator<Head<T>> byValue = (a, b) -> order.compare(a.value(), b.value());
+        this.heads = new PriorityQueue<>(Math.max(1, sources.size()), byValue.thenComparingInt(Head::source));
+        for (int i = 0; i < sources.size(); i++) {
+            advance(i);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !heads.isEmpty();
+    }
+
+    @Override
+    public T next() {
+        Head<T> head = heads.poll();
+        if (head == null) throw new NoSuchElementException();
+        advance(head.source());
+        return head.value();
+    }
+
+    private void advance(int source) {
+        Iterator<? extends T> iterator = sources.get(source);
+        if (iterator.hasNext()) {
+            heads.add(new Head<>(iterator.next(), source));
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.qfin.qfinbackend.service;
 import com.qfin.qfinbackend.dto.CategorySummaryDTO;
 import com.qfin.qfinbackend.dto.ReportRequestDTO;
 import com.qfin.qfinbackend.dto.ReportSummaryDTO;
+import com.qfin.qfinbackend.dto.ReportTransactionPageDTO;
 import com.qfin.qfinbackend.model.Financing;
 import com.qfin.qfinbackend.model.Investment;
 import com.qfin.qfinbackend.model.MultiCurrencyTransaction;
@@ -16,24 +17,66 @@ import com.qfin.qfinbackend.repository.MultiCurrencyTransactionRepository;
 import com.qfin.qfinbackend.repository.RecurringTransactionRepository;
 import com.qfin.qfinbackend.repository.TransactionRepository;
 import com.qfin.qfinbackend.repository.UserRepository;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.TextAlignment;
+import com.itextpdf.layout.properties.UnitValue;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Service
 public class ReportService {
 
+    // Ordem das linhas do relatório: data decrescente
+    private static final Comparator<Transaction> REPORT_ORDER = Comparator.comparing(Transaction::getDate).reversed();
+
+    // Linhas adicionadas à tabela do PDF antes de cada descarga para o stream
+    private static final int PDF_FLUSH_ROWS = 100;
+
     @Autowired
     private TransactionRepository transactionRepository;
 
@@ -52,82 +95,309 @@ public class ReportService {
     @Autowired
     private UserRepository userRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Quando habilitado, o resumo das transações gravadas é calculado no banco (GROUP BY)
+    @Value("${app.reports.summary.push-down:true}")
+    private boolean summaryPushDown;
+
+    @Value("${app.reports.page-size.default:100}")
+    private int defaultPageSize;
+
+    @Value("${app.reports.page-size.max:1000}")
+    private int maxPageSize;
+
+    // offset + size máximo: a janela é lida inteira do banco para ser intercalada
+    @Value("${app.reports.page-window.max:10000}")
+    private int maxPageWindow;
+
+    @Value("${app.reports.sources.threads:8}")
+    private int sourceThreads;
+
+    @Value("${app.reports.sources.queue-capacity:100}")
+    private int sourceQueueCapacity;
+
+    @Value("${app.reports.sources.timeout-ms:15000}")
+    private long sourcesTimeoutMs;
+
+    // Pool das consultas das fontes do relatório; com a fila cheia a própria thread da
+    // requisição executa a consulta, degradando para o carregamento sequencial
+    private ThreadPoolExecutor sourceExecutor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        sourceExecutor = new ThreadPoolExecutor(sourceThreads, sourceThreads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(sourceQueueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "report-source-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        sourceExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sourceExecutor.shutdownNow();
+    }
+
     public List<Transaction> getTransactionsByFilters(Long userId, ReportRequestDTO request) {
         return getMergedTransactions(userId, request);
     }
 
+    /**
+     * Uma janela do relatório na mesma ordem de getTransactionsByFilters. Das transações
+     * gravadas são lidas só as offset + size primeiras, que bastam para a janela; o
+     * total é obtido por COUNT no banco e pela contagem em forma fechada das linhas
+     * sintéticas. Janelas além de page-window.max linhas são recusadas.
+     */
+    public ReportTransactionPageDTO getTransactionPage(Long userId, ReportRequestDTO request, Integer offset, Integer size) {
+        int pageOffset = offset == null ? 0 : offset;
+        if (pageOffset < 0) {
+            throw new IllegalArgumentException("Offset inválido: " + offset);
+        }
+        int pageSize = size == null || size <= 0 ? defaultPageSize : Math.min(size, maxPageSize);
+        if (pageOffset > maxPageWindow - pageSize) {
+            throw new IllegalArgumentException("Offset inválido: " + offset + " (máximo " + (maxPageWindow - pageSize) + ")");
+        }
+        int windowSize = Math.addExact(pageOffset, pageSize);
+
+        LocalDate startDate = resolveStartDate(request);
+        LocalDate endDate = resolveEndDate(request);
+        TransactionType type = resolveType(request);
+        String category = request.getCategory();
+
+        // Um único prazo para a janela, a contagem e as demais fontes
+        long deadline = sourcesDeadline();
+        CompletableFuture<List<Transaction>> window = supplySource(deadline, () -> transactionRepository.findWindowByFilters(
+                userId, startDate, endDate, type, category, PageRequest.of(0, windowSize)));
+        CompletableFuture<Long> storedCount = supplySource(deadline, () -> transactionRepository.countByFilters(
+                userId, startDate, endDate, type, category));
+        ReportSources sources = loadSources(userId, request, true, deadline);
+        awaitSources(deadline, window, storedCount);
+
+        Iterator<Transaction> merged = mergedTransactions(window.join().iterator(), sources);
+        for (int skipped = 0; skipped < pageOffset && merged.hasNext(); skipped++) {
+            merged.next();
+        }
+        List<Transaction> items = new ArrayList<>(pageSize);
+        while (items.size() < pageSize && merged.hasNext()) {
+            items.add(merged.next());
+        }
+
+        long total = storedCount.join() + countSynthetic(sources);
+        Integer nextOffset = pageOffset + items.size() < total ? pageOffset + items.size() : null;
+        return new ReportTransactionPageDTO(items, pageOffset, pageSize, total, nextOffset);
+    }
+
     public ReportSummaryDTO getReportSummary(Long userId, ReportRequestDTO request) {
-        List<Transaction> transactions = getMergedTransactions(userId, request);
-
-        double totalIncome = transactions.stream()
-                .filter(t -> t.getType() == TransactionType.INCOME)
-                .mapToDouble(t -> t.getAmount() != null ? t.getAmount() : 0.0)
-                .sum();
-
-        double totalExpense = transactions.stream()
-                .filter(t -> t.getType() == TransactionType.EXPENSE)
-                .mapToDouble(t -> t.getAmount() != null ? t.getAmount() : 0.0)
-                .sum();
-
-        List<CategorySummaryDTO> categoryBreakdown = buildCategoryBreakdown(transactions);
-
-        return new ReportSummaryDTO(
-                totalIncome,
-                totalExpense,
-                totalIncome - totalExpense,
-                (long) transactions.size(),
-                categoryBreakdown
-        );
+        if (!summaryPushDown) {
+            ReportSources sources = loadSources(userId, request, false);
+            ReportAggregator aggregator = new ReportAggregator();
+            mergedTransactions(sources.stored().iterator(), sources).forEachRemaining(aggregator::add);
+            return aggregator.toSummary();
+        }
+        return summarizeWithPushDown(userId, request, loadSources(userId, request, true));
     }
 
-    private List<Transaction> getMergedTransactions(Long userId, ReportRequestDTO request) {
-        LocalDate startDate = request.getStartDate() != null ? request.getStartDate() : LocalDate.now().minusMonths(1);
-        LocalDate endDate = request.getEndDate() != null ? request.getEndDate() : LocalDate.now();
+    /**
+     * Resumo com a parte das transações gravadas agregada no banco (GROUP BY categoria e
+     * tipo) e as recorrências somadas em forma fechada; apenas as demais linhas
+     * sintéticas são somadas uma a uma. O custo depende do número de categorias e de
+     * regras, não do número de transações ou ocorrências.
+     */
+    private ReportSummaryDTO summarizeWithPushDown(Long userId, ReportRequestDTO request, ReportSources sources) {
+        ReportAggregator aggregator = new ReportAggregator();
+        List<Object[]> groups = transactionRepository.summarizeByFilters(
+                userId, resolveStartDate(request), resolveEndDate(request), resolveType(request), request.getCategory());
+        for (Object[] group : groups) {
+            aggregator.addGroup(
+                    (TransactionType) group[1],
+                    (String) group[0],
+                    group[2] != null ? ((Number) group[2]).doubleValue() : 0.0,
+                    ((Number) group[3]).longValue(),
+                    group[4] != null ? ((Number) group[4]).doubleValue() : 0.0,
+                    group[5] != null ? ((Number) group[5]).doubleValue() : 0.0);
+        }
+        for (RecurringOccurrences occurrences : sources.recurring()) {
+            RecurringTransaction recurring = occurrences.recurring();
+            TransactionType type = toTransactionType(recurring);
+            // Ocorrências já materializadas em Transaction estão nos grupos do banco
+            long count = occurrences.count() - sources.dedupIndex().countRecurring(
+                    occurrences, type, recurring.getCategory(), recurring.getAmount());
+            aggregator.addGroup(type, recurring.getCategory(), count * recurring.getAmount(), count,
+                    recurring.getAmount(), recurring.getAmount());
+        }
+        sources.others().forEach(aggregator::add);
+        return aggregator.toSummary();
+    }
 
-        TransactionType type = null;
-        if (request.getType() != null && !request.getType().equalsIgnoreCase("ALL")) {
-            type = TransactionType.valueOf(request.getType().toUpperCase());
+    // Quantidade de linhas sintéticas sem gerá-las
+    private long countSynthetic(ReportSources sources) {
+        long count = sources.others().size();
+        for (RecurringOccurrences occurrences : sources.recurring()) {
+            RecurringTransaction recurring = occurrences.recurring();
+            count += occurrences.count() - sources.dedupIndex().countRecurring(
+                    occurrences, toTransactionType(recurring), recurring.getCategory(), recurring.getAmount());
         }
+        return count;
+    }
 
-        List<Transaction> baseTransactions = transactionRepository.findByFilters(
-                userId, startDate, endDate, type, request.getCategory());
-
-        List<Transaction> recurringProjectedTransactions = buildRecurringProjectedTransactions(
-                userId, startDate, endDate, type, request.getCategory());
-
-        List<Transaction> financingSyntheticTransactions = buildFinancingSyntheticTransactions(
-                userId, startDate, endDate, type, request.getCategory());
-
-        List<Transaction> investmentSyntheticTransactions = buildInvestmentSyntheticTransactions(
-                userId, startDate, endDate, type, request.getCategory());
-
-        List<Transaction> multiCurrencyFallbackTransactions = buildMissingMultiCurrencyTransactions(
-                userId, startDate, endDate, type, request.getCategory(), baseTransactions);
-
-        // Evita duplicidade caso recorrente já tenha sido materializada em Transaction
-        List<Transaction> dedupedRecurring = recurringProjectedTransactions.stream()
-                .filter(rt -> baseTransactions.stream().noneMatch(bt ->
-                        bt.getDate() != null
-                                && rt.getDate() != null
-                                && bt.getDate().equals(rt.getDate())
-                                && bt.getType() == rt.getType()
-                                && safe(bt.getCategory()).equalsIgnoreCase(safe(rt.getCategory()))
-                                && safe(bt.getDescription()).contains("[REC:")
-                                && bt.getAmount() != null
-                                && rt.getAmount() != null
-                                && Math.abs(bt.getAmount() - rt.getAmount()) < 0.0001
-                ))
-                .collect(Collectors.toList());
+    private List<Transaction> getMergedTransactions(Long userId, ReportRequestDTO request) {
+        ReportSources sources = loadSources(userId, request, false);
 
-        List<Transaction> merged = new ArrayList<>(baseTransactions);
-        merged.addAll(dedupedRecurring);
-        merged.addAll(financingSyntheticTransactions);
-        merged.addAll(investmentSyntheticTransactions);
-        merged.addAll(multiCurrencyFallbackTransactions);
-        merged.sort(Comparator.comparing(Transaction::getDate).reversed());
+        List<Transaction> merged = new ArrayList<>();
+        mergedTransactions(sources.stored().iterator(), sources).forEachRemaining(merged::add);
         return merged;
     }
 
+    /**
+     * Fontes carregadas para o relatório: as transações gravadas consultadas, as
+     * ocorrências das recorrências ativas (ainda não materializadas) e as demais linhas
+     * que não estão gravadas em Transaction (parcelas de financiamento, ganhos de
+     * investimento e multi-moeda sem espelho), estas ordenadas por data decrescente.
+     */
+    private record ReportSources(
+            List<Transaction> stored,
+            List<RecurringOccurrences> recurring,
+            List<Transaction> others,
+            ReportDedupIndex dedupIndex,
+            User user
+    ) {
+    }
+
+    /**
+     * Intercala, sem ordenar nem materializar, as transações gravadas (já em data
+     * decrescente), as demais linhas sintéticas e as projeções de cada recorrência. As
+     * linhas são produzidas sob demanda, então quem consome pode parar a qualquer momento.
+     */
+    private Iterator<Transaction> mergedTransactions(Iterator<Transaction> stored, ReportSources sources) {
+        List<Iterator<Transaction>> iterators = new ArrayList<>();
+        iterators.add(stored);
+        iterators.add(sources.others().iterator());
+        for (RecurringOccurrences occurrences : sources.recurring()) {
+            iterators.add(projectRecurring(occurrences, sources.user(), sources.dedupIndex()));
+        }
+        return new ReportMergeIterator<>(iterators, REPORT_ORDER);
+    }
+
+    private ReportSources loadSources(Long userId, ReportRequestDTO request, boolean markedOnly) {
+        return loadSources(userId, request, markedOnly, sourcesDeadline());
+    }
+
+    /**
+     * Consulta as cinco fontes do relatório em paralelo, com uma única busca do usuário e
+     * um prazo (System.nanoTime()) para o conjunto. Com markedOnly, das transações gravadas
+     * só são lidas as marcadas com [REC: ou [MC:, que bastam para a deduplicação (o
+     * restante é lido depois por cursor).
+     */
+    private ReportSources loadSources(Long userId, ReportRequestDTO request, boolean markedOnly, long deadline) {
+        LocalDate startDate = resolveStartDate(request);
+        LocalDate endDate = resolveEndDate(request);
+        TransactionType type = resolveType(request);
+        String category = request.getCategory();
+
+        User user = userRepository.findById(userId).orElse(null);
+
+        CompletableFuture<List<Transaction>> stored = supplySource(deadline, () -> markedOnly
+                ? transactionRepository.findMarkedByFilters(userId, startDate, endDate, type, category)
+                : transactionRepository.findByFilters(userId, startDate, endDate, type, category));
+        CompletableFuture<List<RecurringOccurrences>> recurring = supplySource(deadline, () ->
+                findRecurringOccurrences(user, startDate, endDate, type, category));
+        CompletableFuture<List<Transaction>> financing = supplySource(deadline, () ->
+                buildFinancingSyntheticTransactions(userId, startDate, endDate, type, category));
+        CompletableFuture<List<Transaction>> investment = supplySource(deadline, () ->
+                buildInvestmentSyntheticTransactions(user, startDate, endDate, type, category));
+        CompletableFuture<List<MultiCurrencyTransaction>> multiCurrency = supplySource(deadline, () ->
+                findMultiCurrencyTransactions(user, startDate, endDate, type, category));
+
+        awaitSources(deadline, stored, recurring, financing, investment, multiCurrency);
+
+        // Índices montados uma vez sobre as transações gravadas: deduplicação em tempo linear
+        List<Transaction> storedTransactions = stored.join();
+        ReportDedupIndex dedupIndex = ReportDedupIndex.of(storedTransactions);
+
+        List<Transaction> others = new ArrayList<>(financing.join());
+        others.addAll(investment.join());
+        multiCurrency.join().stream()
+                .filter(mt -> !dedupIndex.containsMultiCurrency(mt.getId()))
+                .map(mt -> toMultiCurrencyFallback(mt, user))
+                .forEach(others::add);
+        others.sort(REPORT_ORDER);
+        return new ReportSources(storedTransactions, recurring.join(), others, dedupIndex, user);
+    }
+
+    private long sourcesDeadline() {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sourcesTimeoutMs);
+    }
+
+    /**
+     * Executa a consulta de uma fonte numa transação somente leitura com o tempo restante
+     * até o prazo como timeout: o Spring repassa esse tempo às consultas JPA
+     * (jakarta.persistence.query.timeout), então o banco interrompe a consulta e a conexão
+     * volta ao pool mesmo depois que o relatório já desistiu dela. A transação é sempre
+     * nova: com o pool cheio a fonte roda na thread da requisição e, dentro das exportações
+     * (@Transactional), juntar-se à transação externa descartaria o timeout.
+     */
+    private <T> CompletableFuture<T> supplySource(long deadline, Supplier<T> source) {
+        return CompletableFuture.supplyAsync(() -> {
+            long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMs <= 0) {
+                throw new IllegalStateException("Tempo limite excedido ao carregar os dados do relatório");
+            }
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            template.setReadOnly(true);
+            // Timeout da transação é em segundos; o tempo restante é arredondado para cima
+            template.setTimeout((int) Math.max(1, (remainingMs + 999) / 1000));
+            return template.execute(status -> source.get());
+        }, sourceExecutor);
+    }
+
+    /**
+     * Aguarda todas as fontes até o prazo. Se o prazo estourar, as consultas que ainda não
+     * começaram são canceladas e as que estão em execução são interrompidas pelo timeout
+     * da consulta (ver supplySource); o relatório falha em vez de segurar a requisição.
+     */
+    private void awaitSources(long deadline, CompletableFuture<?>... sources) {
+        try {
+            CompletableFuture.allOf(sources).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            Arrays.stream(sources).forEach(source -> source.cancel(true));
+            throw new IllegalStateException("Tempo limite excedido ao carregar os dados do relatório");
+        } catch (InterruptedException e) {
+            Arrays.stream(sources).forEach(source -> source.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Carregamento do relatório interrompido");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Falha ao carregar os dados do relatório", e.getCause());
+        }
+    }
+
+    private LocalDate resolveStartDate(ReportRequestDTO request) {
+        return request.getStartDate() != null ? request.getStartDate() : LocalDate.now().minusMonths(1);
+    }
+
+    private LocalDate resolveEndDate(ReportRequestDTO request) {
+        return request.getEndDate() != null ? request.getEndDate() : LocalDate.now();
+    }
+
+    private TransactionType resolveType(ReportRequestDTO request) {
+        if (request.getType() != null && !request.getType().equalsIgnoreCase("ALL")) {
+            return TransactionType.valueOf(request.getType().toUpperCase());
+        }
+        return null;
+    }
+
     private String safe(String value) {
         return value == null ? "" : value;
     }
@@ -141,8 +411,7 @@ public class ReportService {
     ) {
         if (typeFilter != null && typeFilter != TransactionType.EXPENSE) return List.of();
 
-        return financingRepository.findAll().stream()
-                .filter(f -> f.getUser() != null && f.getUser().getId() != null && f.getUser().getId().equals(userId))
+        return financingRepository.findByUserId(userId).stream()
                 .filter(f -> f.getMonthlyPayment() != null && f.getMonthlyPayment() > 0)
                 .flatMap(f -> {
                     List<Transaction> rows = new ArrayList<>();
@@ -173,16 +442,16 @@ public class ReportService {
     }
 
     private List<Transaction> buildInvestmentSyntheticTransactions(
-            Long userId,
+            User user,
             LocalDate startDate,
             LocalDate endDate,
             TransactionType typeFilter,
             String categoryFilter
     ) {
+        if (user == null) return List.of();
         if (typeFilter != null && typeFilter != TransactionType.INCOME) return List.of();
 
-        return investmentRepository.findAll().stream()
-                .filter(i -> i.getUser() != null && i.getUser().getId() != null && i.getUser().getId().equals(userId))
+        return investmentRepository.findByUser(user).stream()
                 .filter(i -> i.getPurchaseDate() != null && !i.getPurchaseDate().isBefore(startDate) && !i.getPurchaseDate().isAfter(endDate))
                 .map(i -> {
                     double gain = (i.getCurrentValue() != null ? i.getCurrentValue() : 0.0)
@@ -204,200 +473,163 @@ public class ReportService {
                 .collect(Collectors.toList());
     }
 
-    private List<Transaction> buildMissingMultiCurrencyTransactions(
-            Long userId,
+    private List<MultiCurrencyTransaction> findMultiCurrencyTransactions(
+            User user,
             LocalDate startDate,
             LocalDate endDate,
             TransactionType typeFilter,
-            String categoryFilter,
-            List<Transaction> baseTransactions
+            String categoryFilter
     ) {
-        User user = userRepository.findById(userId).orElse(null);
         if (user == null) return List.of();
 
         return multiCurrencyTransactionRepository.findByUserOrderByDateDesc(user).stream()
                 .filter(mt -> mt.getDate() != null && !mt.getDate().isBefore(startDate) && !mt.getDate().isAfter(endDate))
-                .filter(mt -> {
-                    TransactionType mappedType = mt.getType() == MultiCurrencyTransaction.TransactionType.INCOME
-                            ? TransactionType.INCOME
-                            : TransactionType.EXPENSE;
-                    return typeFilter == null || mappedType == typeFilter;
-                })
+                .filter(mt -> typeFilter == null || toTransactionType(mt) == typeFilter)
                 .filter(mt -> categoryFilter == null || categoryFilter.isBlank()
                         || categoryFilter.equalsIgnoreCase(mt.getCategory()))
-                .filter(mt -> {
-                    String marker = "[MC:" + mt.getId() + "]";
-                    return baseTransactions.stream().noneMatch(t ->
-                            t.getDescription() != null && t.getDescription().startsWith(marker));
-                })
-                .map(mt -> {
-                    Transaction synthetic = new Transaction();
-                    synthetic.setUser(user);
-                    synthetic.setDate(mt.getDate());
-                    synthetic.setType(mt.getType() == MultiCurrencyTransaction.TransactionType.INCOME
-                            ? TransactionType.INCOME
-                            : TransactionType.EXPENSE);
-                    synthetic.setAmount(mt.getAmountInBaseCurrency() != null ? mt.getAmountInBaseCurrency() : 0.0);
-                    synthetic.setCategory(mt.getCategory());
-                    synthetic.setDescription("[MC-FALLBACK:" + mt.getId() + "] " + mt.getDescription());
-                    return synthetic;
-                })
                 .collect(Collectors.toList());
     }
 
-    private List<CategorySummaryDTO> buildCategoryBreakdown(List<Transaction> transactions) {
-        List<CategorySummaryDTO> categoryBreakdown = new ArrayList<>();
-
-        List<String> categories = transactions.stream()
-                .map(t -> t.getCategory() != null ? t.getCategory() : "SEM_CATEGORIA")
-                .distinct()
-                .toList();
-
-        for (String category : categories) {
-            double incomeAmount = transactions.stream()
-                    .filter(t -> (t.getCategory() != null ? t.getCategory() : "SEM_CATEGORIA").equals(category))
-                    .filter(t -> t.getType() == TransactionType.INCOME)
-                    .mapToDouble(t -> t.getAmount() != null ? t.getAmount() : 0.0)
-                    .sum();
-            long incomeCount = transactions.stream()
-                    .filter(t -> (t.getCategory() != null ? t.getCategory() : "SEM_CATEGORIA").equals(category))
-                    .filter(t -> t.getType() == TransactionType.INCOME)
-                    .count();
-
-            if (incomeCount > 0) {
-                categoryBreakdown.add(new CategorySummaryDTO(category, incomeAmount, incomeCount, "INCOME"));
-            }
-
-            double expenseAmount = transactions.stream()
-                    .filter(t -> (t.getCategory() != null ? t.getCategory() : "SEM_CATEGORIA").equals(category))
-                    .filter(t -> t.getType() == TransactionType.EXPENSE)
-                    .mapToDouble(t -> t.getAmount() != null ? t.getAmount() : 0.0)
-                    .sum();
-            long expenseCount = transactions.stream()
-                    .filter(t -> (t.getCategory() != null ? t.getCategory() : "SEM_CATEGORIA").equals(category))
-                    .filter(t -> t.getType() == TransactionType.EXPENSE)
-                    .count();
-
-            if (expenseCount > 0) {
-                categoryBreakdown.add(new CategorySummaryDTO(category, expenseAmount, expenseCount, "EXPENSE"));
-            }
-        }
+    private Transaction toMultiCurrencyFallback(MultiCurrencyTransaction mt, User user) {
+        Transaction synthetic = new Transaction();
+        synthetic.setUser(user);
+        synthetic.setDate(mt.getDate());
+        synthetic.setType(toTransactionType(mt));
+        synthetic.setAmount(mt.getAmountInBaseCurrency() != null ? mt.getAmountInBaseCurrency() : 0.0);
+        synthetic.setCategory(mt.getCategory());
+        synthetic.setDescription("[MC-FALLBACK:" + mt.getId() + "] " + mt.getDescription());
+        return synthetic;
+    }
 
-        return categoryBreakdown;
+    private TransactionType toTransactionType(MultiCurrencyTransaction mt) {
+        return mt.getType() == MultiCurrencyTransaction.TransactionType.INCOME
+                ? TransactionType.INCOME
+                : TransactionType.EXPENSE;
     }
 
-    private List<Transaction> buildRecurringProjectedTransactions(
-            Long userId,
+    private List<RecurringOccurrences> findRecurringOccurrences(
+            User user,
             LocalDate startDate,
             LocalDate endDate,
             TransactionType typeFilter,
             String categoryFilter
     ) {
-        User user = userRepository.findById(userId).orElse(null);
         if (user == null) return List.of();
 
-        List<RecurringTransaction> recurringTransactions = recurringTransactionRepository.findByUserAndIsActiveTrue(user);
-        List<Transaction> projected = new ArrayList<>();
-
-        for (RecurringTransaction recurring : recurringTransactions) {
-            TransactionType recurringType = recurring.getType() == RecurringTransaction.TransactionType.INCOME
-                    ? TransactionType.INCOME
-                    : TransactionType.EXPENSE;
-
-            if (typeFilter != null && recurringType != typeFilter) continue;
-            if (categoryFilter != null && !categoryFilter.isBlank()
-                    && !categoryFilter.equalsIgnoreCase(recurring.getCategory())) continue;
-
-            LocalDate cursor = recurring.getNextProcessing();
-            if (cursor == null) continue;
-
-            LocalDate hardEnd = recurring.getEndDate() != null && recurring.getEndDate().isBefore(endDate)
-                    ? recurring.getEndDate()
-                    : endDate;
+        return recurringTransactionRepository.findByUserAndIsActiveTrue(user).stream()
+                .filter(recurring -> typeFilter == null || toTransactionType(recurring) == typeFilter)
+                .filter(recurring -> categoryFilter == null || categoryFilter.isBlank()
+                        || categoryFilter.equalsIgnoreCase(recurring.getCategory()))
+                .map(recurring -> RecurringOccurrences.of(recurring, startDate, endDate))
+                .filter(occurrences -> occurrences.count() > 0)
+                .collect(Collectors.toList());
+    }
 
-            while (!cursor.isAfter(hardEnd)) {
-                if (!cursor.isBefore(startDate)) {
+    /**
+     * Linhas projetadas de uma recorrência, da mais recente para a mais antiga, geradas
+     * sob demanda. Evita duplicidade caso a ocorrência já tenha sido materializada em
+     * Transaction.
+     */
+    private Iterator<Transaction> projectRecurring(RecurringOccurrences occurrences, User user, ReportDedupIndex dedupIndex) {
+        RecurringTransaction recurring = occurrences.recurring();
+        TransactionType type = toTransactionType(recurring);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(occurrences.newestFirst(), Spliterator.ORDERED), false)
+                .map(date -> {
                     Transaction synthetic = new Transaction();
                     synthetic.setUser(user);
-                    synthetic.setDate(cursor);
-                    synthetic.setType(recurringType);
+                    synthetic.setDate(date);
+                    synthetic.setType(type);
                     synthetic.setAmount(recurring.getAmount());
                     synthetic.setCategory(recurring.getCategory());
                     synthetic.setDescription("[REC-PROJ:" + recurring.getId() + "] " + recurring.getName());
-                    projected.add(synthetic);
-                }
-                cursor = nextDateByFrequency(cursor, recurring);
-            }
-        }
-
-        return projected;
+                    return synthetic;
+                })
+                .filter(synthetic -> !dedupIndex.containsRecurring(synthetic))
+                .iterator();
     }
 
-    private LocalDate nextDateByFrequency(LocalDate current, RecurringTransaction recurring) {
-        switch (recurring.getFrequency()) {
-            case DAILY:
-                return current.plusDays(1);
-            case WEEKLY:
-                return current.plusWeeks(1);
-            case MONTHLY:
-                LocalDate nextMonth = current.plusMonths(1);
-                if (recurring.getDayOfMonth() != null) {
-                    int day = Math.min(recurring.getDayOfMonth(), nextMonth.lengthOfMonth());
-                    return nextMonth.withDayOfMonth(day);
-                }
-                return nextMonth;
-            case YEARLY:
-                return current.plusYears(1);
-            default:
-                return current.plusMonths(1);
-        }
+    private TransactionType toTransactionType(RecurringTransaction recurring) {
+        return recurring.getType() == RecurringTransaction.TransactionType.INCOME
+                ? TransactionType.INCOME
+                : TransactionType.EXPENSE;
     }
 
-    public byte[] exportTransactionsToCSV(Long userId, ReportRequestDTO request) throws IOException {
-        List<Transaction> transactions = getTransactionsByFilters(userId, request);
-
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        OutputStreamWriter writer = new OutputStreamWriter(out);
+    /**
+     * Escreve o CSV de transações diretamente no stream de saída. As transações gravadas
+     * são lidas por um cursor forward-only e intercaladas, por data, com as linhas
+     * sintéticas; o uso de memória não depende do tamanho da exportação.
+     */
+    @Transactional(readOnly = true)
+    public void exportTransactionsToCSV(Long userId, ReportRequestDTO request, OutputStream out) throws IOException {
+        ReportSources sources = loadSources(userId, request, true);
 
         CSVFormat csvFormat = CSVFormat.DEFAULT.builder()
                 .setHeader("Data", "Tipo", "Categoria", "Descrição", "Valor")
                 .build();
 
-        try (CSVPrinter printer = new CSVPrinter(writer, csvFormat)) {
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        CSVPrinter printer = new CSVPrinter(writer, csvFormat);
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
-            for (Transaction transaction : transactions) {
-                printer.printRecord(
-                        transaction.getDate().format(formatter),
-                        transaction.getType().toString(),
-                        transaction.getCategory(),
-                        transaction.getDescription(),
-                        String.format("%.2f", transaction.getAmount())
-                );
-            }
+        forEachMergedTransaction(userId, request, sources, t -> printTransaction(printer, t, formatter));
 
-            printer.flush();
-        }
+        printer.flush();
+    }
 
-        return out.toByteArray();
+    /**
+     * Percorre as transações gravadas (cursor forward-only, data decrescente) intercalando
+     * as linhas sintéticas, na mesma ordem de getTransactionsByFilters. Deve ser chamado
+     * dentro de uma transação.
+     */
+    private void forEachMergedTransaction(
+            Long userId,
+            ReportRequestDTO request,
+            ReportSources sources,
+            TransactionConsumer consumer
+    ) throws IOException {
+        try (Stream<Transaction> stored = transactionRepository.streamByFilters(
+                userId, resolveStartDate(request), resolveEndDate(request), resolveType(request), request.getCategory())) {
+            Iterator<Transaction> merged = mergedTransactions(stored.iterator(), sources);
+            while (merged.hasNext()) {
+                Transaction transaction = merged.next();
+                consumer.accept(transaction);
+                // Libera a entidade gravada do contexto de persistência para manter o heap constante
+                if (transaction.getId() != null) {
+                    entityManager.detach(transaction);
+                }
+            }
+        }
     }
 
-    public byte[] exportFinancingsToCSV(Long userId) throws IOException {
-        List<Financing> financings = financingRepository.findAll().stream()
-                .filter(f -> f.getUser().getId().equals(userId))
-                .collect(Collectors.toList());
+    @FunctionalInterface
+    private interface TransactionConsumer {
+        void accept(Transaction transaction) throws IOException;
+    }
 
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        OutputStreamWriter writer = new OutputStreamWriter(out);
+    private void printTransaction(CSVPrinter printer, Transaction transaction, DateTimeFormatter formatter) throws IOException {
+        printer.printRecord(
+                transaction.getDate().format(formatter),
+                transaction.getType().toString(),
+                transaction.getCategory(),
+                transaction.getDescription(),
+                String.format("%.2f", transaction.getAmount())
+        );
+    }
 
+    @Transactional(readOnly = true)
+    public void exportFinancingsToCSV(Long userId, OutputStream out) throws IOException {
         CSVFormat csvFormat = CSVFormat.DEFAULT.builder()
                 .setHeader("Nome", "Tipo", "Valor Total", "Valor Restante", "Parcela Mensal", "Data Final")
                 .build();
 
-        try (CSVPrinter printer = new CSVPrinter(writer, csvFormat)) {
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        CSVPrinter printer = new CSVPrinter(writer, csvFormat);
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
-            for (Financing financing : financings) {
+        try (Stream<Financing> financings = financingRepository.streamByUserId(userId)) {
+            Iterator<Financing> iterator = financings.iterator();
+            while (iterator.hasNext()) {
+                Financing financing = iterator.next();
                 printer.printRecord(
                         financing.getName(),
                         financing.getType().toString(),
@@ -406,61 +638,91 @@ public class ReportService {
                         String.format("%.2f", financing.getMonthlyPayment()),
                         financing.getEndDate().format(formatter)
                 );
+                entityManager.detach(financing);
             }
-
-            printer.flush();
         }
 
-        return out.toByteArray();
+        printer.flush();
     }
 
-    public byte[] exportReportToPDF(Long userId, ReportRequestDTO request) throws IOException {
-        ReportSummaryDTO summary = getReportSummary(userId, request);
-        List<Transaction> transactions = getTransactionsByFilters(userId, request);
+    /**
+     * Gera o PDF do relatório diretamente no stream de saída. As linhas sintéticas são
+     * calculadas uma única vez e o cursor é percorrido uma única vez: o detalhamento é
+     * renderizado numa tabela "large" do iText, descarregada a cada bloco de linhas, com as
+     * páginas liberadas assim que concluídas. O resumo vem da agregação no banco, antes da
+     * tabela; com o push-down desabilitado, é calculado durante a mesma leitura e escrito
+     * depois da tabela.
+     */
+    @Transactional(readOnly = true)
+    public void exportReportToPDF(Long userId, ReportRequestDTO request, OutputStream out) throws IOException {
+        ReportSources sources = loadSources(userId, request, true);
+
+        PdfWriter writer = new PdfWriter(out);
+        PdfDocument pdf = new PdfDocument(writer);
+        Document document = new Document(pdf, PageSize.A4, true);
 
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
-        com.itextpdf.kernel.pdf.PdfWriter writer = new com.itextpdf.kernel.pdf.PdfWriter(out);
-        com.itextpdf.kernel.pdf.PdfDocument pdf = new com.itextpdf.kernel.pdf.PdfDocument(writer);
-        com.itextpdf.layout.Document document = new com.itextpdf.layout.Document(pdf);
+        document.add(new Paragraph("RELATÓRIO FINANCEIRO").setBold().setFontSize(16));
+        document.add(new Paragraph(" "));
+        document.add(new Paragraph(
+                "Período: " + resolveStartDate(request).format(formatter) + " a " + resolveEndDate(request).format(formatter)));
+        document.add(new Paragraph(" "));
 
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+        if (summaryPushDown) {
+            addSummary(document, summarizeWithPushDown(userId, request, sources));
+            document.add(new Paragraph(" "));
+        }
+        document.add(new Paragraph("TRANSAÇÕES DETALHADAS").setBold());
+
+        Table table = new Table(UnitValue.createPercentArray(new float[]{12, 10, 18, 45, 15}), true)
+                .useAllAvailableWidth();
+        for (String header : new String[]{"Data", "Tipo", "Categoria", "Descrição", "Valor (R$)"}) {
+            table.addHeaderCell(new Cell().add(new Paragraph(header).setBold()).setFontSize(9));
+        }
+        document.add(table);
 
-        document.add(new com.itextpdf.layout.element.Paragraph("RELATÓRIO FINANCEIRO").setBold().setFontSize(16));
-        document.add(new com.itextpdf.layout.element.Paragraph(" "));
-        document.add(new com.itextpdf.layout.element.Paragraph(
-                "Período: " + request.getStartDate() + " a " + request.getEndDate()));
-        document.add(new com.itextpdf.layout.element.Paragraph(" "));
+        ReportAggregator aggregator = summaryPushDown ? null : new ReportAggregator();
+        int[] rows = {0};
+        forEachMergedTransaction(userId, request, sources, transaction -> {
+            if (aggregator != null) {
+                aggregator.add(transaction);
+            }
+            table.addCell(new Cell().add(new Paragraph(transaction.getDate().format(formatter))).setFontSize(8));
+            table.addCell(new Cell().add(new Paragraph(String.valueOf(transaction.getType()))).setFontSize(8));
+            table.addCell(new Cell().add(new Paragraph(safe(transaction.getCategory()))).setFontSize(8));
+            table.addCell(new Cell().add(new Paragraph(safe(transaction.getDescription()))).setFontSize(8));
+            table.addCell(new Cell().add(new Paragraph(String.format("%.2f", transaction.getAmount())))
+                    .setTextAlignment(TextAlignment.RIGHT).setFontSize(8));
+            if (++rows[0] % PDF_FLUSH_ROWS == 0) {
+                table.flush();
+            }
+        });
+        table.complete();
 
-        document.add(new com.itextpdf.layout.element.Paragraph("RESUMO").setBold());
-        document.add(new com.itextpdf.layout.element.Paragraph("Total de Receitas: R$ " + String.format("%.2f", summary.getTotalIncome())));
-        document.add(new com.itextpdf.layout.element.Paragraph("Total de Despesas: R$ " + String.format("%.2f", summary.getTotalExpense())));
-        document.add(new com.itextpdf.layout.element.Paragraph("Saldo: R$ " + String.format("%.2f", summary.getBalance())));
-        document.add(new com.itextpdf.layout.element.Paragraph("Total de Transações: " + summary.getTotalTransactions()));
-        document.add(new com.itextpdf.layout.element.Paragraph(" "));
+        if (aggregator != null) {
+            document.add(new Paragraph(" "));
+            addSummary(document, aggregator.toSummary());
+        }
 
-        document.add(new com.itextpdf.layout.element.Paragraph("DETALHAMENTO POR CATEGORIA").setBold());
+        document.close();
+    }
+
+    private void addSummary(Document document, ReportSummaryDTO summary) {
+        document.add(new Paragraph("RESUMO").setBold());
+        document.add(new Paragraph("Total de Receitas: R$ " + String.format("%.2f", summary.getTotalIncome())));
+        document.add(new Paragraph("Total de Despesas: R$ " + String.format("%.2f", summary.getTotalExpense())));
+        document.add(new Paragraph("Saldo: R$ " + String.format("%.2f", summary.getBalance())));
+        document.add(new Paragraph("Total de Transações: " + summary.getTotalTransactions()));
+        document.add(new Paragraph(" "));
+
+        document.add(new Paragraph("DETALHAMENTO POR CATEGORIA").setBold());
         for (CategorySummaryDTO category : summary.getCategoryBreakdown()) {
-            document.add(new com.itextpdf.layout.element.Paragraph(
+            document.add(new Paragraph(
                     category.getCategory() + " (" + category.getType() + "): R$ "
                             + String.format("%.2f", category.getTotalAmount())
                             + " (" + category.getTransactionCount() + " transações)"
             ));
         }
-
-        document.add(new com.itextpdf.layout.element.Paragraph(" "));
-        document.add(new com.itextpdf.layout.element.Paragraph("TRANSAÇÕES DETALHADAS").setBold());
-        for (Transaction transaction : transactions) {
-            document.add(new com.itextpdf.layout.element.Paragraph(
-                    transaction.getDate().format(formatter) + " - "
-                            + transaction.getType() + " - "
-                            + transaction.getCategory() + " - "
-                            + transaction.getDescription() + " - R$ "
-                            + String.format("%.2f", transaction.getAmount())
-            ));
-        }
-
-        document.close();
-        return out.toByteArray();
     }
 }
@@ -0,0 +1,528 @@
+package com.qfin.qfinbackend.service;
+
+import com.qfin.qfinbackend.model.ActionLog;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * Logs de auditoria em arquivos de segmento append-only, mapeados em memória, fora do
+ * banco relacional. Cada segmento ("audit-&lt;primeiro id&gt;.seg") tem capacidade fixa e é
+ * fechado ao encher ou após roll-hours; a partir daí só é lido, e a retenção apaga o
+ * arquivo inteiro ou o reescreve só com os registros ainda válidos (compactação).
+ * <p>
+ * Formato do registro: tamanho (int), CRC32 do restante (int), id, userId, timestamp em
+ * microssegundos UTC, latencyMs (-1 quando ausente) e os textos email, action, details e
+ * ipAddress como (short tamanho, bytes UTF-8), com tamanho -1 para null. Na abertura os
+ * segmentos são lidos até o primeiro registro vazio ou com CRC inválido, o que descarta
+ * uma gravação interrompida.
+ * <p>
+ * O índice fica em memória e é reconstruído na abertura: intervalo de tempo e de ids por
+ * segmento, para descartar segmentos inteiros, as posições dos registros de cada usuário
+ * por segmento, para as consultas por usuário não varrerem os registros dos outros, e
+ * checkpoints esparsos de tempo a cada {@value #CHECKPOINT_BYTES} bytes, para as consultas
+ * sem usuário lerem só os blocos que podem entrar na página.
+ * <p>
+ * O diretório é a única cópia dos logs e precisa ser configurado explicitamente
+ * (app.audit.file.dir) em um disco persistente.
+ */
+@Component
+@ConditionalOnProperty(name = "app.audit.store", havingValue = "file")
+public class SegmentedFileActionLogStore implements ActionLogStore {
+
+    private static final Logger log = LoggerFactory.getLogger(SegmentedFileActionLogStore.class);
+
+    private static final String PREFIX = "audit-";
+    private static final String SUFFIX = ".seg";
+    private static final String COMPACT_SUFFIX = ".compact";
+
+    // tamanho, crc, id, userId, timestamp, latencyMs
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 8 + 8 + 8;
+    private static final int CRC_START = 8;
+    private static final int MIN_SEGMENT_BYTES = 1024 * 1024;
+    private static final int CHECKPOINT_BYTES = 64 * 1024;
+
+    @Value("${app.audit.file.dir:}")
+    private String directory;
+
+    @Value("${app.audit.file.segment-bytes:67108864}")
+    private int segmentBytes = 64 * 1024 * 1024;
+
+    @Value("${app.audit.file.roll-hours:24}")
+    private long rollHours = 24;
+
+    @Value("${app.audit.file.fsync:false}")
+    private boolean fsync;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Em ordem de id; o último é o segmento ativo
+    private final List<Segment> segments = new ArrayList<>();
+    private Path root;
+    private long nextId = 1;
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (directory == null || directory.isBlank()) {
+            throw new IllegalStateException("app.audit.file.dir é obrigatório quando app.audit.store=file");
+        }
+        if (segmentBytes < MIN_SEGMENT_BYTES) {
+            throw new IllegalStateException("app.audit.file.segment-bytes deve ser de pelo menos " + MIN_SEGMENT_BYTES);
+        }
+        root = Paths.get(directory).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(root, PREFIX + "*")) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(COMPACT_SUFFIX)) {
+                    // Compactação interrompida: o segmento original continua válido
+                    Files.delete(file);
+                } else if (name.endsWith(SUFFIX)) {
+                    files.add(file);
+                }
+            }
+        }
+        files.sort(Comparator.comparingLong(SegmentedFileActionLogStore::baseId));
+        for (Path file : files) {
+            Segment segment = Segment.open(file, baseId(file), Files.size(file));
+            segments.add(segment);
+            nextId = Math.max(nextId, segment.maxId + 1);
+        }
+        if (segments.isEmpty() || active().capacity() < segmentBytes) {
+            // Segmento compactado é somente leitura: continua em um novo
+            roll();
+        }
+        log.info("Auditoria em arquivos: {} segmentos em {}", segments.size(), root);
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            for (Segment segment : segments) {
+                segment.buffer.force();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void append(List<ActionLog> batch) {
+        lock.writeLock().lock();
+        try {
+            Segment active = active();
+            long rollMicros = TimeUnit.HOURS.toMicros(rollHours);
+            for (ActionLog entry : batch) {
+                entry.setId(nextId);
+                byte[] record = encode(entry);
+                // A idade do segmento vem do primeiro registro, e não da abertura do arquivo,
+                // para a rolagem continuar valendo depois de reinícios
+                boolean expired = active.count > 0 && toMicros(entry.getTimestamp()) - active.firstMicros > rollMicros;
+                if (expired || active.position + record.length > active.capacity()) {
+                    active.buffer.force();
+                    active = roll();
+                }
+                active.append(record);
+                nextId++;
+            }
+            if (fsync) {
+                active.buffer.force();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar logs de auditoria em " + root, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<ActionLog> findPage(Long userId, LocalDateTime from, LocalDateTime beforeTimestamp,
+                                    long beforeId, String action, int limit) {
+        long fromMicros = toMicros(from);
+        long beforeMicros = toMicros(beforeTimestamp);
+        // Os limit maiores (timestamp, id) encontrados; o topo é o menor deles
+        PriorityQueue<Hit> best = new PriorityQueue<>(Hit.ORDER);
+
+        lock.readLock().lock();
+        try {
+            List<Segment> candidates = new ArrayList<>(segments);
+            candidates.sort(Comparator.comparingLong((Segment segment) -> segment.maxMicros).reversed());
+            for (Segment segment : candidates) {
+                if (segment.count == 0 || segment.maxMicros < fromMicros || segment.minMicros > beforeMicros) continue;
+                // Nenhum registro deste segmento (nem dos seguintes) entra mais na página
+                if (best.size() == limit && segment.maxMicros < best.peek().micros) break;
+
+                if (userId != null) {
+                    OffsetList offsets = segment.userOffsets.get(userId);
+                    if (offsets == null) continue;
+                    for (int i = offsets.size - 1; i >= 0; i--) {
+                        collect(segment, offsets.values[i], fromMicros, beforeMicros, beforeId, action, limit, best);
+                    }
+                } else {
+                    // Do bloco mais novo para o mais antigo, a partir do primeiro que alcança fromMicros
+                    for (int block = segment.blocks - 1; block >= segment.firstBlockReaching(fromMicros); block--) {
+                        if (best.size() == limit && segment.blockMaxMicros[block] < best.peek().micros) break;
+                        if (segment.blockMinMicros[block] > beforeMicros) continue;
+                        int end = block + 1 < segment.blocks ? segment.blockOffsets[block + 1] : segment.position;
+                        for (int offset = segment.blockOffsets[block]; offset < end; offset += segment.buffer.getInt(offset)) {
+                            collect(segment, offset, fromMicros, beforeMicros, beforeId, action, limit, best);
+                        }
+                    }
+                }
+            }
+
+            List<ActionLog> page = new ArrayList<>(best.size());
+            while (!best.isEmpty()) {
+                Hit hit = best.poll();
+                page.add(decode(hit.segment.buffer, hit.offset));
+            }
+            // A fila devolve do menor para o maior
+            Collections.reverse(page);
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void collect(Segment segment, int offset, long fromMicros, long beforeMicros, long beforeId,
+                                String action, int limit, PriorityQueue<Hit> best) {
+        ByteBuffer buffer = segment.buffer;
+        long id = buffer.getLong(offset + 8);
+        long micros = buffer.getLong(offset + 24);
+        if (micros < fromMicros) return;
+        if (micros > beforeMicros || (micros == beforeMicros && id >= beforeId)) return;
+        Hit hit = new Hit(micros, id, segment, offset);
+        if (best.size() == limit && Hit.ORDER.compare(hit, best.peek()) <= 0) return;
+        if (action != null && !action.equals(readAction(buffer, offset))) return;
+        best.add(hit);
+        if (best.size() > limit) best.poll();
+    }
+
+    /**
+     * Segmentos inteiramente expirados são apagados; os parcialmente expirados (já fechados)
+     * são reescritos só com os registros válidos. O segmento ativo é fechado antes quando
+     * todos os seus registros expiraram.
+     */
+    @Override
+    public int purgeBefore(LocalDateTime cutoff) {
+        long cutoffMicros = toMicros(cutoff);
+        int removed = 0;
+        lock.writeLock().lock();
+        try {
+            if (active().count > 0 && active().maxMicros < cutoffMicros) {
+                roll();
+            }
+            for (int i = segments.size() - 2; i >= 0; i--) {
+                Segment segment = segments.get(i);
+                if (segment.count == 0 || segment.maxMicros < cutoffMicros) {
+                    removed += segment.count;
+                    Files.deleteIfExists(segment.path);
+                    segments.remove(i);
+                } else if (segment.minMicros < cutoffMicros) {
+                    Segment compacted = compact(segment, cutoffMicros);
+                    removed += segment.count - compacted.count;
+                    segments.set(i, compacted);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao remover logs de auditoria expirados em " + root, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return removed;
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        lock.readLock().lock();
+        try {
+            long records = 0;
+            long bytes = 0;
+            for (Segment segment : segments) {
+                records += segment.count;
+                bytes += segment.position;
+            }
+            return Map.of(
+                    "type", "file",
+                    "directory", root.toString(),
+                    "segments", segments.size(),
+                    "records", records,
+                    "bytes", bytes
+            );
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Segment active() {
+        return segments.get(segments.size() - 1);
+    }
+
+    private Segment roll() throws IOException {
+        if (!segments.isEmpty()) {
+            active().buffer.force();
+        }
+        Segment segment = Segment.open(root.resolve(fileName(nextId)), nextId, segmentBytes);
+        segments.add(segment);
+        return segment;
+    }
+
+    private Segment compact(Segment segment, long cutoffMicros) throws IOException {
+        Path temp = segment.path.resolveSibling(segment.path.getFileName() + COMPACT_SUFFIX);
+        long liveBytes = 0;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (int offset = 0; offset < segment.position; ) {
+                int length = segment.buffer.getInt(offset);
+                if (segment.buffer.getLong(offset + 24) >= cutoffMicros) {
+                    // Registro copiado como está, com o CRC original
+                    ByteBuffer record = segment.buffer.slice(offset, length);
+                    while (record.hasRemaining()) {
+                        channel.write(record);
+                    }
+                    liveBytes += length;
+                }
+                offset += length;
+            }
+            channel.force(true);
+        }
+        Files.move(temp, segment.path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return Segment.open(segment.path, segment.baseId, liveBytes);
+    }
+
+    private static byte[] encode(ActionLog entry) {
+        byte[][] texts = {
+                utf8(entry.getUserEmail()), utf8(entry.getAction()), utf8(entry.getDetails()), utf8(entry.getIpAddress())
+        };
+        int length = HEADER_BYTES;
+        for (byte[] text : texts) {
+            length += 2 + (text == null ? 0 : text.length);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.putInt(length);
+        buffer.putInt(0);
+        buffer.putLong(entry.getId());
+        buffer.putLong(entry.getUserId());
+        buffer.putLong(toMicros(entry.getTimestamp()));
+        buffer.putLong(entry.getLatencyMs() == null ? -1 : entry.getLatencyMs());
+        for (byte[] text : texts) {
+            if (text == null) {
+                buffer.putShort((short) -1);
+            } else {
+                buffer.putShort((short) text.length);
+                buffer.put(text);
+            }
+        }
+        byte[] record = buffer.array();
+        CRC32 crc = new CRC32();
+        crc.update(record, CRC_START, length - CRC_START);
+        ByteBuffer.wrap(record).putInt(4, (int) crc.getValue());
+        return record;
+    }
+
+    private static ActionLog decode(ByteBuffer buffer, int offset) {
+        ActionLog entry = new ActionLog();
+        entry.setId(buffer.getLong(offset + 8));
+        entry.setUserId(buffer.getLong(offset + 16));
+        entry.setTimestamp(fromMicros(buffer.getLong(offset + 24)));
+        long latencyMs = buffer.getLong(offset + 32);
+        entry.setLatencyMs(latencyMs < 0 ? null : latencyMs);
+        int[] position = {offset + HEADER_BYTES};
+        entry.setUserEmail(readText(buffer, position));
+        entry.setAction(readText(buffer, position));
+        entry.setDetails(readText(buffer, position));
+        entry.setIpAddress(readText(buffer, position));
+        return entry;
+    }
+
+    private static String readAction(ByteBuffer buffer, int offset) {
+        int[] position = {offset + HEADER_BYTES};
+        short emailLength = buffer.getShort(position[0]);
+        position[0] += 2 + Math.max(emailLength, 0);
+        return readText(buffer, position);
+    }
+
+    private static String readText(ByteBuffer buffer, int[] position) {
+        short length = buffer.getShort(position[0]);
+        position[0] += 2;
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        buffer.get(position[0], bytes);
+        position[0] += length;
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Textos maiores que um short são truncados; as colunas do log já têm no máximo 500 caracteres
+    private static byte[] utf8(String value) {
+        if (value == null) return null;
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        return bytes.length > Short.MAX_VALUE ? Arrays.copyOf(bytes, Short.MAX_VALUE) : bytes;
+    }
+
+    private static long toMicros(LocalDateTime timestamp) {
+        return timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + timestamp.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    private static String fileName(long baseId) {
+        return String.format("%s%020d%s", PREFIX, baseId, SUFFIX);
+    }
+
+    private static long baseId(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    private record Hit(long micros, long id, Segment segment, int offset) {
+        static final Comparator<Hit> ORDER = Comparator.comparingLong(Hit::micros).thenComparingLong(Hit::id);
+    }
+
+    private static final class OffsetList {
+        int[] values = new int[8];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+
+    private static final class Segment {
+        final Path path;
+        final long baseId;
+        final MappedByteBuffer buffer;
+        final Map<Long, OffsetList> userOffsets = new HashMap<>();
+        // Checkpoints: offset do primeiro registro de cada bloco, menor timestamp do bloco e
+        // maior timestamp até o fim do bloco (não decrescente, permite busca binária)
+        int[] blockOffsets = new int[16];
+        long[] blockMinMicros = new long[16];
+        long[] blockMaxMicros = new long[16];
+        int blocks;
+        int position;
+        int count;
+        long firstMicros;
+        long minMicros = Long.MAX_VALUE;
+        long maxMicros = Long.MIN_VALUE;
+        long maxId;
+
+        private Segment(Path path, long baseId, MappedByteBuffer buffer) {
+            this.path = path;
+            this.baseId = baseId;
+            this.buffer = buffer;
+        }
+
+        /**
+         * Mapeia o arquivo (criando-o com o tamanho pedido, se preciso) e reconstrói o
+         * índice lendo os registros válidos.
+         */
+        static Segment open(Path path, long baseId, long size) throws IOException {
+            MappedByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            }
+            Segment segment = new Segment(path, baseId, buffer);
+            CRC32 crc = new CRC32();
+            while (segment.position + HEADER_BYTES <= buffer.capacity()) {
+                int offset = segment.position;
+                int length = buffer.getInt(offset);
+                if (length < HEADER_BYTES || offset + length > buffer.capacity()) break;
+                crc.reset();
+                crc.update(buffer.slice(offset + CRC_START, length - CRC_START));
+                if ((int) crc.getValue() != buffer.getInt(offset + 4)) break;
+                segment.index(offset, length);
+            }
+            return segment;
+        }
+
+        int capacity() {
+            return buffer.capacity();
+        }
+
+        void append(byte[] record) {
+            buffer.put(position, record);
+            index(position, record.length);
+        }
+
+        /** Primeiro bloco que pode ter registros a partir de fromMicros; antes dele, todos são anteriores. */
+        int firstBlockReaching(long fromMicros) {
+            int low = 0;
+            int high = blocks;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (blockMaxMicros[middle] < fromMicros) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private void index(int offset, int length) {
+            long micros = buffer.getLong(offset + 24);
+            if (count == 0) {
+                firstMicros = micros;
+            }
+            if (blocks == 0 || offset - blockOffsets[blocks - 1] >= CHECKPOINT_BYTES) {
+                if (blocks == blockOffsets.length) {
+                    blockOffsets = Arrays.copyOf(blockOffsets, blocks * 2);
+                    blockMinMicros = Arrays.copyOf(blockMinMicros, blocks * 2);
+                    blockMaxMicros = Arrays.copyOf(blockMaxMicros, blocks * 2);
+                }
+                blockOffsets[blocks] = offset;
+                blockMinMicros[blocks] = micros;
+                blockMaxMicros[blocks] = blocks == 0 ? micros : Math.max(blockMaxMicros[blocks - 1], micros);
+                blocks++;
+            } else {
+                blockMinMicros[blocks - 1] = Math.min(blockMinMicros[blocks - 1], micros);
+                blockMaxMicros[blocks - 1] = Math.max(blockMaxMicros[blocks - 1], micros);
+            }
+            userOffsets.computeIfAbsent(buffer.getLong(offset + 16), id -> new OffsetList()).add(offset);
+            minMicros = Math.min(minMicros, micros);
+            maxMicros = Math.max(maxMicros, micros);
+            maxId = Math.max(maxId, buffer.getLong(offset + 8));
+            count++;
+            position = offset + length;
+        }
+    }
+}
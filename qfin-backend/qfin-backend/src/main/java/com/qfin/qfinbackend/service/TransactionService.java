@@ -1,14 +1,19 @@
 package com.qfin.qfinbackend.service;
 
+import com.qfin.qfinbackend.dto.TransactionPageDTO;
 import com.qfin.qfinbackend.model.Transaction;
 import com.qfin.qfinbackend.model.User;
 import com.qfin.qfinbackend.repository.TransactionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 public class TransactionService {
@@ -16,14 +21,56 @@ public class TransactionService {
     @Autowired
     private TransactionRepository transactionRepository;
 
+    @Autowired
+    private DashboardCache dashboardCache;
+
+    @Value("${app.transactions.page-size.default:50}")
+    private int defaultPageSize;
+
+    @Value("${app.transactions.page-size.max:500}")
+    private int maxPageSize;
+
     public List<Transaction> getAllTransactions() {
         return transactionRepository.findAll();
     }
 
     public List<Transaction> getTransactionsByUser(User user) {
-        return transactionRepository.findAll().stream()
-                .filter(t -> t.getUser().getId().equals(user.getId()))
-                .collect(Collectors.toList());
+        return transactionRepository.findByUserIdOrderByDateDescIdDesc(user.getId());
+    }
+
+    /**
+     * Lista as transações do usuário em páginas ordenadas por (date, id) decrescente.
+     * O cursor tem o formato "yyyy-MM-dd:id" e aponta para a última transação da
+     * página anterior; quando nulo, retorna a primeira página.
+     */
+    public TransactionPageDTO getTransactionPageByUser(User user, String cursor, Integer size) {
+        int pageSize = size == null || size <= 0 ? defaultPageSize : Math.min(size, maxPageSize);
+        // Busca um item a mais para saber se existe próxima página
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        List<Transaction> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = transactionRepository.findPageByUserId(user.getId(), limit);
+        } else {
+            int separator = cursor.lastIndexOf(':');
+            LocalDate cursorDate;
+            Long cursorId;
+            try {
+                cursorDate = LocalDate.parse(cursor.substring(0, Math.max(separator, 0)));
+                cursorId = Long.valueOf(cursor.substring(separator + 1));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Cursor inválido: " + cursor);
+            }
+            rows = transactionRepository.findPageByUserIdAfter(user.getId(), cursorDate, cursorId, limit);
+        }
+
+        String next = null;
+        if (rows.size() > pageSize) {
+            rows = new ArrayList<>(rows.subList(0, pageSize));
+            Transaction last = rows.get(pageSize - 1);
+            next = last.getDate() + ":" + last.getId();
+        }
+        return new TransactionPageDTO(rows, next);
     }
 
     public Optional<Transaction> getTransactionById(Long id) {
@@ -36,7 +83,11 @@ public class TransactionService {
     }
 
     public Transaction createTransaction(Transaction transaction) {
-        return transactionRepository.save(transaction);
+        Transaction saved = transactionRepository.save(transaction);
+        if (saved.getUser() != null) {
+            dashboardCache.invalidate(saved.getUser().getId());
+        }
+        return saved;
     }
 
     public Transaction updateTransaction(Long id, Transaction transactionDetails, User user) {
@@ -48,13 +99,18 @@ public class TransactionService {
                     transaction.setCategory(transactionDetails.getCategory());
                     transaction.setDescription(transactionDetails.getDescription());
                     transaction.setDate(transactionDetails.getDate());
-                    return transactionRepository.save(transaction);
+                    Transaction saved = transactionRepository.save(transaction);
+                    dashboardCache.invalidate(user.getId());
+                    return saved;
                 }).orElse(null);
     }
 
     public void deleteTransaction(Long id, User user) {
         transactionRepository.findById(id)
                 .filter(t -> t.getUser().getId().equals(user.getId()))
-                .ifPresent(transactionRepository::delete);
+                .ifPresent(transaction -> {
+                    transactionRepository.delete(transaction);
+                    dashboardCache.invalidate(user.getId());
+                });
     }
 }
@@ -0,0 +1,8 @@
+package com.qfin.qfinbackend.service;
+
+/**
+ * Evento publicado quando muda algum dado que o usuário acompanha em tempo real
+ * (lançamentos, financiamentos, recorrências ou notificações).
+ */
+public record UserDataChangedEvent(Long userId) {
+}
@@ -0,0 +1,119 @@
+package com.qfin.qfinbackend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache dos UserDetails usados pelo JwtAuthenticationFilter, por email, limitado em
+ * quantidade (LRU) e com TTL. Com o cache quente, uma requisição autenticada não consulta
+ * o banco. Alterações de senha, papel ou email chamam invalidate; dentro de uma transação
+ * a invalidação é repetida após o commit, como no DashboardCache.
+ */
+@Component
+public class UserDetailsCache {
+
+    private static final long ABSENT = -1;
+
+    private record Entry(UserDetails userDetails, long expiresAt, long version) {
+    }
+
+    @Value("${app.auth.user-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.auth.user-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${app.auth.user-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    // Em ordem de acesso; entradas sem UserDetails marcam uma invalidação recente
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            if (size() > maxEntries) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private long nextVersion;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Retorna o UserDetails em cache ou carrega e guarda um novo. Exceções do loader (por
+     * exemplo UsernameNotFoundException) não são guardadas.
+     */
+    public UserDetails get(String email, Supplier<UserDetails> loader) {
+        if (!enabled) return loader.get();
+
+        long version;
+        synchronized (this) {
+            Entry entry = entries.get(email);
+            if (entry != null && entry.userDetails() != null && entry.expiresAt() > System.currentTimeMillis()) {
+                hits.incrementAndGet();
+                return entry.userDetails();
+            }
+            version = entry != null ? entry.version() : ABSENT;
+        }
+        misses.incrementAndGet();
+
+        UserDetails userDetails = loader.get();
+        synchronized (this) {
+            Entry current = entries.get(email);
+            long currentVersion = current != null ? current.version() : ABSENT;
+            if (currentVersion == version) {
+                entries.put(email, new Entry(userDetails, System.currentTimeMillis() + ttlSeconds * 1000, nextVersion++));
+            }
+        }
+        return userDetails;
+    }
+
+    public void invalidate(String email) {
+        if (email == null) return;
+        evict(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(email);
+                }
+            });
+        }
+    }
+
+    private synchronized void evict(String email) {
+        invalidations.incrementAndGet();
+        entries.put(email, new Entry(null, 0, nextVersion++));
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long requests = hitCount + missCount;
+        return Map.of(
+                "enabled", enabled,
+                "size", entries.size(),
+                "maxEntries", maxEntries,
+                "ttlSeconds", ttlSeconds,
+                "hits", hitCount,
+                "misses", missCount,
+                "hitRate", requests == 0 ? 0.0 : (double) hitCount / requests,
+                "evictions", evictions.get(),
+                "invalidations", invalidations.get()
+        );
+    }
+}
@@ -25,6 +25,9 @@ public class UserService {
     @Autowired
     private ActionLogService actionLogService;
 
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
     public User register(User user) {
         if (userRepository.findByEmail(user.getEmail()).isPresent()) {
             throw new RuntimeException("Email já cadastrado");
@@ -73,6 +76,8 @@ public class UserService {
         }
         user.setName(newName);
         User saved = userRepository.save(user);
+        userDetailsCache.invalidate(currentEmail);
+        userDetailsCache.invalidate(newEmail);
         actionLogService.log(saved.getId(), saved.getEmail(), "UPDATE_PROFILE", "Perfil atualizado");
         return saved;
     }
@@ -89,6 +94,7 @@ public class UserService {
         }
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        userDetailsCache.invalidate(email);
         actionLogService.log(user.getId(), user.getEmail(), "CHANGE_PASSWORD", "Senha alterada");
     }
 
@@ -98,6 +104,7 @@ public class UserService {
         UserRole oldRole = target.getRole();
         target.setRole(newRole);
         userRepository.save(target);
+        userDetailsCache.invalidate(target.getEmail());
         actionLogService.log(adminId, adminEmail, "CHANGE_ROLE",
                 String.format("Papel do usuário %s alterado de %s para %s", target.getEmail(), oldRole, newRole));
     }
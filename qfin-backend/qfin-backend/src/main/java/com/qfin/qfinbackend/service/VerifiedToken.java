@@ -0,0 +1,13 @@
+package com.qfin.qfinbackend.service;
+
+import java.time.Instant;
+
+/**
+ * Claims de um JWT cuja assinatura e validade já foram verificadas pelo JwtUtil.
+ */
+public record VerifiedToken(String subject, Instant issuedAt, Instant expiresAt) {
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !expiresAt.isAfter(now);
+    }
+}
@@ -0,0 +1,98 @@
+package com.qfin.qfinbackend.service;
+
+import com.qfin.qfinbackend.dto.ActionLogPageDTO;
+import com.qfin.qfinbackend.model.ActionLog;
+import com.qfin.qfinbackend.repository.ActionLogRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"app.audit.retention-days=30", "app.audit.purge.batch-size=3"})
+class ActionLogServiceTest {
+
+    @Autowired
+    private ActionLogService actionLogService;
+
+    @Autowired
+    private ActionLogRepository actionLogRepository;
+
+    private ActionLog salvar(Long userId, String action, LocalDateTime timestamp) {
+        ActionLog log = new ActionLog(userId, "paginacao@teste.com", action, "teste");
+        log.setTimestamp(timestamp);
+        return actionLogRepository.save(log);
+    }
+
+    @Test
+    void devePaginarPorCursorSemRepetirNemPularLogs() {
+        Long userId = System.nanoTime();
+        LocalDateTime base = LocalDateTime.of(2026, 3, 1, 12, 0);
+        for (int i = 0; i < 7; i++) {
+            // Timestamps repetidos: o id desempata a ordem
+            salvar(userId, "LOGIN", base.plusMinutes(i / 2));
+        }
+
+        List<ActionLog> todos = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            ActionLogPageDTO page = actionLogService.getLogPage(userId, null, null, null, cursor, 3);
+            todos.addAll(page.getItems());
+            cursor = page.getNext();
+            paginas++;
+        } while (cursor != null);
+
+        assertEquals(3, paginas);
+        assertEquals(7, todos.size());
+        Set<Long> ids = new HashSet<>();
+        todos.forEach(log -> ids.add(log.getId()));
+        assertEquals(7, ids.size());
+        for (int i = 1; i < todos.size(); i++) {
+            ActionLog anterior = todos.get(i - 1);
+            ActionLog atual = todos.get(i);
+            assertTrue(anterior.getTimestamp().isAfter(atual.getTimestamp())
+                    || (anterior.getTimestamp().equals(atual.getTimestamp()) && anterior.getId() > atual.getId()));
+        }
+    }
+
+    @Test
+    void deveFiltrarPorIntervaloEAcao() {
+        Long userId = System.nanoTime();
+        LocalDateTime base = LocalDateTime.of(2026, 4, 1, 0, 0);
+        salvar(userId, "LOGIN", base);
+        salvar(userId, "LOGIN", base.plusDays(1));
+        salvar(userId, "CHANGE_PASSWORD", base.plusDays(1));
+        salvar(userId, "LOGIN", base.plusDays(3));
+
+        ActionLogPageDTO page = actionLogService.getLogPage(
+                userId, base.plusDays(1), base.plusDays(2), "LOGIN", null, null);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals(base.plusDays(1), page.getItems().get(0).getTimestamp());
+        assertNull(page.getNext());
+        assertThrows(IllegalArgumentException.class,
+                () -> actionLogService.getLogPage(userId, null, null, null, "invalido", null));
+    }
+
+    @Test
+    void deveRemoverLogsExpiradosEmLotes() {
+        Long userId = System.nanoTime();
+        for (int i = 0; i < 7; i++) {
+            salvar(userId, "LOGIN", LocalDateTime.now().minusDays(31 + i));
+        }
+        ActionLog recente = salvar(userId, "LOGIN", LocalDateTime.now().minusDays(1));
+
+        assertTrue(actionLogService.purgeExpiredLogs() >= 7);
+
+        List<ActionLog> restantes = actionLogService.getLogPage(userId, null, null, null, null, null).getItems();
+        assertEquals(1, restantes.size());
+        assertEquals(recente.getId(), restantes.get(0).getId());
+    }
+}
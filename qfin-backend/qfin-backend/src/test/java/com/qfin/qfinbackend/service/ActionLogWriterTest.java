@@ -0,0 +1,134 @@
+package com.qfin.qfinbackend.service;
+
+import com.qfin.qfinbackend.model.ActionLog;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ActionLogWriterTest {
+
+    @Autowired
+    private ActionLogService actionLogService;
+
+    @Autowired
+    private ActionLogWriter actionLogWriter;
+
+    @Test
+    void deveGravarLogsEnfileiradosAposFlush() {
+        Long userId = System.nanoTime();
+        for (int i = 0; i < 500; i++) {
+            actionLogService.log(userId, "auditoria@teste.com", "TESTE", "Registro " + i);
+        }
+
+        actionLogWriter.flush();
+
+        List<ActionLog> logs = actionLogService.getLogPage(userId, null, null, null, null, 500).getItems();
+        assertEquals(500, logs.size());
+        assertTrue(logs.stream().allMatch(log -> log.getId() != null && log.getTimestamp() != null));
+        assertEquals(0, actionLogWriter.getStats().get("queued"));
+    }
+
+    @Test
+    void deveRecusarLogSemUsuarioSemPerderOLote() {
+        Long userId = System.nanoTime();
+        long recusadosAntes = (Long) actionLogWriter.getStats().get("rejected");
+        for (int i = 0; i < 10; i++) {
+            actionLogService.log(userId, "auditoria@teste.com", "TESTE", "Registro " + i);
+            if (i == 5) {
+                actionLogService.log(null, null, "LOGIN_FAILED", "Usuário desconhecido");
+            }
+        }
+
+        actionLogWriter.flush();
+
+        assertEquals(10, actionLogService.getLogPage(userId, null, null, null, null, 50).getItems().size());
+        assertEquals(recusadosAntes + 1, (Long) actionLogWriter.getStats().get("rejected"));
+    }
+
+    @Test
+    void deveEsperarPorEspacoNaFilaNasRequisicoesSoComBlock() {
+        ActionLog primeiro = new ActionLog(1L, "fila@teste.com", "TESTE", "1");
+        ActionLog segundo = new ActionLog(1L, "fila@teste.com", "TESTE", "2");
+
+        // Fila cheia; a thread de fundo libera espaço pouco depois
+        ActionLogWriter block = filaCheia(ActionLogWriter.OverflowPolicy.BLOCK, primeiro);
+        BlockingQueue<?> fila = (BlockingQueue<?>) ReflectionTestUtils.getField(block, "queue");
+        CompletableFuture.runAsync(() -> {
+            try {
+                fila.poll(1, TimeUnit.SECONDS);
+                TimeUnit.MILLISECONDS.sleep(20);
+                fila.poll();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, CompletableFuture.delayedExecutor(20, TimeUnit.MILLISECONDS));
+        block.offer(List.of(segundo, segundo));
+        assertEquals(0, descartados(block));
+
+        ActionLogWriter drop = filaCheia(ActionLogWriter.OverflowPolicy.DROP, primeiro);
+        drop.offer(List.of(segundo));
+        assertEquals(1, descartados(drop));
+    }
+
+    private static ActionLogWriter filaCheia(ActionLogWriter.OverflowPolicy policy, ActionLog entry) {
+        ActionLogWriter writer = new ActionLogWriter();
+        ReflectionTestUtils.setField(writer, "async", true);
+        ReflectionTestUtils.setField(writer, "overflowPolicy", policy);
+        ReflectionTestUtils.setField(writer, "blockTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(writer, "requestBlockTimeoutMs", 500L);
+        BlockingQueue<ActionLog> queue = new ArrayBlockingQueue<>(1);
+        queue.add(entry);
+        ReflectionTestUtils.setField(writer, "queue", queue);
+        return writer;
+    }
+
+    private static long descartados(ActionLogWriter writer) {
+        return ((AtomicLong) ReflectionTestUtils.getField(writer, "dropped")).get();
+    }
+
+    @Test
+    void deveRegistrarIpELatenciaDaRequisicaoAuditada() {
+        Long userId = System.nanoTime();
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/goals/7");
+        request.setRemoteAddr("203.0.113.9");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/goals/{id}");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            // Com log explícito do service, ele recebe os dados da requisição
+            actionLogService.beginRequest(request);
+            actionLogService.log(userId, "auditoria@teste.com", "CHANGE_PASSWORD", "Senha alterada");
+            actionLogService.completeRequest(request, 200, 42, userId, "auditoria@teste.com");
+
+            // Sem log explícito, um log genérico com a rota
+            actionLogService.beginRequest(request);
+            actionLogService.completeRequest(request, 204, 7, userId, "auditoria@teste.com");
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+        actionLogWriter.flush();
+
+        List<ActionLog> logs = actionLogService.getLogPage(userId, null, null, null, null, 500).getItems();
+        assertEquals(2, logs.size());
+        assertTrue(logs.stream().allMatch(log -> "203.0.113.9".equals(log.getIpAddress())));
+        ActionLog explicito = logs.stream().filter(log -> log.getAction().equals("CHANGE_PASSWORD")).findFirst().orElseThrow();
+        assertEquals(42L, explicito.getLatencyMs());
+        ActionLog generico = logs.stream().filter(log -> log.getAction().equals("PUT /api/goals/{id}")).findFirst().orElseThrow();
+        assertEquals("HTTP 204", generico.getDetails());
+        assertEquals(7L, generico.getLatencyMs());
+    }
+}
@@ -0,0 +1,106 @@
+package com.qfin.qfinbackend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.qfin.qfinbackend.dto.DashboardDTO;
+import com.qfin.qfinbackend.dto.DashboardFinancingDTO;
+import com.qfin.qfinbackend.dto.DashboardTransactionDTO;
+import com.qfin.qfinbackend.model.Financing;
+import com.qfin.qfinbackend.model.Transaction;
+import com.qfin.qfinbackend.model.Transaction.TransactionType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a serialização do dashboard como Map de entidades (formato anterior) com o
+ * DashboardDTO; a alocação por operação aparece em gc.alloc.rate.norm.
+ * Executar com: mvn -Pbenchmark clean test-compile exec:exec -Dbenchmark=DashboardSerializationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DashboardSerializationBenchmark {
+
+    private final ObjectMapper mapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private Map<String, Object> entityMap;
+    private DashboardDTO dto;
+
+    @Setup
+    public void setUp() {
+        LocalDate base = LocalDate.of(2025, 3, 1);
+        List<Transaction> transactions = new ArrayList<>();
+        List<DashboardTransactionDTO> transactionDTOs = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Transaction t = new Transaction();
+            t.setId((long) i);
+            t.setType(TransactionType.EXPENSE);
+            t.setAmount(100.0 + i);
+            t.setCategory("Mercado");
+            t.setDescription("Compra " + i);
+            t.setDate(base.plusDays(i));
+            transactions.add(t);
+            transactionDTOs.add(new DashboardTransactionDTO(t.getId(), t.getType(), t.getAmount(),
+                    t.getCategory(), t.getDescription(), t.getDate()));
+        }
+        List<Financing> financings = new ArrayList<>();
+        List<DashboardFinancingDTO> financingDTOs = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Financing f = new Financing();
+            f.setId((long) i);
+            f.setName("Financiamento " + i);
+            f.setType("VEICULO");
+            f.setTotalAmount(30000.0);
+            f.setRemainingAmount(12000.0);
+            f.setMonthlyPayment(1000.0);
+            f.setEndDate(base.plusYears(2));
+            financings.add(f);
+            financingDTOs.add(new DashboardFinancingDTO(f.getId(), f.getName(), f.getTotalAmount(),
+                    f.getRemainingAmount(), f.getMonthlyPayment(), f.getType(), f.getEndDate()));
+        }
+
+        entityMap = new HashMap<>();
+        entityMap.put("totalIncome", 5000.0);
+        entityMap.put("totalExpenses", 3200.0);
+        entityMap.put("totalBalance", 1800.0);
+        entityMap.put("financingsCount", financings.size());
+        entityMap.put("recentTransactions", transactions);
+        entityMap.put("financings", financings);
+        entityMap.put("transactionsCount", 120);
+        entityMap.put("multiCurrencyTransactionsCount", 4);
+        entityMap.put("recurringTransactionsCount", 6);
+
+        dto = new DashboardDTO(5000.0, 3200.0, 1800.0, 120, financings.size(), 4, 6,
+                List.copyOf(transactionDTOs), List.copyOf(financingDTOs));
+    }
+
+    @Benchmark
+    public byte[] entityMap() throws Exception {
+        return mapper.writeValueAsBytes(entityMap);
+    }
+
+    @Benchmark
+    public byte[] typedDto() throws Exception {
+        return mapper.writeValueAsBytes(dto);
+    }
+}
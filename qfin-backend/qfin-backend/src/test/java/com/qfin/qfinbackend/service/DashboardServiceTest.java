@@ -0,0 +1,137 @@
+package com.qfin.qfinbackend.service;
+
+import com.qfin.qfinbackend.dto.DashboardDTO;
+import com.qfin.qfinbackend.dto.DashboardTransactionDTO;
+import com.qfin.qfinbackend.model.RecurringTransaction;
+import com.qfin.qfinbackend.model.Transaction;
+import com.qfin.qfinbackend.model.Transaction.TransactionType;
+import com.qfin.qfinbackend.model.User;
+import com.qfin.qfinbackend.repository.RecurringTransactionRepository;
+import com.qfin.qfinbackend.repository.TransactionRepository;
+import com.qfin.qfinbackend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class DashboardServiceTest {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private RecurringTransactionRepository recurringTransactionRepository;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private DashboardCache dashboardCache;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = novoUsuario("dashboard");
+        User outro = novoUsuario("dashboard-outro");
+
+        LocalDate base = LocalDate.of(2025, 3, 1);
+        for (int i = 0; i < 8; i++) {
+            salvarTransacao(user, i % 2 == 0 ? TransactionType.INCOME : TransactionType.EXPENSE, 100.0 + i, base.plusDays(i));
+        }
+        salvarTransacao(outro, TransactionType.INCOME, 5000.0, base.plusDays(30));
+
+        RecurringTransaction ativa = novaRecorrencia(user, 50.0, true);
+        RecurringTransaction inativa = novaRecorrencia(user, 70.0, false);
+        recurringTransactionRepository.saveAll(List.of(ativa, inativa));
+    }
+
+    private User novoUsuario(String prefixo) {
+        User u = new User();
+        u.setName("Teste Dashboard");
+        u.setEmail(prefixo + "-" + System.nanoTime() + "@teste.com");
+        u.setPassword("hash");
+        return userRepository.save(u);
+    }
+
+    private void salvarTransacao(User owner, TransactionType type, double amount, LocalDate date) {
+        Transaction t = new Transaction();
+        t.setUser(owner);
+        t.setType(type);
+        t.setAmount(amount);
+        t.setCategory("Teste");
+        t.setDescription("Transação " + amount);
+        t.setDate(date);
+        transactionRepository.save(t);
+    }
+
+    private RecurringTransaction novaRecorrencia(User owner, double amount, boolean active) {
+        RecurringTransaction r = new RecurringTransaction();
+        r.setUser(owner);
+        r.setName("Assinatura");
+        r.setType(RecurringTransaction.TransactionType.EXPENSE);
+        r.setAmount(amount);
+        r.setCategory("Assinatura");
+        r.setFrequency(RecurringTransaction.Frequency.MONTHLY);
+        r.setStartDate(LocalDate.of(2025, 1, 1));
+        r.setNextProcessing(LocalDate.of(2025, 4, 1));
+        r.setIsActive(active);
+        return r;
+    }
+
+    @Test
+    void deveAgregarApenasDadosDoUsuario() {
+        DashboardDTO dashboard = dashboardService.getDashboardData(user);
+
+        // Receitas: 100 + 102 + 104 + 106; despesas: 101 + 103 + 105 + 107 + recorrência ativa de 50
+        assertEquals(412.0, dashboard.getTotalIncome(), 0.0001);
+        assertEquals(466.0, dashboard.getTotalExpenses(), 0.0001);
+        assertEquals(-54.0, dashboard.getTotalBalance(), 0.0001);
+        assertEquals(8, dashboard.getTransactionsCount());
+        assertEquals(1, dashboard.getRecurringTransactionsCount());
+        assertEquals(0, dashboard.getFinancingsCount());
+
+        List<DashboardTransactionDTO> recent = dashboard.getRecentTransactions();
+        assertEquals(5, recent.size());
+        assertEquals(LocalDate.of(2025, 3, 8), recent.get(0).getDate());
+        assertEquals(LocalDate.of(2025, 3, 4), recent.get(4).getDate());
+    }
+
+    @Test
+    void deveServirDoCacheAteAlteracaoPeloService() {
+        long hitsAntes = (Long) dashboardCache.getStats().get("hits");
+        DashboardDTO primeiro = dashboardService.getDashboardData(user);
+        DashboardDTO segundo = dashboardService.getDashboardData(user);
+
+        assertSame(primeiro, segundo);
+        assertEquals(hitsAntes + 1, dashboardCache.getStats().get("hits"));
+
+        Transaction nova = new Transaction();
+        nova.setUser(user);
+        nova.setType(TransactionType.INCOME);
+        nova.setAmount(1000.0);
+        nova.setCategory("Salário");
+        nova.setDescription("Salário");
+        nova.setDate(LocalDate.of(2025, 3, 20));
+        transactionService.createTransaction(nova);
+
+        DashboardDTO atualizado = dashboardService.getDashboardData(user);
+        assertNotSame(primeiro, atualizado);
+        assertEquals(9, atualizado.getTransactionsCount());
+        assertEquals(1412.0, atualizado.getTotalIncome(), 0.0001);
+    }
+}
@@ -0,0 +1,201 @@
+package com.qfin.qfinbackend.service;
+
+import com.qfin.qfinbackend.model.OutboxEmail;
+import com.qfin.qfinbackend.model.User;
+import com.qfin.qfinbackend.repository.OutboxEmailRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.mail.username=teste",
+        "app.mail.outbox.backoff-ms=100",
+        "app.mail.outbox.poll-interval-ms=200"
+})
+class EmailOutboxServiceTest {
+
+    private static final FakeSmtpServer smtp = FakeSmtpServer.start();
+
+    @DynamicPropertySource
+    static void smtpProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.mail.host", () -> "localhost");
+        registry.add("spring.mail.port", smtp::port);
+    }
+
+    @AfterAll
+    static void stopSmtp() throws IOException {
+        smtp.close();
+    }
+
+    @Autowired
+    private PasswordResetService passwordResetService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private OutboxEmailRepository outboxEmailRepository;
+
+    private static void aguardar(BooleanSupplier condicao) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 10_000;
+        while (!condicao.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < limite, "Tempo esgotado aguardando a entrega");
+            Thread.sleep(50);
+        }
+    }
+
+    @Test
+    void deveEntregarEmailDeRecuperacaoAposOCommit() throws InterruptedException {
+        User user = new User();
+        user.setName("Teste Outbox");
+        user.setEmail("outbox-" + System.nanoTime() + "@teste.com");
+        user.setPassword("senha123");
+        userService.register(user);
+
+        // Com SMTP configurado o token não volta na resposta
+        assertNull(passwordResetService.generateResetToken(user.getEmail()));
+
+        aguardar(() -> smtp.messages.stream().anyMatch(message -> message.contains(user.getEmail())));
+        String message = smtp.messages.stream().filter(m -> m.contains(user.getEmail())).findFirst().orElseThrow();
+        assertTrue(message.contains("resetToken="));
+    }
+
+    @Test
+    void deveDescartarResultadoDeReservaVencida() {
+        // Agendado no futuro para o dispatcher em segundo plano não pegar o email
+        LocalDateTime futuro = LocalDateTime.now().plusYears(1).withNano(0);
+        OutboxEmail email = new OutboxEmail("reserva@teste.com", "Reserva", "Corpo");
+        email.setNextAttemptAt(futuro);
+        email = outboxEmailRepository.save(email);
+        Long id = email.getId();
+
+        LocalDateTime primeiraReserva = futuro.plusMinutes(5);
+        assertEquals(1, outboxEmailRepository.claim(id, OutboxEmail.Status.PENDING, OutboxEmail.Status.SENDING,
+                primeiraReserva, futuro));
+        // Reserva venceu e o email foi reservado de novo por outro envio
+        assertEquals(1, outboxEmailRepository.releaseExpiredClaims(
+                OutboxEmail.Status.SENDING, OutboxEmail.Status.PENDING, primeiraReserva.plusSeconds(1)));
+        LocalDateTime segundaReserva = futuro.plusMinutes(10);
+        assertEquals(1, outboxEmailRepository.claim(id, OutboxEmail.Status.PENDING, OutboxEmail.Status.SENDING,
+                segundaReserva, futuro));
+
+        assertEquals(0, outboxEmailRepository.complete(id, OutboxEmail.Status.SENDING, primeiraReserva,
+                OutboxEmail.Status.SENT, 1, futuro, null, futuro));
+        assertEquals(OutboxEmail.Status.SENDING, outboxEmailRepository.findById(id).orElseThrow().getStatus());
+
+        assertEquals(1, outboxEmailRepository.complete(id, OutboxEmail.Status.SENDING, segundaReserva,
+                OutboxEmail.Status.SENT, 1, futuro, null, futuro));
+        assertEquals(OutboxEmail.Status.SENT, outboxEmailRepository.findById(id).orElseThrow().getStatus());
+    }
+
+    @Test
+    void deveReenviarComEsperaAposFalhaTemporaria() throws InterruptedException {
+        smtp.rejectNext.set(1);
+        OutboxEmail email = emailService.enqueue("retry-" + System.nanoTime() + "@teste.com", "Teste", "Corpo");
+
+        aguardar(() -> outboxEmailRepository.findById(email.getId())
+                .map(saved -> saved.getStatus() == OutboxEmail.Status.SENT).orElse(false));
+
+        OutboxEmail saved = outboxEmailRepository.findById(email.getId()).orElseThrow();
+        assertEquals(2, saved.getAttempts());
+        assertNotNull(saved.getSentAt());
+        assertTrue(smtp.messages.stream().anyMatch(message -> message.contains(email.getRecipient())));
+    }
+
+    /**
+     * Servidor SMTP mínimo para os testes: aceita tudo e guarda as mensagens, exceto
+     * quando rejectNext é positivo, caso em que recusa o destinatário com erro temporário.
+     */
+    static class FakeSmtpServer implements AutoCloseable {
+        final List<String> messages = new CopyOnWriteArrayList<>();
+        final AtomicInteger rejectNext = new AtomicInteger();
+        private final ServerSocket serverSocket;
+
+        private FakeSmtpServer(ServerSocket serverSocket) {
+            this.serverSocket = serverSocket;
+        }
+
+        static FakeSmtpServer start() {
+            try {
+                FakeSmtpServer server = new FakeSmtpServer(new ServerSocket(0));
+                Thread thread = new Thread(server::acceptLoop, "fake-smtp");
+                thread.setDaemon(true);
+                thread.start();
+                return server;
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        int port() {
+            return serverSocket.getLocalPort();
+        }
+
+        private void acceptLoop() {
+            while (!serverSocket.isClosed()) {
+                try (Socket socket = serverSocket.accept()) {
+                    handle(socket);
+                } catch (IOException e) {
+                    // Conexão encerrada pelo cliente ou servidor fechado
+                }
+            }
+        }
+
+        private void handle(Socket socket) throws IOException {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+            reply(out, "220 localhost");
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.toUpperCase();
+                if (command.startsWith("RCPT") && rejectNext.getAndUpdate(n -> Math.max(n - 1, 0)) > 0) {
+                    reply(out, "451 Tente novamente mais tarde");
+                } else if (command.startsWith("DATA")) {
+                    reply(out, "354 Envie a mensagem");
+                    StringBuilder message = new StringBuilder();
+                    while ((line = in.readLine()) != null && !line.equals(".")) {
+                        message.append(line).append('\n');
+                    }
+                    messages.add(message.toString());
+                    reply(out, "250 OK");
+                } else if (command.startsWith("QUIT")) {
+                    reply(out, "221 Tchau");
+                    return;
+                } else {
+                    reply(out, "250 OK");
+                }
+            }
+        }
+
+        private static void reply(PrintWriter out, String line) {
+            out.print(line + "\r\n");
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.qfin.qfinbackend.service;
+
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private final JwtUtil jwtUtil = new JwtUtil();
+
+    @Test
+    void deveVerificarUmaVezEReutilizarOResultado() {
+        String token = jwtUtil.generateToken("usuario@teste.com");
+
+        VerifiedToken primeiro = jwtUtil.verify(token);
+
+        assertEquals("usuario@teste.com", primeiro.subject());
+        assertFalse(primeiro.isExpired(Instant.now()));
+        assertSame(primeiro, jwtUtil.verify(token));
+        assertTrue(jwtUtil.validateToken(token, "usuario@teste.com"));
+    }
+
+    @Test
+    void deveRejeitarTokenAlterado() {
+        String token = jwtUtil.generateToken("usuario@teste.com");
+        jwtUtil.verify(token);
+
+        String alterado = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtUtil.verify(alterado));
+    }
+}
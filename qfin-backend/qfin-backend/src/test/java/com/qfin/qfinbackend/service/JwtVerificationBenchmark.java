@@ -0,0 +1,72 @@
+package com.qfin.qfinbackend.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminho de verificação do token no JwtAuthenticationFilter: o fluxo anterior
+ * (extractUsername + validateToken, três parses com chave e parser recriados) contra
+ * JwtUtil.verify sem e com o cache de tokens verificados.
+ * Executar com: mvn -Pbenchmark clean test-compile exec:exec -Dbenchmark=JwtVerificationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET_KEY = "mySecretKeyForJwtTokenGenerationWhichShouldBeLongEnough";
+
+    private JwtUtil uncached;
+    private JwtUtil cached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        uncached = new JwtUtil();
+        ReflectionTestUtils.setField(uncached, "verifiedCacheMaxEntries", 0);
+        cached = new JwtUtil();
+        token = cached.generateToken("benchmark@teste.com");
+    }
+
+    private static Claims legacyParse(String token) {
+        Key key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+    }
+
+    @Benchmark
+    public boolean legacyFilterPath() {
+        String email = legacyParse(token).getSubject();
+        String username = legacyParse(token).getSubject();
+        Date expiration = legacyParse(token).getExpiration();
+        return username.equals(email) && !expiration.before(new Date());
+    }
+
+    @Benchmark
+    public VerifiedToken singleParse() {
+        return uncached.verify(token);
+    }
+
+    @Benchmark
+    public VerifiedToken cachedVerification() {
+        return cached.verify(token);
+    }
+}
@@ -0,0 +1,49 @@
+package com.qfin.qfinbackend.service;
+
+import com.qfin.qfinbackend.dto.DashboardDTO;
+import com.qfin.qfinbackend.dto.DashboardTransactionDTO;
+import com.qfin.qfinbackend.model.Transaction.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LiveUpdateServiceTest {
+
+    private static DashboardTransactionDTO transacao(long id, double amount) {
+        return new DashboardTransactionDTO(id, TransactionType.EXPENSE, amount, "Teste", "Transação " + id,
+                LocalDate.of(2025, 3, 1));
+    }
+
+    private static DashboardDTO dashboard(double income, double expenses, List<DashboardTransactionDTO> recent) {
+        return new DashboardDTO(income, expenses, income - expenses, recent.size(), 0, 0, 0, recent, List.of());
+    }
+
+    @Test
+    void deveEnviarSaldoApenasQuandoTotaisMudam() {
+        DashboardDTO anterior = dashboard(1000.0, 400.0, List.of(transacao(1, 400.0)));
+        DashboardDTO igual = dashboard(1000.0, 400.0, List.of(transacao(1, 400.0)));
+        DashboardDTO atual = dashboard(1000.0, 650.0, List.of(transacao(2, 250.0), transacao(1, 400.0)));
+
+        assertNull(LiveUpdateService.balanceDelta(anterior, igual));
+
+        Map<String, Object> saldo = LiveUpdateService.balanceDelta(anterior, atual);
+        assertEquals(350.0, (Double) saldo.get("totalBalance"), 0.0001);
+        assertEquals(-250.0, (Double) saldo.get("delta"), 0.0001);
+    }
+
+    @Test
+    void deveEnviarSomenteTransacoesNovas() {
+        DashboardDTO anterior = dashboard(0.0, 400.0, List.of(transacao(1, 400.0)));
+        DashboardDTO atual = dashboard(0.0, 650.0, List.of(transacao(2, 250.0), transacao(1, 400.0)));
+
+        List<DashboardTransactionDTO> novas = LiveUpdateService.newTransactions(anterior, atual);
+
+        assertEquals(1, novas.size());
+        assertEquals(2L, novas.get(0).getId());
+        assertEquals(atual.getRecentTransactions(), LiveUpdateService.newTransactions(null, atual));
+    }
+}
@@ -0,0 +1,186 @@
+package com.qfin.qfinbackend.service;
+
+import com.qfin.qfinbackend.model.Goal;
+import com.qfin.qfinbackend.model.Notification;
+import com.qfin.qfinbackend.model.Notification.NotificationType;
+import com.qfin.qfinbackend.model.NotificationSettings;
+import com.qfin.qfinbackend.model.RecurringTransaction;
+import com.qfin.qfinbackend.model.Transaction;
+import com.qfin.qfinbackend.model.User;
+import com.qfin.qfinbackend.repository.GoalRepository;
+import com.qfin.qfinbackend.repository.NotificationRepository;
+import com.qfin.qfinbackend.repository.NotificationSettingsRepository;
+import com.qfin.qfinbackend.repository.RecurringTransactionRepository;
+import com.qfin.qfinbackend.repository.TransactionRepository;
+import com.qfin.qfinbackend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"app.notifications.rules.enabled=false", "app.notifications.rules.page-size=2"})
+class NotificationRuleEngineTest {
+
+    private static final LocalDate HOJE = LocalDate.of(2026, 6, 15);
+
+    @Autowired
+    private NotificationRuleEngine notificationRuleEngine;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private RecurringTransactionRepository recurringTransactionRepository;
+
+    @Autowired
+    private GoalRepository goalRepository;
+
+    @Autowired
+    private NotificationSettingsRepository notificationSettingsRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    private User criarUsuario() {
+        User user = new User();
+        user.setName("Teste Alertas");
+        user.setEmail("alertas-" + System.nanoTime() + "@teste.com");
+        user.setPassword("hash");
+        return userRepository.save(user);
+    }
+
+    private void despesa(User user, String category, double amount, LocalDate date) {
+        Transaction t = new Transaction();
+        t.setUser(user);
+        t.setType(Transaction.TransactionType.EXPENSE);
+        t.setAmount(amount);
+        t.setCategory(category);
+        t.setDescription(category);
+        t.setDate(date);
+        transactionRepository.save(t);
+    }
+
+    private void conta(User user, String name, LocalDate nextProcessing) {
+        RecurringTransaction r = new RecurringTransaction();
+        r.setUser(user);
+        r.setName(name);
+        r.setType(RecurringTransaction.TransactionType.EXPENSE);
+        r.setAmount(150.0);
+        r.setCategory("Moradia");
+        r.setFrequency(RecurringTransaction.Frequency.MONTHLY);
+        r.setStartDate(HOJE.minusMonths(6));
+        r.setNextProcessing(nextProcessing);
+        recurringTransactionRepository.save(r);
+    }
+
+    private void meta(User user, String name, double current, double target, LocalDate deadline) {
+        Goal goal = new Goal(name, target, current, deadline, "Reserva", name, user);
+        goalRepository.save(goal);
+    }
+
+    private Set<String> chaves(User user) {
+        return notificationRepository.findByUserOrderByDateDesc(user).stream()
+                .map(Notification::getRuleKey)
+                .collect(Collectors.toSet());
+    }
+
+    @Test
+    void deveGerarAlertasDeTodasAsRegrasSemRepetirNaProximaExecucao() {
+        User user = criarUsuario();
+        conta(user, "Aluguel", HOJE.plusDays(2));
+        conta(user, "Condomínio", HOJE.plusDays(10)); // além dos 3 dias de antecedência
+        meta(user, "Viagem", 1000.0, 1000.0, HOJE.plusMonths(6));
+        meta(user, "Notebook", 200.0, 3000.0, HOJE.plusDays(5));
+        meta(user, "Carro", 200.0, 30000.0, HOJE.plusYears(1));
+
+        // Média de 300 nos três meses anteriores e 500 no mês atual
+        despesa(user, "Mercado", 300.0, LocalDate.of(2026, 3, 20));
+        despesa(user, "Mercado", 300.0, LocalDate.of(2026, 4, 20));
+        despesa(user, "Mercado", 300.0, LocalDate.of(2026, 5, 20));
+        despesa(user, "Mercado", 500.0, LocalDate.of(2026, 6, 10));
+        // Lazer: histórico sem gasto no mês atual
+        for (int i = 0; i < 12; i++) {
+            despesa(user, "Lazer", 50.0, LocalDate.of(2026, 5, 1).plusDays(i));
+        }
+        despesa(user, "Eletrônicos", 2000.0, HOJE);
+
+        notificationRuleEngine.evaluate(HOJE);
+
+        List<Notification> notifications = notificationRepository.findByUserOrderByDateDesc(user);
+        assertEquals(5, notifications.size());
+        Set<String> chaves = chaves(user);
+        assertTrue(chaves.stream().anyMatch(k -> k.startsWith("BILL:") && k.endsWith(":" + HOJE.plusDays(2))));
+        assertTrue(chaves.stream().anyMatch(k -> k.startsWith("GOAL_REACHED:")));
+        assertTrue(chaves.stream().anyMatch(k -> k.startsWith("GOAL_DEADLINE:")));
+        assertTrue(chaves.contains("BUDGET:Mercado:2026-06"));
+        assertTrue(chaves.stream().anyMatch(k -> k.startsWith("SUSPICIOUS:")));
+        assertEquals(Set.of(NotificationType.BILL, NotificationType.GOAL, NotificationType.BUDGET, NotificationType.SUSPICIOUS),
+                notifications.stream().map(Notification::getType).collect(Collectors.toSet()));
+        assertTrue(notifications.stream().noneMatch(Notification::getIsRead));
+
+        notificationRuleEngine.evaluate(HOJE);
+        assertEquals(5, notificationRepository.findByUserOrderByDateDesc(user).size());
+    }
+
+    @Test
+    void deveContarOsDiasAteOVencimentoAtravesDoMes() {
+        User user = criarUsuario();
+        NotificationSettings settings = new NotificationSettings();
+        settings.setUser(user);
+        settings.setReminderDays(30);
+        notificationSettingsRepository.save(settings);
+        LocalDate primeiroDeFevereiro = LocalDate.of(2026, 2, 1);
+        // Period de 1 mês e 0 dias: são 28 dias, não "hoje"
+        conta(user, "Seguro", LocalDate.of(2026, 3, 1));
+
+        notificationRuleEngine.evaluate(primeiroDeFevereiro);
+
+        List<Notification> notifications = notificationRepository.findByUserOrderByDateDesc(user);
+        assertEquals(1, notifications.size());
+        assertEquals(Notification.NotificationPriority.MEDIUM, notifications.get(0).getPriority());
+        assertTrue(notifications.get(0).getDescription().contains("vence em 28 dias"));
+    }
+
+    @Test
+    void deveRespeitarAsPreferenciasDoUsuario() {
+        User semContas = criarUsuario();
+        NotificationSettings settings = new NotificationSettings();
+        settings.setUser(semContas);
+        settings.setBillReminders(false);
+        settings.setReminderDays(7);
+        notificationSettingsRepository.save(settings);
+        conta(semContas, "Internet", HOJE.plusDays(1));
+        meta(semContas, "Reserva", 500.0, 500.0, HOJE.plusMonths(2));
+
+        User semNotificacoes = criarUsuario();
+        NotificationSettings desligado = new NotificationSettings();
+        desligado.setUser(semNotificacoes);
+        desligado.setInAppNotifications(false);
+        notificationSettingsRepository.save(desligado);
+        conta(semNotificacoes, "Luz", HOJE.plusDays(1));
+
+        User antecedencia = criarUsuario();
+        NotificationSettings semana = new NotificationSettings();
+        semana.setUser(antecedencia);
+        semana.setReminderDays(7);
+        notificationSettingsRepository.save(semana);
+        conta(antecedencia, "Escola", HOJE.plusDays(6));
+
+        notificationRuleEngine.evaluate(HOJE);
+
+        Set<String> chaves = chaves(semContas);
+        assertEquals(1, chaves.size());
+        assertTrue(chaves.iterator().next().startsWith("GOAL_REACHED:"));
+        assertTrue(chaves(semNotificacoes).isEmpty());
+        assertEquals(1, chaves(antecedencia).size());
+    }
+}
@@ -0,0 +1,134 @@
+package com.qfin.qfinbackend.service;
+
+import com.qfin.qfinbackend.model.ProfileImage;
+import com.qfin.qfinbackend.service.ProfileImageService.StoredImage;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ProfileImageServiceTest {
+
+    @Autowired
+    private ProfileImageService profileImageService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private static String dataUrl(int width, int height, Color color) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                image.setRGB(x, y, color.getRGB());
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return "data:image/png;base64," + Base64.getEncoder().encodeToString(out.toByteArray());
+    }
+
+    @Test
+    void deveGravarBytesCrusComMiniaturaEDescartarImagemSubstituida() throws IOException {
+        Long userId = System.nanoTime();
+
+        ProfileImage primeira = profileImageService.store(userId, dataUrl(400, 200, Color.BLUE));
+        StoredImage original = profileImageService.find(primeira.getContentHash(), false).orElseThrow();
+        StoredImage miniatura = profileImageService.find(primeira.getContentHash(), true).orElseThrow();
+
+        assertEquals("image/png", original.contentType());
+        assertEquals(original.size(), Files.size(original.path()));
+        BufferedImage thumb = ImageIO.read(miniatura.path().toFile());
+        assertEquals(128, thumb.getWidth());
+        assertEquals(64, thumb.getHeight());
+
+        ProfileImage segunda = profileImageService.store(userId, dataUrl(50, 50, Color.RED));
+
+        assertNotEquals(primeira.getContentHash(), segunda.getContentHash());
+        assertFalse(Files.exists(original.path()));
+        assertTrue(profileImageService.find(primeira.getContentHash(), false).isEmpty());
+
+        profileImageService.delete(userId);
+        assertTrue(profileImageService.findByUserId(userId).isEmpty());
+    }
+
+    @Test
+    void deveManterArquivosDaFotoAnteriorQuandoATrocaEDesfeita() throws IOException {
+        Long userId = System.nanoTime();
+        ProfileImage atual = profileImageService.store(userId, dataUrl(30, 30, Color.YELLOW));
+        String nova = dataUrl(30, 30, Color.MAGENTA);
+
+        // Falha de quem chamou depois da troca, como em AuthController.updateProfile
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            profileImageService.store(userId, nova);
+            status.setRollbackOnly();
+        });
+
+        assertEquals(atual.getContentHash(), profileImageService.findByUserId(userId).orElseThrow().getContentHash());
+        assertTrue(profileImageService.find(atual.getContentHash(), false).isPresent());
+        assertTrue(profileImageService.find(atual.getContentHash(), true).isPresent());
+    }
+
+    @Test
+    void deveRejeitarDimensoesAcimaDoLimiteSemDecodificar() throws IOException {
+        // Poucos KB de PNG, mas acima de 4096 pixels de largura
+        String larga = dataUrl(5000, 1, Color.BLACK);
+
+        RuntimeException erro = assertThrows(RuntimeException.class, () -> profileImageService.store(1L, larga));
+        assertEquals("A imagem deve ter no máximo 4096x4096 pixels", erro.getMessage());
+    }
+
+    @Test
+    void deveRejeitarConteudoQueNaoEImagem() {
+        String texto = "data:image/png;base64," + Base64.getEncoder().encodeToString("não é imagem".getBytes());
+
+        RuntimeException erro = assertThrows(RuntimeException.class, () -> profileImageService.store(1L, texto));
+        assertEquals("Formato de imagem não suportado", erro.getMessage());
+    }
+
+    @Test
+    void deveManterFotoLegadaQuandoAMigracaoFalha() throws IOException {
+        // Coluna dos bancos anteriores à tabela profile_images
+        jdbcTemplate.execute("ALTER TABLE users ADD COLUMN IF NOT EXISTS profile_image_base64 TEXT");
+        try {
+            String invalida = "data:image/webp;base64," + Base64.getEncoder().encodeToString("RIFF....WEBPVP8 ".getBytes());
+            Long migrado = inserirUsuario(dataUrl(20, 20, Color.GREEN));
+            Long falhou = inserirUsuario(invalida);
+
+            profileImageService.migrateLegacyImages();
+
+            assertTrue(profileImageService.findByUserId(migrado).isPresent());
+            assertNull(fotoLegada(migrado));
+            assertTrue(profileImageService.findByUserId(falhou).isEmpty());
+            assertEquals(invalida, fotoLegada(falhou));
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE users DROP COLUMN profile_image_base64");
+        }
+    }
+
+    private Long inserirUsuario(String base64Image) {
+        String email = "legado-" + System.nanoTime() + "@teste.com";
+        jdbcTemplate.update("INSERT INTO users (name, email, password, role, profile_image_base64) VALUES (?, ?, ?, ?, ?)",
+                "Legado", email, "hash", "USER", base64Image);
+        return jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = ?", Long.class, email);
+    }
+
+    private String fotoLegada(Long userId) {
+        return jdbcTemplate.queryForObject("SELECT profile_image_base64 FROM users WHERE id = ?", String.class, userId);
+    }
+}
@@ -0,0 +1,115 @@
+package com.qfin.qfinbackend.service;
+
+import com.qfin.qfinbackend.model.RecurringTransaction;
+import com.qfin.qfinbackend.model.RecurringTransaction.Frequency;
+import com.qfin.qfinbackend.model.Transaction;
+import com.qfin.qfinbackend.model.Transaction.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecurringOccurrencesTest {
+
+    private RecurringTransaction recorrencia(Frequency frequency, LocalDate nextProcessing, Integer dayOfMonth, LocalDate endDate) {
+        RecurringTransaction recurring = new RecurringTransaction();
+        recurring.setFrequency(frequency);
+        recurring.setNextProcessing(nextProcessing);
+        recurring.setDayOfMonth(dayOfMonth);
+        recurring.setEndDate(endDate);
+        recurring.setType(RecurringTransaction.TransactionType.EXPENSE);
+        recurring.setCategory("Aluguel");
+        recurring.setAmount(1500.0);
+        return recurring;
+    }
+
+    // Avanço data a data, como no processamento das recorrências
+    private List<LocalDate> passoAPasso(RecurringTransaction recurring, LocalDate start, LocalDate end) {
+        List<LocalDate> dates = new ArrayList<>();
+        LocalDate hardEnd = recurring.getEndDate() != null && recurring.getEndDate().isBefore(end) ? recurring.getEndDate() : end;
+        LocalDate cursor = recurring.getNextProcessing();
+        while (!cursor.isAfter(hardEnd)) {
+            if (!cursor.isBefore(start)) dates.add(cursor);
+            switch (recurring.getFrequency()) {
+                case DAILY -> cursor = cursor.plusDays(1);
+                case WEEKLY -> cursor = cursor.plusWeeks(1);
+                case MONTHLY -> {
+                    LocalDate nextMonth = cursor.plusMonths(1);
+                    cursor = recurring.getDayOfMonth() != null
+                            ? nextMonth.withDayOfMonth(Math.min(recurring.getDayOfMonth(), nextMonth.lengthOfMonth()))
+                            : nextMonth;
+                }
+                case YEARLY -> cursor = cursor.plusYears(1);
+            }
+        }
+        Collections.reverse(dates);
+        return dates;
+    }
+
+    private List<LocalDate> fechada(RecurringOccurrences occurrences) {
+        List<LocalDate> dates = new ArrayList<>();
+        occurrences.newestFirst().forEachRemaining(dates::add);
+        return dates;
+    }
+
+    @Test
+    void deveCoincidirComAvancoPassoAPassoEmTodasAsFrequencias() {
+        LocalDate inicio = LocalDate.of(2024, 1, 15);
+        LocalDate fim = LocalDate.of(2029, 3, 1);
+        List<RecurringTransaction> casos = List.of(
+                recorrencia(Frequency.DAILY, LocalDate.of(2023, 12, 1), null, null),
+                recorrencia(Frequency.WEEKLY, LocalDate.of(2024, 2, 3), null, LocalDate.of(2027, 5, 20)),
+                recorrencia(Frequency.MONTHLY, LocalDate.of(2023, 11, 5), 31, null),
+                recorrencia(Frequency.MONTHLY, LocalDate.of(2024, 1, 31), null, null),
+                recorrencia(Frequency.MONTHLY, LocalDate.of(2024, 3, 30), null, null),
+                recorrencia(Frequency.YEARLY, LocalDate.of(2020, 2, 29), null, null),
+                recorrencia(Frequency.YEARLY, LocalDate.of(2024, 7, 1), null, LocalDate.of(2026, 6, 30)));
+
+        for (RecurringTransaction recurring : casos) {
+            List<LocalDate> expected = passoAPasso(recurring, inicio, fim);
+            RecurringOccurrences occurrences = RecurringOccurrences.of(recurring, inicio, fim);
+
+            assertEquals(expected, fechada(occurrences), recurring.getFrequency() + " " + recurring.getNextProcessing());
+            assertEquals(expected.size(), occurrences.count());
+            expected.forEach(date -> assertTrue(occurrences.contains(date)));
+            assertFalse(occurrences.contains(inicio.minusDays(1)));
+        }
+    }
+
+    @Test
+    void deveRetornarVazioQuandoRecorrenciaTerminaAntesDoPeriodo() {
+        RecurringOccurrences occurrences = RecurringOccurrences.of(
+                recorrencia(Frequency.DAILY, LocalDate.of(2024, 1, 1), null, LocalDate.of(2024, 1, 31)),
+                LocalDate.of(2024, 2, 1), LocalDate.of(2024, 12, 31));
+
+        assertEquals(0, occurrences.count());
+        assertFalse(occurrences.newestFirst().hasNext());
+    }
+
+    @Test
+    void deveDescontarOcorrenciasJaMaterializadas() {
+        RecurringTransaction recurring = recorrencia(Frequency.MONTHLY, LocalDate.of(2025, 1, 10), 10, null);
+        RecurringOccurrences occurrences = RecurringOccurrences.of(recurring, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 6, 30));
+
+        Transaction materializada = new Transaction();
+        materializada.setDate(LocalDate.of(2025, 2, 10));
+        materializada.setType(TransactionType.EXPENSE);
+        materializada.setCategory("aluguel");
+        materializada.setAmount(1500.0);
+        materializada.setDescription("[REC:1] Aluguel");
+        Transaction foraDaAgenda = new Transaction();
+        foraDaAgenda.setDate(LocalDate.of(2025, 2, 11));
+        foraDaAgenda.setType(TransactionType.EXPENSE);
+        foraDaAgenda.setCategory("Aluguel");
+        foraDaAgenda.setAmount(1500.0);
+        foraDaAgenda.setDescription("[REC:1] Aluguel");
+        ReportDedupIndex index = ReportDedupIndex.of(List.of(materializada, foraDaAgenda));
+
+        assertEquals(6, occurrences.count());
+        assertEquals(1, index.countRecurring(occurrences, TransactionType.EXPENSE, "Aluguel", 1500.0));
+    }
+}
@@ -0,0 +1,60 @@
+package com.qfin.qfinbackend.service;
+
+import com.qfin.qfinbackend.dto.CategorySummaryDTO;
+import com.qfin.qfinbackend.dto.ReportSummaryDTO;
+import com.qfin.qfinbackend.model.Transaction.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportAggregatorTest {
+
+    @Test
+    void deveCalcularTotaisEQuebraPorCategoriaEmUmaPassada() {
+        ReportAggregator aggregator = new ReportAggregator();
+        aggregator.add(TransactionType.INCOME, "Salário", 5000.0);
+        aggregator.add(TransactionType.EXPENSE, "Mercado", 200.0);
+        aggregator.add(TransactionType.EXPENSE, "Mercado", 350.0);
+        aggregator.add(TransactionType.INCOME, "Mercado", 50.0);
+        aggregator.add(TransactionType.EXPENSE, null, 10.0);
+
+        ReportSummaryDTO summary = aggregator.toSummary();
+
+        assertEquals(5050.0, summary.getTotalIncome(), 0.0001);
+        assertEquals(560.0, summary.getTotalExpense(), 0.0001);
+        assertEquals(4490.0, summary.getBalance(), 0.0001);
+        assertEquals(5L, summary.getTotalTransactions());
+        assertEquals(10.0, summary.getMinAmount());
+        assertEquals(5000.0, summary.getMaxAmount());
+
+        List<CategorySummaryDTO> breakdown = summary.getCategoryBreakdown();
+        assertEquals(4, breakdown.size());
+        assertEquals("Salário", breakdown.get(0).getCategory());
+
+        CategorySummaryDTO mercadoReceita = breakdown.get(1);
+        assertEquals("Mercado", mercadoReceita.getCategory());
+        assertEquals("INCOME", mercadoReceita.getType());
+        assertEquals(1L, mercadoReceita.getTransactionCount());
+
+        CategorySummaryDTO mercadoDespesa = breakdown.get(2);
+        assertEquals("EXPENSE", mercadoDespesa.getType());
+        assertEquals(550.0, mercadoDespesa.getTotalAmount(), 0.0001);
+        assertEquals(2L, mercadoDespesa.getTransactionCount());
+        assertEquals(200.0, mercadoDespesa.getMinAmount());
+        assertEquals(350.0, mercadoDespesa.getMaxAmount());
+
+        assertEquals("SEM_CATEGORIA", breakdown.get(3).getCategory());
+    }
+
+    @Test
+    void deveRetornarResumoVazioSemTransacoes() {
+        ReportSummaryDTO summary = new ReportAggregator().toSummary();
+        assertEquals(0.0, summary.getTotalIncome());
+        assertEquals(0L, summary.getTotalTransactions());
+        assertTrue(summary.getCategoryBreakdown().isEmpty());
+        assertNull(summary.getMinAmount());
+        assertNull(summary.getMaxAmount());
+    }
+}
@@ -0,0 +1,37 @@
+package com.qfin.qfinbackend.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportArtifactStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void deveRemoverSomenteArtefatosAntigosAoIniciar() throws IOException {
+        String jobId = UUID.randomUUID().toString();
+        Path artefato = Files.writeString(dir.resolve(jobId), "pdf");
+        Path parcial = Files.writeString(dir.resolve(UUID.randomUUID() + ".part"), "csv");
+        Path outroArquivo = Files.writeString(dir.resolve("notas.txt"), "não é artefato");
+        Path subdiretorio = Files.createDirectories(dir.resolve("backup"));
+        Files.writeString(subdiretorio.resolve("dados.csv"), "1,2,3");
+
+        ReportArtifactStore store = new ReportArtifactStore();
+        ReflectionTestUtils.setField(store, "directory", dir.toString());
+        store.init();
+
+        assertFalse(Files.exists(artefato));
+        assertFalse(Files.exists(parcial));
+        assertTrue(Files.exists(outroArquivo));
+        assertTrue(Files.exists(subdiretorio.resolve("dados.csv")));
+    }
+}
@@ -0,0 +1,85 @@
+package com.qfin.qfinbackend.service;
+
+import com.qfin.qfinbackend.model.Transaction;
+import com.qfin.qfinbackend.model.Transaction.TransactionType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a deduplicação de recorrências projetadas por varredura aninhada
+ * (implementação anterior do ReportService) com o ReportDedupIndex.
+ * Executar com: mvn -Pbenchmark clean test-compile exec:exec -Dbenchmark=ReportDedupBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReportDedupBenchmark {
+
+    @Param({"1000", "10000"})
+    private int baseSize;
+
+    private List<Transaction> baseTransactions;
+    private List<Transaction> projected;
+
+    @Setup
+    public void setUp() {
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        baseTransactions = new ArrayList<>(baseSize);
+        for (int i = 0; i < baseSize; i++) {
+            String description = i % 10 == 0 ? "[REC:" + (i % 5) + "] Recorrente" : "Compra " + i;
+            baseTransactions.add(transaction(start.plusDays(i % 1800), "Categoria" + (i % 20), 10.0 + (i % 50), description));
+        }
+        // Uma recorrência diária ao longo de 5 anos
+        projected = new ArrayList<>();
+        for (int i = 0; i < 1800; i++) {
+            projected.add(transaction(start.plusDays(i), "Categoria" + (i % 20), 10.0 + (i % 50), "[REC-PROJ:1] Diária"));
+        }
+    }
+
+    private static Transaction transaction(LocalDate date, String category, double amount, String description) {
+        Transaction t = new Transaction();
+        t.setDate(date);
+        t.setType(TransactionType.EXPENSE);
+        t.setCategory(category);
+        t.setAmount(amount);
+        t.setDescription(description);
+        return t;
+    }
+
+    @Benchmark
+    public long nestedScan() {
+        return projected.stream()
+                .filter(rt -> baseTransactions.stream().noneMatch(bt ->
+                        bt.getDate().equals(rt.getDate())
+                                && bt.getType() == rt.getType()
+                                && bt.getCategory().equalsIgnoreCase(rt.getCategory())
+                                && bt.getDescription().contains("[REC:")
+                                && Math.abs(bt.getAmount() - rt.getAmount()) < 0.0001))
+                .count();
+    }
+
+    @Benchmark
+    public long hashIndex() {
+        ReportDedupIndex index = ReportDedupIndex.of(baseTransactions);
+        return projected.stream()
+                .filter(rt -> !index.containsRecurring(rt))
+                .count();
+    }
+}
@@ -0,0 +1,57 @@
+package com.qfin.qfinbackend.service;
+
+import com.qfin.qfinbackend.model.Transaction;
+import com.qfin.qfinbackend.model.Transaction.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportDedupIndexTest {
+
+    private Transaction transacao(LocalDate date, TransactionType type, String category, double amount, String description) {
+        Transaction t = new Transaction();
+        t.setDate(date);
+        t.setType(type);
+        t.setCategory(category);
+        t.setAmount(amount);
+        t.setDescription(description);
+        return t;
+    }
+
+    @Test
+    void deveReconhecerRecorrenciaJaMaterializada() {
+        LocalDate dia = LocalDate.of(2025, 3, 10);
+        ReportDedupIndex index = ReportDedupIndex.of(List.of(
+                transacao(dia, TransactionType.EXPENSE, "Aluguel", 1500.0, "[REC:7] Aluguel")));
+
+        assertTrue(index.containsRecurring(transacao(dia, TransactionType.EXPENSE, "ALUGUEL", 1500.0, "[REC-PROJ:7] Aluguel")));
+        assertFalse(index.containsRecurring(transacao(dia.plusDays(1), TransactionType.EXPENSE, "Aluguel", 1500.0, "x")));
+        assertFalse(index.containsRecurring(transacao(dia, TransactionType.INCOME, "Aluguel", 1500.0, "x")));
+        assertFalse(index.containsRecurring(transacao(dia, TransactionType.EXPENSE, "Aluguel", 1500.01, "x")));
+    }
+
+    @Test
+    void deveIgnorarTransacoesSemMarcadorDeRecorrencia() {
+        LocalDate dia = LocalDate.of(2025, 3, 10);
+        ReportDedupIndex index = ReportDedupIndex.of(List.of(
+                transacao(dia, TransactionType.EXPENSE, "Aluguel", 1500.0, "Aluguel pago manualmente")));
+
+        assertFalse(index.containsRecurring(transacao(dia, TransactionType.EXPENSE, "Aluguel", 1500.0, "x")));
+    }
+
+    @Test
+    void deveIndexarEspelhosMultiMoedaPeloId() {
+        LocalDate dia = LocalDate.of(2025, 3, 10);
+        ReportDedupIndex index = ReportDedupIndex.of(List.of(
+                transacao(dia, TransactionType.EXPENSE, "Viagem", 520.0, "[MC:12] Hotel"),
+                transacao(dia, TransactionType.EXPENSE, "Viagem", 10.0, "[MC:abc] inválido"),
+                transacao(dia, TransactionType.EXPENSE, "Viagem", 10.0, "Compra [MC:13]")));
+
+        assertTrue(index.containsMultiCurrency(12L));
+        assertFalse(index.containsMultiCurrency(1L));
+        assertFalse(index.containsMultiCurrency(13L));
+    }
+}
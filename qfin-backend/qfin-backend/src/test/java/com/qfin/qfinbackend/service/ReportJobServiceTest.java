@@ -0,0 +1,88 @@
+package com.qfin.qfinbackend.service;
+
+import com.qfin.qfinbackend.dto.ReportJobDTO;
+import com.qfin.qfinbackend.model.Financing;
+import com.qfin.qfinbackend.model.User;
+import com.qfin.qfinbackend.repository.FinancingRepository;
+import com.qfin.qfinbackend.repository.UserRepository;
+import com.qfin.qfinbackend.service.ReportJobService.ReportJobType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ReportJobServiceTest {
+
+    @Autowired
+    private ReportJobService reportJobService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private FinancingRepository financingRepository;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setName("Teste Relatorio");
+        user.setEmail("relatorio-" + System.nanoTime() + "@teste.com");
+        user.setPassword("hash");
+        user = userRepository.save(user);
+        userId = user.getId();
+
+        Financing financing = new Financing();
+        financing.setUser(user);
+        financing.setName("Carro");
+        financing.setType("VEICULO");
+        financing.setTotalAmount(30000.0);
+        financing.setRemainingAmount(12000.0);
+        financing.setMonthlyPayment(1000.0);
+        financing.setEndDate(LocalDate.now().plusYears(1));
+        financingRepository.save(financing);
+    }
+
+    private ReportJobDTO aguardarConclusao(String jobId) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            ReportJobDTO job = reportJobService.getJob(jobId, userId).orElseThrow();
+            if (!job.getStatus().equals("PENDING") && !job.getStatus().equals("RUNNING")) {
+                return job;
+            }
+            Thread.sleep(50);
+        }
+        fail("Job não concluído a tempo");
+        return null;
+    }
+
+    @Test
+    void deveGerarArquivoDoJobEmSegundoPlano() throws Exception {
+        ReportJobDTO submitted = reportJobService.submit(userId, ReportJobType.FINANCINGS_CSV, null);
+        assertEquals("text/csv", submitted.getContentType());
+
+        ReportJobDTO job = aguardarConclusao(submitted.getId());
+        assertEquals("COMPLETED", job.getStatus());
+        assertNotNull(job.getExpiresAt());
+
+        Path file = reportJobService.getArtifact(job.getId(), userId).orElseThrow();
+        String csv = Files.readString(file);
+        assertTrue(csv.contains("Carro"));
+    }
+
+    @Test
+    void naoDeveExporJobDeOutroUsuario() throws Exception {
+        ReportJobDTO submitted = reportJobService.submit(userId, ReportJobType.FINANCINGS_CSV, null);
+        aguardarConclusao(submitted.getId());
+
+        assertTrue(reportJobService.getJob(submitted.getId(), userId + 1).isEmpty());
+        assertTrue(reportJobService.getArtifact(submitted.getId(), userId + 1).isEmpty());
+    }
+}
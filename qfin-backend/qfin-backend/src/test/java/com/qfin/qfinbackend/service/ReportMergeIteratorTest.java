@@ -0,0 +1,72 @@
+package com.qfin.qfinbackend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportMergeIteratorTest {
+
+    private record Linha(int dia, String fonte) {
+    }
+
+    private static final Comparator<Linha> DECRESCENTE = Comparator.comparingInt(Linha::dia).reversed();
+
+    @Test
+    void deveIntercalarFontesOrdenadasMantendoOrdemDasFontesNosEmpates() {
+        List<Linha> gravadas = List.of(new Linha(30, "g"), new Linha(20, "g"), new Linha(10, "g"));
+        List<Linha> sinteticas = List.of(new Linha(25, "s"), new Linha(20, "s"), new Linha(5, "s"));
+        List<Linha> recorrentes = List.of(new Linha(20, "r"), new Linha(1, "r"));
+
+        List<Linha> esperado = new ArrayList<>(gravadas);
+        esperado.addAll(sinteticas);
+        esperado.addAll(recorrentes);
+        esperado.sort(DECRESCENTE);
+
+        List<Linha> resultado = new ArrayList<>();
+        new ReportMergeIterator<>(List.of(gravadas.iterator(), sinteticas.iterator(), recorrentes.iterator()), DECRESCENTE)
+                .forEachRemaining(resultado::add);
+
+        assertEquals(esperado, resultado);
+    }
+
+    @Test
+    void deveLerCadaFonteSobDemanda() {
+        int[] lidas = {0};
+        Iterator<Linha> infinita = new Iterator<>() {
+            private int dia = 1000;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Linha next() {
+                lidas[0]++;
+                return new Linha(dia--, "infinita");
+            }
+        };
+
+        Iterator<Linha> merged = new ReportMergeIterator<>(List.of(infinita, List.<Linha>of().iterator()), DECRESCENTE);
+        for (int i = 0; i < 3; i++) {
+            merged.next();
+        }
+
+        // Três consumidas mais a que ficou no heap
+        assertEquals(4, lidas[0]);
+    }
+
+    @Test
+    void deveLancarExcecaoQuandoNaoHaMaisElementos() {
+        Iterator<Linha> merged = new ReportMergeIterator<>(List.<Iterator<Linha>>of(), DECRESCENTE);
+
+        assertFalse(merged.hasNext());
+        assertThrows(NoSuchElementException.class, merged::next);
+    }
+}
@@ -0,0 +1,224 @@
+package com.qfin.qfinbackend.service;
+
+import com.qfin.qfinbackend.dto.CategorySummaryDTO;
+import com.qfin.qfinbackend.dto.ReportRequestDTO;
+import com.qfin.qfinbackend.dto.ReportSummaryDTO;
+import com.qfin.qfinbackend.dto.ReportTransactionPageDTO;
+import com.qfin.qfinbackend.model.Financing;
+import com.qfin.qfinbackend.model.RecurringTransaction;
+import com.qfin.qfinbackend.model.Transaction;
+import com.qfin.qfinbackend.model.Transaction.TransactionType;
+import com.qfin.qfinbackend.model.User;
+import com.qfin.qfinbackend.repository.FinancingRepository;
+import com.qfin.qfinbackend.repository.RecurringTransactionRepository;
+import com.qfin.qfinbackend.repository.TransactionRepository;
+import com.qfin.qfinbackend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sem @Transactional: as fontes do relatório são lidas por outras threads, que só
+// enxergam dados já confirmados. Cada teste usa um usuário novo.
+@SpringBootTest
+class ReportServiceTest {
+
+    private static final LocalDate INICIO = LocalDate.of(2025, 1, 1);
+    private static final LocalDate FIM = LocalDate.of(2025, 6, 30);
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private FinancingRepository financingRepository;
+
+    @Autowired
+    private RecurringTransactionRepository recurringTransactionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("Teste Relatorio");
+        user.setEmail("report-" + System.nanoTime() + "@teste.com");
+        user.setPassword("hash");
+        user = userRepository.save(user);
+
+        for (int i = 0; i < 30; i++) {
+            Transaction t = new Transaction();
+            t.setUser(user);
+            t.setType(i % 3 == 0 ? TransactionType.INCOME : TransactionType.EXPENSE);
+            t.setAmount(10.0 + i);
+            t.setCategory(i % 2 == 0 ? "Mercado" : "Lazer");
+            t.setDescription("Transação " + i);
+            t.setDate(INICIO.plusDays(i * 5L));
+            transactionRepository.save(t);
+        }
+
+        // Recorrência já materializada em um dos dias projetados: não pode ser contada duas vezes
+        Transaction materializada = new Transaction();
+        materializada.setUser(user);
+        materializada.setType(TransactionType.EXPENSE);
+        materializada.setAmount(99.9);
+        materializada.setCategory("Assinatura");
+        materializada.setDescription("[REC:1] Streaming");
+        materializada.setDate(LocalDate.of(2025, 2, 10));
+        transactionRepository.save(materializada);
+
+        RecurringTransaction recorrente = new RecurringTransaction();
+        recorrente.setUser(user);
+        recorrente.setName("Streaming");
+        recorrente.setType(RecurringTransaction.TransactionType.EXPENSE);
+        recorrente.setAmount(99.9);
+        recorrente.setCategory("Assinatura");
+        recorrente.setFrequency(RecurringTransaction.Frequency.MONTHLY);
+        recorrente.setDayOfMonth(10);
+        recorrente.setStartDate(INICIO);
+        recorrente.setNextProcessing(LocalDate.of(2025, 1, 10));
+        recurringTransactionRepository.save(recorrente);
+
+        Financing financing = new Financing();
+        financing.setUser(user);
+        financing.setName("Carro");
+        financing.setType("VEICULO");
+        financing.setTotalAmount(30000.0);
+        financing.setRemainingAmount(12000.0);
+        financing.setMonthlyPayment(1000.0);
+        financing.setEndDate(LocalDate.of(2026, 1, 1));
+        financingRepository.save(financing);
+    }
+
+    private ReportRequestDTO periodo() {
+        ReportRequestDTO request = new ReportRequestDTO();
+        request.setStartDate(INICIO);
+        request.setEndDate(FIM);
+        return request;
+    }
+
+    @Test
+    void resumoAgregadoNoBancoDeveIgualarResumoEmMemoria() {
+        ReportRequestDTO request = periodo();
+        List<Transaction> merged = reportService.getTransactionsByFilters(user.getId(), request);
+        ReportAggregator aggregator = new ReportAggregator();
+        merged.forEach(aggregator::add);
+        ReportSummaryDTO expected = aggregator.toSummary();
+
+        ReportSummaryDTO summary = reportService.getReportSummary(user.getId(), request);
+
+        assertEquals(expected.getTotalIncome(), summary.getTotalIncome(), 0.0001);
+        assertEquals(expected.getTotalExpense(), summary.getTotalExpense(), 0.0001);
+        assertEquals(expected.getTotalTransactions(), summary.getTotalTransactions());
+        assertEquals(expected.getMinAmount(), summary.getMinAmount());
+        assertEquals(expected.getMaxAmount(), summary.getMaxAmount());
+        assertEquals(sorted(expected.getCategoryBreakdown()), sorted(summary.getCategoryBreakdown()));
+
+        // 31 gravadas + 5 recorrências projetadas (fev. já materializada) + 6 parcelas de financiamento
+        assertEquals(42L, summary.getTotalTransactions());
+    }
+
+    @Test
+    void paginasDevemReproduzirListagemCompleta() {
+        ReportRequestDTO request = periodo();
+        List<Transaction> completa = reportService.getTransactionsByFilters(user.getId(), request);
+
+        List<Transaction> paginada = new ArrayList<>();
+        Integer offset = 0;
+        while (offset != null) {
+            ReportTransactionPageDTO page = reportService.getTransactionPage(user.getId(), request, offset, 10);
+            assertEquals(42L, page.getTotal());
+            paginada.addAll(page.getItems());
+            offset = page.getNextOffset();
+        }
+
+        assertEquals(completa.size(), paginada.size());
+        for (int i = 0; i < completa.size(); i++) {
+            assertEquals(completa.get(i).getDate(), paginada.get(i).getDate());
+            assertEquals(completa.get(i).getDescription(), paginada.get(i).getDescription());
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> reportService.getTransactionPage(user.getId(), request, -1, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> reportService.getTransactionPage(user.getId(), request, 10_000, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> reportService.getTransactionPage(user.getId(), request, Integer.MAX_VALUE - 5, 10));
+    }
+
+    @Test
+    void deveAplicarOPrazoDaFonteMesmoNaThreadDaRequisicao() throws InterruptedException {
+        ReportService target = AopTestUtils.getTargetObject(reportService);
+        ThreadPoolExecutor original = (ThreadPoolExecutor) ReflectionTestUtils.getField(target, "sourceExecutor");
+        // Pool de uma thread ocupada e sem fila: a fonte roda na thread que chamou (CallerRunsPolicy)
+        ThreadPoolExecutor cheio = new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), new ThreadPoolExecutor.CallerRunsPolicy());
+        CountDownLatch liberar = new CountDownLatch(1);
+        cheio.execute(() -> {
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        ReflectionTestUtils.setField(target, "sourceExecutor", cheio);
+        try {
+            Thread requisicao = Thread.currentThread();
+            Supplier<Boolean> fonte = () -> {
+                EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager.getResource(entityManagerFactory);
+                return Thread.currentThread() == requisicao && holder != null && holder.hasTimeout()
+                        && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+            };
+            long prazo = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+            // Dentro de uma transação externa sem timeout, como nas exportações
+            Boolean comPrazo = new TransactionTemplate(transactionManager).execute(status -> {
+                CompletableFuture<Boolean> future = ReflectionTestUtils.invokeMethod(target, "supplySource", prazo, fonte);
+                return future.join();
+            });
+
+            assertTrue(comPrazo);
+        } finally {
+            ReflectionTestUtils.setField(target, "sourceExecutor", original);
+            liberar.countDown();
+            cheio.shutdown();
+        }
+    }
+
+    private List<CategorySummaryDTO> sorted(List<CategorySummaryDTO> breakdown) {
+        return breakdown.stream()
+                .sorted(Comparator.comparing(CategorySummaryDTO::getCategory).thenComparing(CategorySummaryDTO::getType))
+                .toList();
+    }
+}
@@ -0,0 +1,202 @@
+package com.qfin.qfinbackend.service;
+
+import com.qfin.qfinbackend.model.ActionLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentedFileActionLogStoreTest {
+
+    private static final LocalDateTime MIN = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 5, 1, 8, 0);
+
+    @TempDir
+    Path dir;
+
+    private SegmentedFileActionLogStore abrir() throws IOException {
+        SegmentedFileActionLogStore store = new SegmentedFileActionLogStore();
+        ReflectionTestUtils.setField(store, "directory", dir.toString());
+        ReflectionTestUtils.setField(store, "segmentBytes", 1024 * 1024);
+        store.init();
+        return store;
+    }
+
+    private static ActionLog log(long userId, String action, LocalDateTime timestamp) {
+        ActionLog entry = new ActionLog(userId, "user" + userId + "@teste.com", action, "Detalhes de " + action);
+        entry.setTimestamp(timestamp);
+        entry.setIpAddress("10.0.0." + userId);
+        return entry;
+    }
+
+    private static List<ActionLog> todos(SegmentedFileActionLogStore store, Long userId) {
+        return store.findPage(userId, MIN, MAX, Long.MAX_VALUE, null, Integer.MAX_VALUE);
+    }
+
+    @Test
+    void deveGravarEPaginarPorUsuarioComRecuperacaoAposReabrir() throws IOException {
+        SegmentedFileActionLogStore store = abrir();
+        List<ActionLog> lote = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            lote.add(log(i % 3, i % 2 == 0 ? "LOGIN" : "UPDATE_PROFILE", BASE.plusMinutes(i / 2)));
+        }
+        store.append(lote);
+        store.close();
+
+        store = abrir();
+        List<ActionLog> paginas = new ArrayList<>();
+        LocalDateTime cursorTimestamp = MAX;
+        long cursorId = Long.MAX_VALUE;
+        List<ActionLog> page;
+        do {
+            page = store.findPage(1L, MIN, cursorTimestamp, cursorId, null, 4);
+            paginas.addAll(page);
+            if (!page.isEmpty()) {
+                cursorTimestamp = page.get(page.size() - 1).getTimestamp();
+                cursorId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == 4);
+
+        assertEquals(10, paginas.size());
+        for (int i = 1; i < paginas.size(); i++) {
+            ActionLog anterior = paginas.get(i - 1);
+            ActionLog atual = paginas.get(i);
+            assertTrue(anterior.getTimestamp().isAfter(atual.getTimestamp())
+                    || (anterior.getTimestamp().equals(atual.getTimestamp()) && anterior.getId() > atual.getId()));
+        }
+        ActionLog primeiro = paginas.get(0);
+        assertEquals("user1@teste.com", primeiro.getUserEmail());
+        assertEquals("10.0.0.1", primeiro.getIpAddress());
+        assertNull(primeiro.getLatencyMs());
+
+        List<ActionLog> logins = store.findPage(null, BASE.plusMinutes(5), BASE.plusMinutes(9), Long.MAX_VALUE, "LOGIN", 100);
+        assertEquals(5, logins.size());
+        assertTrue(logins.stream().allMatch(entry -> entry.getAction().equals("LOGIN")));
+
+        // Novos ids continuam a sequência dos segmentos recuperados
+        store.append(List.of(log(1, "LOGIN", BASE.plusHours(1))));
+        assertEquals(31L, todos(store, 1L).get(0).getId());
+    }
+
+    @Test
+    void deveExigirDiretorioExplicito() {
+        SegmentedFileActionLogStore store = new SegmentedFileActionLogStore();
+        ReflectionTestUtils.setField(store, "directory", " ");
+
+        assertThrows(IllegalStateException.class, store::init);
+    }
+
+    @Test
+    void deveRolarPelaIdadeDoPrimeiroRegistroMesmoAposReabrir() throws IOException {
+        SegmentedFileActionLogStore store = abrir();
+        store.append(List.of(log(1, "LOGIN", BASE)));
+        store.close();
+
+        store = abrir();
+        store.append(List.of(log(1, "LOGIN", BASE.plusHours(23))));
+        assertEquals(1, store.getStats().get("segments"));
+        store.append(List.of(log(1, "LOGOUT", BASE.plusHours(25))));
+        assertEquals(2, store.getStats().get("segments"));
+        assertEquals(3, todos(store, null).size());
+    }
+
+    @Test
+    void devePaginarSemUsuarioPelosCheckpointsDeTempo() throws IOException {
+        SegmentedFileActionLogStore store = abrir();
+        // Cerca de 600 bytes por registro: vários blocos de checkpoint por segmento
+        String detalhes = "y".repeat(500);
+        List<ActionLog> lote = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            ActionLog entry = log(i % 5, i % 3 == 0 ? "LOGIN" : "UPDATE_PROFILE", BASE.plusSeconds(i));
+            entry.setDetails(detalhes);
+            lote.add(entry);
+        }
+        // Um registro fora de ordem no meio não pode ser perdido
+        lote.get(1500).setTimestamp(BASE.minusHours(1));
+        store.append(lote);
+        store.close();
+        store = abrir();
+
+        List<ActionLog> pagina = store.findPage(null, MIN, BASE.plusSeconds(1000), Long.MAX_VALUE, null, 10);
+        assertEquals(10, pagina.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(BASE.plusSeconds(1000 - i), pagina.get(i).getTimestamp());
+        }
+
+        List<ActionLog> janela = store.findPage(null, BASE.plusSeconds(2000), BASE.plusSeconds(2100), Long.MAX_VALUE, "LOGIN", 100);
+        assertEquals(34, janela.size());
+        assertEquals(BASE.plusSeconds(2100), janela.get(0).getTimestamp());
+
+        List<ActionLog> antigo = store.findPage(null, MIN, BASE.minusMinutes(1), Long.MAX_VALUE, null, 10);
+        assertEquals(1, antigo.size());
+        assertEquals(1501L, antigo.get(0).getId());
+        assertEquals(3000, todos(store, null).size());
+    }
+
+    @Test
+    void deveIgnorarRegistroIncompletoAoReabrir() throws IOException {
+        SegmentedFileActionLogStore store = abrir();
+        store.append(List.of(log(1, "LOGIN", BASE), log(1, "LOGOUT", BASE.plusMinutes(1))));
+        store.close();
+
+        // Simula uma gravação interrompida no meio do segundo registro
+        Path segmento;
+        try (Stream<Path> files = Files.list(dir)) {
+            segmento = files.filter(file -> file.toString().endsWith(".seg")).findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segmento, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(4);
+            channel.read(header, 0);
+            int primeiro = header.flip().getInt();
+            channel.write(ByteBuffer.wrap(new byte[] {0x7f, 0x7f, 0x7f, 0x7f}), primeiro + 20);
+        }
+
+        store = abrir();
+        List<ActionLog> logs = todos(store, 1L);
+        assertEquals(1, logs.size());
+        assertEquals("LOGIN", logs.get(0).getAction());
+    }
+
+    @Test
+    void deveRolarSegmentosERemoverOuCompactarOsExpirados() throws IOException {
+        SegmentedFileActionLogStore store = abrir();
+        LocalDateTime agora = LocalDateTime.now();
+        // Detalhes longos enchem o segmento de 1MB em algumas centenas de registros
+        String detalhes = "x".repeat(480);
+        for (int dia = 40; dia >= 0; dia -= 10) {
+            List<ActionLog> lote = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                ActionLog entry = log(7, "LOGIN", agora.minusDays(dia).plusSeconds(i));
+                entry.setDetails(detalhes);
+                lote.add(entry);
+            }
+            store.append(lote);
+        }
+        assertTrue((int) store.getStats().get("segments") >= 3);
+        assertEquals(5000L, store.getStats().get("records"));
+
+        int removidos = store.purgeBefore(agora.minusDays(15));
+
+        assertEquals(3000, removidos);
+        List<ActionLog> restantes = todos(store, 7L);
+        assertEquals(2000, restantes.size());
+        assertTrue(restantes.stream().allMatch(entry -> !entry.getTimestamp().isBefore(agora.minusDays(15))));
+        store.close();
+
+        // Segmentos compactados continuam legíveis depois de reabrir
+        assertEquals(2000, todos(abrir(), 7L).size());
+    }
+}
@@ -0,0 +1,99 @@
+package com.qfin.qfinbackend.service;
+
+import com.qfin.qfinbackend.dto.TransactionPageDTO;
+import com.qfin.qfinbackend.model.Transaction;
+import com.qfin.qfinbackend.model.Transaction.TransactionType;
+import com.qfin.qfinbackend.model.User;
+import com.qfin.qfinbackend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class TransactionServiceTest {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("Teste Transacao");
+        user.setEmail("transacao-" + System.nanoTime() + "@teste.com");
+        user.setPassword("hash");
+        user = userRepository.save(user);
+
+        User outro = new User();
+        outro.setName("Outro Usuario");
+        outro.setEmail("outro-" + System.nanoTime() + "@teste.com");
+        outro.setPassword("hash");
+        outro = userRepository.save(outro);
+
+        LocalDate base = LocalDate.of(2025, 1, 1);
+        for (int i = 0; i < 5; i++) {
+            // Duas transações por dia para exercitar o desempate por id
+            transactionService.createTransaction(novaTransacao(user, base.plusDays(i)));
+            transactionService.createTransaction(novaTransacao(user, base.plusDays(i)));
+        }
+        transactionService.createTransaction(novaTransacao(outro, base));
+    }
+
+    private Transaction novaTransacao(User owner, LocalDate date) {
+        Transaction t = new Transaction();
+        t.setUser(owner);
+        t.setType(TransactionType.EXPENSE);
+        t.setAmount(10.0);
+        t.setCategory("Teste");
+        t.setDescription("Transação de teste");
+        t.setDate(date);
+        return t;
+    }
+
+    @Test
+    void deveListarApenasTransacoesDoUsuario() {
+        assertEquals(10, transactionService.getTransactionsByUser(user).size());
+    }
+
+    @Test
+    void devePaginarPorCursorSemRepetirNemPular() {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            TransactionPageDTO page = transactionService.getTransactionPageByUser(user, cursor, 3);
+            assertTrue(page.getItems().size() <= 3);
+            page.getItems().forEach(t -> ids.add(t.getId()));
+            cursor = page.getNext();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(4, pages);
+        assertEquals(10, ids.size());
+        assertEquals(10, ids.stream().distinct().count());
+
+        List<Long> expected = transactionService.getTransactionsByUser(user).stream()
+                .map(Transaction::getId)
+                .toList();
+        assertEquals(expected, ids);
+    }
+
+    @Test
+    void deveRejeitarCursorInvalido() {
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionService.getTransactionPageByUser(user, "cursor-invalido", 3));
+    }
+}
@@ -0,0 +1,70 @@
+package com.qfin.qfinbackend.service;
+
+import com.qfin.qfinbackend.dto.CurrentUser;
+import com.qfin.qfinbackend.model.User;
+import com.qfin.qfinbackend.model.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class UserDetailsCacheTest {
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private String email;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setName("Teste Cache");
+        user.setEmail("cache-" + System.nanoTime() + "@teste.com");
+        user.setPassword("senha123");
+        User saved = userService.register(user);
+        email = saved.getEmail();
+        userId = saved.getId();
+    }
+
+    private UserDetails carregar() {
+        return userDetailsCache.get(email, () -> userDetailsService.loadUserByUsername(email));
+    }
+
+    @Test
+    void deveReutilizarUserDetailsAteTrocaDeSenha() {
+        UserDetails primeiro = carregar();
+        assertSame(primeiro, carregar());
+
+        userService.changePassword(email, "senha123", "novaSenha456");
+
+        UserDetails atualizado = carregar();
+        assertNotSame(primeiro, atualizado);
+        assertTrue(passwordEncoder.matches("novaSenha456", atualizado.getPassword()));
+    }
+
+    @Test
+    void deveCarregarPrincipalLeveComIdEPapel() {
+        CurrentUser principal = (CurrentUser) carregar();
+
+        assertEquals(userId, principal.getId());
+        assertEquals(email, principal.getUsername());
+        assertEquals(UserRole.USER, principal.getRole());
+    }
+}
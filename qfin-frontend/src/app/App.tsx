@@ -31,9 +31,20 @@ interface Financing {
   endDate: string;
 }
 
+const mapTransaction = (t: any): Transaction => ({
+  id: t.id.toString(),
+  type: t.type.toLowerCase() as 'income' | 'expense',
+  amount: t.amount,
+  category: t.category,
+  description: t.description,
+  date: t.date,
+});
+
 export default function App() {
   const [currentPage, setCurrentPage] = useState('dashboard');
   const [transactions, setTransactions] = useState<Transaction[]>([]);
+  // Cursor da próxima página de transações; null quando todas já foram carregadas
+  const [transactionsCursor, setTransactionsCursor] = useState<string | null>(null);
   const [financings, setFinancings] = useState<Financing[]>([]);
   const [isAuthenticated, setIsAuthenticated] = useState(false);
   const [isLoading, setIsLoading] = useState(true);
@@ -50,7 +61,8 @@ export default function App() {
     phone: '',
     bio: '',
     birthDate: '',
-    profileImageBase64: null as string | null,
+    profileImageUrl: null as string | null,
+    profileImageThumbnailUrl: null as string | null,
   });
 
   const mapFinancingType = (type: string): string => {
@@ -79,24 +91,27 @@ export default function App() {
     return typeMap[type] || 'OTHER';
   };
 
+  const loadMoreTransactions = async () => {
+    if (!transactionsCursor) return;
+    try {
+      const page = await api.getTransactions(transactionsCursor);
+      setTransactions(prev => [...prev, ...page.items.map(mapTransaction)]);
+      setTransactionsCursor(page.next);
+    } catch (error) {
+      console.error('Error loading transactions:', error);
+    }
+  };
+
   const loadData = useCallback(async () => {
     try {
       setIsLoading(true);
-      const [transactionsData, financingsData] = await Promise.all([
+      const [transactionsPage, financingsData] = await Promise.all([
         api.getTransactions(),
         api.getFinancings(),
       ]);
 
-      const mappedTransactions = transactionsData.map((t: any) => ({
-        id: t.id.toString(),
-        type: t.type.toLowerCase() as 'income' | 'expense',
-        amount: t.amount,
-        category: t.category,
-        description: t.description,
-        date: t.date,
-      }));
-
-      setTransactions(mappedTransactions);
+      setTransactions(transactionsPage.items.map(mapTransaction));
+      setTransactionsCursor(transactionsPage.next);
 
       setFinancings(financingsData.map((f: any) => ({
         id: f.id.toString(),
@@ -158,6 +173,7 @@ export default function App() {
     const handleLogout = () => {
       setIsAuthenticated(false);
       setTransactions([]);
+      setTransactionsCursor(null);
       setFinancings([]);
       setCurrentPage('dashboard');
       setLoginForm({ email: '', password: '', name: '', cpf: '' });
@@ -182,7 +198,8 @@ export default function App() {
         phone: '',
         bio: '',
         birthDate: '',
-        profileImageBase64: null,
+        profileImageUrl: null,
+        profileImageThumbnailUrl: null,
       });
       setIsAuthenticated(true);
       loadData();
@@ -202,7 +219,8 @@ export default function App() {
         phone: '',
         bio: '',
         birthDate: '',
-        profileImageBase64: null,
+        profileImageUrl: null,
+        profileImageThumbnailUrl: null,
       });
       setIsAuthenticated(true);
       loadData();
@@ -513,6 +531,8 @@ export default function App() {
         return (
           <TransactionsPage
             transactions={transactions}
+            hasMore={transactionsCursor !== null}
+            onLoadMore={loadMoreTransactions}
             onAddTransaction={addTransaction}
             onDeleteTransaction={deleteTransaction}
           />
@@ -6,7 +6,8 @@ interface HeaderProps {
   onNavigate: (page: string) => void;
   currentUser?: {
     name?: string;
-    profileImageBase64?: string | null;
+    profileImageUrl?: string | null;
+    profileImageThumbnailUrl?: string | null;
   };
 }
 
@@ -129,9 +130,9 @@ export function Header({ currentPage, onNavigate, currentUser }: HeaderProps) {
               className="h-8 w-8 rounded-full flex items-center justify-center overflow-hidden"
               style={{ backgroundColor: '#1E3A8A', color: 'white' }}
             >
-              {currentUser?.profileImageBase64 ? (
+              {currentUser?.profileImageUrl ? (
                 <img
-                  src={currentUser.profileImageBase64}
+                  src={currentUser.profileImageThumbnailUrl || currentUser.profileImageUrl}
                   alt={currentUser?.name || 'Usuário'}
                   className="h-full w-full object-cover"
                 />
@@ -10,7 +10,8 @@ interface UserProfile {
   phone: string;
   bio: string;
   birthDate: string;
-  profileImageBase64: string | null;
+  profileImageUrl: string | null;
+  profileImageThumbnailUrl: string | null;
 }
 
 interface ProfilePageProps {
@@ -26,7 +27,7 @@ export function ProfilePage({ currentUser, onUserUpdated }: ProfilePageProps) {
     bio: currentUser.bio || '',
     birthDate: currentUser.birthDate || '',
   });
-  const [profileImage, setProfileImage] = useState<string | null>(currentUser.profileImageBase64 || null);
+  const [profileImage, setProfileImage] = useState<string | null>(currentUser.profileImageUrl || null);
   const [passwordForm, setPasswordForm] = useState({
     currentPassword: '',
     newPassword: '',
@@ -61,7 +62,7 @@ export function ProfilePage({ currentUser, onUserUpdated }: ProfilePageProps) {
       bio: currentUser.bio || '',
       birthDate: currentUser.birthDate || '',
     });
-    setProfileImage(currentUser.profileImageBase64 || null);
+    setProfileImage(currentUser.profileImageUrl || null);
   }, [currentUser]);
 
   const loadProfile = async () => {
@@ -73,9 +74,10 @@ export function ProfilePage({ currentUser, onUserUpdated }: ProfilePageProps) {
         phone: data.phone || '',
         bio: data.bio || '',
         birthDate: data.birthDate || '',
-        profileImageBase64: data.profileImageBase64 || null,
+        profileImageUrl: data.profileImageUrl || null,
+        profileImageThumbnailUrl: data.profileImageThumbnailUrl || null,
       });
-      setProfileImage(data.profileImageBase64 || null);
+      setProfileImage(data.profileImageUrl || null);
     } catch (error: any) {
       setProfileError(error?.message || 'Erro ao carregar perfil.');
     }
@@ -157,7 +159,8 @@ export function ProfilePage({ currentUser, onUserUpdated }: ProfilePageProps) {
         phone: res.user.phone || '',
         bio: res.user.bio || '',
         birthDate: res.user.birthDate || '',
-        profileImageBase64: res.user.profileImageBase64 || null,
+        profileImageUrl: res.user.profileImageUrl || null,
+        profileImageThumbnailUrl: res.user.profileImageThumbnailUrl || null,
       });
       setProfileMessage('Perfil atualizado com sucesso.');
     } catch (error: any) {
@@ -225,14 +228,15 @@ export function ProfilePage({ currentUser, onUserUpdated }: ProfilePageProps) {
       const base64 = await readFileAsBase64(file);
       const res = await api.updateProfilePhoto(base64);
       const updated = res.user;
-      setProfileImage(updated.profileImageBase64 || null);
+      setProfileImage(updated.profileImageUrl || null);
       onUserUpdated({
         name: updated.name,
         email: updated.email,
         phone: updated.phone || '',
         bio: updated.bio || '',
         birthDate: updated.birthDate || '',
-        profileImageBase64: updated.profileImageBase64 || null,
+        profileImageUrl: updated.profileImageUrl || null,
+        profileImageThumbnailUrl: updated.profileImageThumbnailUrl || null,
       });
       setPhotoMessage('Foto de perfil atualizada com sucesso.');
     } catch (error: any) {
@@ -262,7 +266,8 @@ export function ProfilePage({ currentUser, onUserUpdated }: ProfilePageProps) {
         phone: updated.phone || '',
         bio: updated.bio || '',
         birthDate: updated.birthDate || '',
-        profileImageBase64: null,
+        profileImageUrl: null,
+        profileImageThumbnailUrl: null,
       });
       setPhotoMessage('Foto de perfil removida com sucesso.');
     } catch (error: any) {
@@ -18,12 +18,16 @@ interface Transaction {
 
 interface TransactionsPageProps {
   transactions: Transaction[];
+  hasMore: boolean;
+  onLoadMore: () => void;
   onAddTransaction: (transaction: Omit<Transaction, 'id'>) => void;
   onDeleteTransaction: (id: string) => void;
 }
 
 export function TransactionsPage({ 
   transactions, 
+  hasMore,
+  onLoadMore,
   onAddTransaction, 
   onDeleteTransaction 
 }: TransactionsPageProps) {
@@ -209,6 +213,13 @@ export function TransactionsPage({
             transactions={filteredTransactions}
             onDeleteTransaction={onDeleteTransaction}
           />
+          {hasMore && (
+            <div className="flex justify-center mt-4">
+              <Button variant="outline" onClick={onLoadMore}>
+                Carregar mais
+              </Button>
+            </div>
+          )}
         </CardContent>
       </Card>
     </div>
@@ -1,5 +1,17 @@
 const API_BASE_URL = import.meta.env.VITE_API_URL || 'http://localhost:8080/api';
 
+type ProfileImageUrls = { profileImageUrl?: string | null; profileImageThumbnailUrl?: string | null };
+
+// As URLs das fotos de perfil vêm relativas ao servidor (/api/profile-images/...)
+const toServerUrl = (path?: string | null) =>
+  path ? new URL(path, new URL(API_BASE_URL, window.location.origin)).toString() : null;
+
+const withAbsoluteImageUrls = <T extends ProfileImageUrls>(user: T): T => ({
+  ...user,
+  profileImageUrl: toServerUrl(user.profileImageUrl),
+  profileImageThumbnailUrl: toServerUrl(user.profileImageThumbnailUrl),
+});
+
 class ApiService {
   private token: string | null = null;
 
@@ -87,8 +99,10 @@ class ApiService {
     });
   }
 
-  async getMyLogs(): Promise<any[]> {
-    return this.request('/auth/my-logs');
+  async getMyLogs(cursor?: string, size = 50): Promise<{ items: any[]; next: string | null }> {
+    const params = new URLSearchParams({ size: String(size) });
+    if (cursor) params.set('cursor', cursor);
+    return this.request(`/auth/my-logs?${params}`);
   }
 
   async getAdminUsers(): Promise<any[]> {
@@ -102,8 +116,10 @@ class ApiService {
     });
   }
 
-  async getAdminLogs(page = 0, size = 50): Promise<any[]> {
-    return this.request(`/admin/logs?page=${page}&size=${size}`);
+  async getAdminLogs(cursor?: string, size = 50): Promise<{ items: any[]; next: string | null }> {
+    const params = new URLSearchParams({ size: String(size) });
+    if (cursor) params.set('cursor', cursor);
+    return this.request(`/admin/logs?${params}`);
   }
 
   // Dashboard
@@ -141,8 +157,10 @@ class ApiService {
   }
 
   // Transactions
-  async getTransactions(): Promise<any[]> {
-    return this.request('/transactions');
+  async getTransactions(cursor?: string | null, size = 50): Promise<{ items: any[]; next: string | null }> {
+    const params = new URLSearchParams({ size: String(size) });
+    if (cursor) params.set('cursor', cursor);
+    return this.request(`/transactions?${params}`);
   }
 
   async createTransaction(transaction: any): Promise<any> {
@@ -298,8 +316,9 @@ class ApiService {
   }
 
   // Profile
-  async getProfile(): Promise<{ id: number; name: string; email: string; phone?: string; bio?: string; birthDate?: string; profileImageBase64?: string | null }> {
-    return this.request('/auth/profile');
+  async getProfile(): Promise<{ id: number; name: string; email: string; phone?: string; bio?: string; birthDate?: string; profileImageUrl?: string | null; profileImageThumbnailUrl?: string | null }> {
+    const data = await this.request<{ id: number; name: string; email: string; phone?: string; bio?: string; birthDate?: string } & ProfileImageUrls>('/auth/profile');
+    return withAbsoluteImageUrls(data);
   }
 
   async updateProfile(
@@ -308,15 +327,15 @@ class ApiService {
     phone?: string,
     bio?: string,
     birthDate?: string
-  ): Promise<{ token: string; user: { id: number; name: string; email: string; phone?: string; bio?: string; birthDate?: string; profileImageBase64?: string | null } }> {
-    const data = await this.request<{ token: string; user: { id: number; name: string; email: string; phone?: string; bio?: string; birthDate?: string; profileImageBase64?: string | null } }>('/auth/profile', {
+  ): Promise<{ token: string; user: { id: number; name: string; email: string; phone?: string; bio?: string; birthDate?: string; profileImageUrl?: string | null; profileImageThumbnailUrl?: string | null } }> {
+    const data = await this.request<{ token: string; user: { id: number; name: string; email: string; phone?: string; bio?: string; birthDate?: string; profileImageUrl?: string | null; profileImageThumbnailUrl?: string | null } }>('/auth/profile', {
       method: 'PUT',
       body: JSON.stringify({ name, email, phone, bio, birthDate }),
     });
     if (data?.token) {
       this.setToken(data.token);
     }
-    return data;
+    return { ...data, user: withAbsoluteImageUrls(data.user) };
   }
 
   async updateProfileDetails(payload: {
@@ -325,28 +344,30 @@ class ApiService {
     phone?: string;
     bio?: string;
     birthDate?: string;
-  }): Promise<{ token?: string; user: { id: number; name: string; email: string; phone?: string; bio?: string; birthDate?: string; profileImageBase64?: string | null } }> {
-    const data = await this.request<{ token?: string; user: { id: number; name: string; email: string; phone?: string; bio?: string; birthDate?: string; profileImageBase64?: string | null } }>('/auth/profile/details', {
+  }): Promise<{ token?: string; user: { id: number; name: string; email: string; phone?: string; bio?: string; birthDate?: string; profileImageUrl?: string | null; profileImageThumbnailUrl?: string | null } }> {
+    const data = await this.request<{ token?: string; user: { id: number; name: string; email: string; phone?: string; bio?: string; birthDate?: string; profileImageUrl?: string | null; profileImageThumbnailUrl?: string | null } }>('/auth/profile/details', {
       method: 'PUT',
       body: JSON.stringify(payload),
     });
     if (data?.token) {
       this.setToken(data.token);
     }
-    return data;
+    return { ...data, user: withAbsoluteImageUrls(data.user) };
   }
 
-  async updateProfilePhoto(profileImageBase64: string): Promise<{ user: { id: number; name: string; email: string; phone?: string; bio?: string; birthDate?: string; profileImageBase64?: string | null } }> {
-    return this.request('/auth/profile/photo', {
+  async updateProfilePhoto(profileImageBase64: string): Promise<{ user: { id: number; name: string; email: string; phone?: string; bio?: string; birthDate?: string; profileImageUrl?: string | null; profileImageThumbnailUrl?: string | null } }> {
+    const data = await this.request<{ user: { id: number; name: string; email: string; phone?: string; bio?: string; birthDate?: string } & ProfileImageUrls }>('/auth/profile/photo', {
       method: 'PUT',
       body: JSON.stringify({ profileImageBase64 }),
     });
+    return { user: withAbsoluteImageUrls(data.user) };
   }
 
-  async deleteProfilePhoto(): Promise<{ user: { id: number; name: string; email: string; phone?: string; bio?: string; birthDate?: string; profileImageBase64?: string | null } }> {
-    return this.request('/auth/profile/photo', {
+  async deleteProfilePhoto(): Promise<{ user: { id: number; name: string; email: string; phone?: string; bio?: string; birthDate?: string; profileImageUrl?: string | null; profileImageThumbnailUrl?: string | null } }> {
+    const data = await this.request<{ user: { id: number; name: string; email: string; phone?: string; bio?: string; birthDate?: string } & ProfileImageUrls }>('/auth/profile/photo', {
       method: 'DELETE',
     });
+    return { user: withAbsoluteImageUrls(data.user) };
   }
 
   async changePassword(currentPassword: string, newPassword: string): Promise<{ message: string }> {